@@ -34,4 +34,48 @@ public interface TextParser<Input> {
 
     Optional<String> parserCommand(@NonNull @NotNull @Valid BotConfiguration botConfiguration,
                                    @NonNull @NotNull @Valid Input update);
+
+    /**
+     *
+     * @param text Text already parsed from the input, without the bot name
+     * @return The command contained in the text
+     */
+    default Optional<String> parseCommand(@NonNull String text) {
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param text Text already parsed from the input, without the bot name
+     * @return The text following the command
+     */
+    default Optional<String> parseArguments(@NonNull String text) {
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param update Input
+     * @param textWithoutBotName Text already parsed from the input, without the bot name
+     * @return The command contained in the input
+     */
+    default Optional<String> parseCommand(@NonNull BotConfiguration botConfiguration,
+                                          @NonNull Input update,
+                                          @NonNull String textWithoutBotName) {
+        return parseCommand(textWithoutBotName);
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param update Input
+     * @param textWithoutBotName Text already parsed from the input, without the bot name
+     * @return The text following the command
+     */
+    default Optional<String> parseArguments(@NonNull BotConfiguration botConfiguration,
+                                            @NonNull Input update,
+                                            @NonNull String textWithoutBotName) {
+        return parseArguments(textWithoutBotName);
+    }
 }
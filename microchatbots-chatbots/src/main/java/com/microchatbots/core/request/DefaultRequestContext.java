@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.core.request;
+
+import com.microchatbots.core.conf.BotConfiguration;
+import com.microchatbots.core.parser.SpaceParser;
+import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.parser.UserParser;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * {@link RequestContext} which delegates to the parsers the first time a value is requested and memoizes the result.
+ * Instances are meant to be used for a single request and are not thread-safe.
+ * @param <Input> input type.
+ */
+public class DefaultRequestContext<Input> implements RequestContext<Input> {
+
+    private final BotConfiguration botConfiguration;
+    private final Input input;
+    private final SpaceParser<Input> spaceParser;
+    private final UserParser<Input> userParser;
+    private final TextParser<Input> textParser;
+
+    private Optional<Serializable> spaceUniqueIdentifier;
+    private Optional<Serializable> userUniqueIdentifier;
+    private Optional<String> text;
+    private Optional<String> textWithoutBotName;
+    private Optional<String> command;
+    private Optional<String> arguments;
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param input Incoming request
+     * @param spaceParser Space Parser
+     * @param userParser User Parser
+     * @param textParser Text Parser
+     */
+    public DefaultRequestContext(@NonNull BotConfiguration botConfiguration,
+                                 @NonNull Input input,
+                                 @NonNull SpaceParser<Input> spaceParser,
+                                 @NonNull UserParser<Input> userParser,
+                                 @NonNull TextParser<Input> textParser) {
+        this.botConfiguration = botConfiguration;
+        this.input = input;
+        this.spaceParser = spaceParser;
+        this.userParser = userParser;
+        this.textParser = textParser;
+    }
+
+    @Override
+    @NonNull
+    public Input getInput() {
+        return input;
+    }
+
+    @Override
+    @NonNull
+    public Optional<Serializable> getSpaceUniqueIdentifier() {
+        if (spaceUniqueIdentifier == null) {
+            spaceUniqueIdentifier = spaceParser.parseSpaceUniqueIdentifier(botConfiguration, input);
+        }
+        return spaceUniqueIdentifier;
+    }
+
+    @Override
+    @NonNull
+    public Optional<Serializable> getUserUniqueIdentifier() {
+        if (userUniqueIdentifier == null) {
+            userUniqueIdentifier = userParser.parseUserUniqueIdentifier(botConfiguration, input);
+        }
+        return userUniqueIdentifier;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getText() {
+        if (text == null) {
+            text = textParser.parseText(botConfiguration, input, false);
+        }
+        return text;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getTextWithoutBotName() {
+        if (textWithoutBotName == null) {
+            textWithoutBotName = textParser.parseText(botConfiguration, input, true);
+        }
+        return textWithoutBotName;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getCommand() {
+        if (command == null) {
+            command = getTextWithoutBotName().flatMap(text -> textParser.parseCommand(botConfiguration, input, text));
+        }
+        return command;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getArguments() {
+        if (arguments == null) {
+            arguments = getTextWithoutBotName().flatMap(text -> textParser.parseArguments(botConfiguration, input, text));
+        }
+        return arguments;
+    }
+}
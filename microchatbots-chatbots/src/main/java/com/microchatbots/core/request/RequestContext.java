@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.core.request;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Values parsed from an incoming request. A dispatcher creates one context per request and shares it with every
+ * request handler, so a request is parsed once no matter how many handlers are registered.
+ * @param <Input> input type.
+ */
+public interface RequestContext<Input> {
+
+    /**
+     *
+     * @return The incoming request
+     */
+    @NonNull
+    Input getInput();
+
+    /**
+     *
+     * @return Unique identifier of the space (chat, room, channel...) the request was sent from
+     */
+    @NonNull
+    Optional<Serializable> getSpaceUniqueIdentifier();
+
+    /**
+     *
+     * @return Unique identifier of the user who sent the request
+     */
+    @NonNull
+    Optional<Serializable> getUserUniqueIdentifier();
+
+    /**
+     *
+     * @return The text of the request as received
+     */
+    @NonNull
+    Optional<String> getText();
+
+    /**
+     *
+     * @return The text of the request without the bot's name
+     */
+    @NonNull
+    Optional<String> getTextWithoutBotName();
+
+    /**
+     *
+     * @return The command of the request without the command prefix
+     */
+    @NonNull
+    Optional<String> getCommand();
+
+    /**
+     *
+     * @return The text following the command
+     */
+    @NonNull
+    Optional<String> getArguments();
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.core.request.handler;
+
+import com.microchatbots.core.conf.BotConfiguration;
+import org.reactivestreams.Publisher;
+
+/**
+ * Request handlers which produce their output asynchronously. Use them when handling a request requires I/O
+ * (a database, an HTTP call...) so the dispatching thread is not blocked while the output is computed.
+ * @param <Bot> The Bot configuration
+ * @param <Input> input type.
+ * @param <Output> type of the items emitted by the handler.
+ */
+public interface AsyncRequestHandler<Bot extends BotConfiguration, Input, Output> extends GenericRequestHandler<Bot, Input, Publisher<Output>> {
+}
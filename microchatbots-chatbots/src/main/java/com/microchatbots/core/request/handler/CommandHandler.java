@@ -18,10 +18,13 @@ package com.microchatbots.core.request.handler;
 import com.microchatbots.core.conf.BotConfiguration;
 import com.microchatbots.core.parser.SpaceParser;
 import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.request.RequestContext;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 
-public abstract class CommandHandler<Bot extends BotConfiguration, Input, Output> implements GenericRequestHandler<Bot, Input, Output> {
+public abstract class CommandHandler<Bot extends BotConfiguration, Input, Output> implements CommandRequestHandler<Bot, Input, Output> {
 
     protected final TextParser<Input> textParser;
     protected final SpaceParser<Input> spaceParser;
@@ -45,5 +48,19 @@ public abstract class CommandHandler<Bot extends BotConfiguration, Input, Output
         return getCommandName().equals(command);
     }
 
+    @Override
+    public boolean canHandle(Bot botConfiguration, RequestContext<Input> context) {
+        if (!context.getSpaceUniqueIdentifier().isPresent()) {
+            return false;
+        }
+        Optional<String> commandOptional = context.getCommand();
+        return commandOptional.isPresent() && getCommandName().equals(commandOptional.get());
+    }
+
+    @Override
+    public Collection<String> getCommands() {
+        return Collections.singletonList(getCommandName());
+    }
+
     protected abstract String getCommandName();
 }
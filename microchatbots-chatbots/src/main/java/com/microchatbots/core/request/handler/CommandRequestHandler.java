@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.core.request.handler;
+
+import com.microchatbots.core.conf.BotConfiguration;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Collection;
+
+/**
+ * A {@link GenericRequestHandler} which only handles requests for a known set of commands.
+ * Dispatchers use {@link #getCommands()} to route a request straight to this handler instead of asking every handler.
+ * @param <Bot> The Bot configuration
+ * @param <Input> input type.
+ * @param <Output> output type.
+ */
+public interface CommandRequestHandler<Bot extends BotConfiguration, Input, Output> extends GenericRequestHandler<Bot, Input, Output> {
+
+    /**
+     *
+     * @return Commands (without the command prefix) this handler responds to.
+     */
+    @NonNull
+    Collection<String> getCommands();
+}
@@ -16,6 +16,7 @@
 package com.microchatbots.core.request.handler;
 
 import com.microchatbots.core.conf.BotConfiguration;
+import com.microchatbots.core.request.RequestContext;
 import io.micronaut.core.order.Ordered;
 
 /**
@@ -41,4 +42,24 @@ public interface GenericRequestHandler<Bot extends BotConfiguration, Input, Outp
          * @return output from the handler.
          */
         Output handle(Bot bot, Input input);
+
+        /**
+         * Returns true if the handler can dispatch the current request. Override it to use the values already parsed by the dispatcher.
+         * @param bot bot being ask to handle this command
+         * @param context request context shared by every handler
+         * @return true if the handler is capable of handling the current request
+         */
+        default boolean canHandle(Bot bot, RequestContext<Input> context) {
+                return canHandle(bot, context.getInput());
+        }
+
+        /**
+         * Handles the request. Override it to use the values already parsed by the dispatcher.
+         * @param bot bot being ask to handle this command
+         * @param context request context shared by every handler
+         * @return output from the handler.
+         */
+        default Output handle(Bot bot, RequestContext<Input> context) {
+                return handle(bot, context.getInput());
+        }
 }
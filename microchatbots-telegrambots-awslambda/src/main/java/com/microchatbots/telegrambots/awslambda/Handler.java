@@ -17,13 +17,16 @@ package com.microchatbots.telegrambots.awslambda;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.core.request.RequestContext;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.conf.TokenValidator;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.core.send.SerializedSend;
 import com.microchatbots.telegrambots.dispatcher.TelegramDispatcher;
+import com.microchatbots.telegrambots.dispatcher.UpdateDeduplicator;
+import com.microchatbots.telegrambots.parser.StreamingUpdateDecoder;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.function.aws.MicronautRequestHandler;
@@ -32,6 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +59,12 @@ public class Handler extends MicronautRequestHandler<APIGatewayProxyRequestEvent
     @Inject
     protected TelegramDispatcher dispatcher;
 
+    @Inject
+    protected StreamingUpdateDecoder updateDecoder;
+
+    @Inject
+    protected UpdateDeduplicator updateDeduplicator;
+
     /**
      * Default constructor; will initialize a suitable {@link ApplicationContext} for Lambda deployment.
      */
@@ -97,9 +108,11 @@ public class Handler extends MicronautRequestHandler<APIGatewayProxyRequestEvent
 
         if (input.getBody() != null && !input.getBody().trim().isEmpty()) {
             try {
-                Update update = objectMapper.readValue(input.getBody(), Update.class);
                 TelegramBotConfiguration telegramBotConfiguration = telegramBotConfigurationOptional.get();
-                Optional<?> answerOptional = dispatcher.dispatch(telegramBotConfiguration, update);
+                RequestContext<Update> requestContext = updateDecoder.createContext(telegramBotConfiguration, input.getBody());
+                Optional<?> answerOptional = updateDeduplicator.isDuplicate(telegramBotConfiguration, requestContext) ?
+                        Optional.empty() :
+                        dispatch(telegramBotConfiguration, requestContext);
                 if (answerOptional.isPresent()) {
                     Object object = answerOptional.get();
                     if (LOG.isInfoEnabled()) {
@@ -107,7 +120,9 @@ public class Handler extends MicronautRequestHandler<APIGatewayProxyRequestEvent
                     }
                     if (object instanceof Send) {
                         Send send = (Send) object;
-                        String json  = objectMapper.writeValueAsString(send);
+                        String json = send instanceof SerializedSend ?
+                                ((SerializedSend) send).toJson() :
+                                objectMapper.writeValueAsString(send);
                         LOG.info("response json is:" + json);
                         headers.put(CONTENT_TYPE, APPLICATION_JSON);
                         apiGatewayProxyResponseEvent.setBody(json);
@@ -119,7 +134,7 @@ public class Handler extends MicronautRequestHandler<APIGatewayProxyRequestEvent
                 }
                 apiGatewayProxyResponseEvent.setStatusCode(HttpStatus.OK.getCode());
 
-            } catch (JsonProcessingException e) {
+            } catch (IOException | UncheckedIOException e) {
                 LOG.info("json proccession error marshalling the send message " + e.getMessage());
                 headers.put(CONTENT_TYPE, TEXT_PLAIN);
                 apiGatewayProxyResponseEvent.setBody("error converting message to json string");
@@ -134,4 +149,21 @@ public class Handler extends MicronautRequestHandler<APIGatewayProxyRequestEvent
         apiGatewayProxyResponseEvent.setHeaders(headers);
         return apiGatewayProxyResponseEvent;
     }
+
+    /**
+     * Dispatches an update. If the dispatch fails, the update is forgotten by the {@link UpdateDeduplicator} so that
+     * Telegram's redelivery is dispatched again.
+     * @param telegramBotConfiguration Telegram's bot configuration
+     * @param requestContext Context of the update
+     * @return The answer of the handler, if any
+     */
+    protected Optional<?> dispatch(TelegramBotConfiguration telegramBotConfiguration,
+                                   RequestContext<Update> requestContext) {
+        try {
+            return dispatcher.dispatch(telegramBotConfiguration, requestContext);
+        } catch (RuntimeException e) {
+            updateDeduplicator.forget(telegramBotConfiguration, requestContext);
+            throw e;
+        }
+    }
 }
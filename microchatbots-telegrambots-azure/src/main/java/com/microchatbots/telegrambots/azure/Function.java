@@ -15,13 +15,16 @@
  */
 package com.microchatbots.telegrambots.azure;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.core.request.RequestContext;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.conf.TokenValidator;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.core.send.SerializedSend;
 import com.microchatbots.telegrambots.dispatcher.TelegramDispatcher;
+import com.microchatbots.telegrambots.dispatcher.UpdateDeduplicator;
+import com.microchatbots.telegrambots.parser.StreamingUpdateDecoder;
 import com.microsoft.azure.functions.ExecutionContext;
 import com.microsoft.azure.functions.HttpMethod;
 import com.microsoft.azure.functions.HttpRequestMessage;
@@ -34,6 +37,8 @@ import com.microsoft.azure.functions.annotation.HttpTrigger;
 import io.micronaut.azure.function.AzureFunction;
 import io.micronaut.core.annotation.Introspected;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -53,6 +58,12 @@ public class Function extends AzureFunction {
     @Inject
     protected TelegramDispatcher dispatcher;
 
+    @Inject
+    protected StreamingUpdateDecoder updateDecoder;
+
+    @Inject
+    protected UpdateDeduplicator updateDeduplicator;
+
     /**
      *
      * @param request Request
@@ -106,9 +117,11 @@ public class Function extends AzureFunction {
         HttpResponseMessage.Builder builder = request.createResponseBuilder(HttpStatus.OK);
         if (body != null && !body.trim().isEmpty()) {
             try {
-                Update update = objectMapper.readValue(body, Update.class);
                 TelegramBotConfiguration telegramBotConfiguration = telegramBotConfigurationOptional.get();
-                Optional<?> answerOptional = dispatcher.dispatch(telegramBotConfiguration, update);
+                RequestContext<Update> requestContext = updateDecoder.createContext(telegramBotConfiguration, body);
+                Optional<?> answerOptional = updateDeduplicator.isDuplicate(telegramBotConfiguration, requestContext) ?
+                        Optional.empty() :
+                        dispatch(telegramBotConfiguration, requestContext);
                 if (answerOptional.isPresent()) {
                     Object object = answerOptional.get();
                     if (context != null) {
@@ -116,7 +129,9 @@ public class Function extends AzureFunction {
                     }
                     if (object instanceof Send) {
                         Send send = (Send) object;
-                        String json  = objectMapper.writeValueAsString(send);
+                        String json = send instanceof SerializedSend ?
+                                ((SerializedSend) send).toJson() :
+                                objectMapper.writeValueAsString(send);
                         if (context != null) {
                             context.getLogger().info("response json is:" + json);
                         }
@@ -129,7 +144,7 @@ public class Function extends AzureFunction {
                     }
                 }
 
-            } catch (JsonProcessingException e) {
+            } catch (IOException | UncheckedIOException e) {
                 if (context != null) {
                     context.getLogger().info("json proccession error marshalling the send message " + e.getMessage());
                 }
@@ -150,4 +165,21 @@ public class Function extends AzureFunction {
         }
         return builder.build();
     }
+
+    /**
+     * Dispatches an update. If the dispatch fails, the update is forgotten by the {@link UpdateDeduplicator} so that
+     * Telegram's redelivery is dispatched again.
+     * @param telegramBotConfiguration Telegram's bot configuration
+     * @param requestContext Context of the update
+     * @return The answer of the handler, if any
+     */
+    protected Optional<?> dispatch(TelegramBotConfiguration telegramBotConfiguration,
+                                   RequestContext<Update> requestContext) {
+        try {
+            return dispatcher.dispatch(telegramBotConfiguration, requestContext);
+        } catch (RuntimeException e) {
+            updateDeduplicator.forget(telegramBotConfiguration, requestContext);
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.send.InputFile;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.sun.net.httpserver.HttpServer;
+import io.reactivex.Flowable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the peak heap while uploading a 50 MB video to a local server, streamed from disk or sent from a heap
+ * buffer holding the whole video. The peak is reported as the {@code peakHeapMegabytes} secondary result. Run with
+ * {@code ./gradlew :microchatbots-telegrambots:jmh} and a small heap, for example {@code -Xmx128m}, to make the
+ * difference obvious.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class MultipartUploadBenchmark {
+
+    static final int VIDEO_SIZE = 50 * 1024 * 1024;
+
+    private static final byte[] RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private DefaultTelegramBot telegramBot;
+    private Path video;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream body = exchange.getRequestBody()) {
+                int read = body.read(buffer);
+                while (read != -1) {
+                    read = body.read(buffer);
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(RESPONSE);
+            }
+        });
+        server.start();
+        telegramBot = new DefaultTelegramBot("123:abc", "http://localhost:" + server.getAddress().getPort());
+        video = Files.createTempFile("video", ".mp4");
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(0).nextBytes(chunk);
+        try (OutputStream output = Files.newOutputStream(video)) {
+            for (int written = 0; written < VIDEO_SIZE; written += chunk.length) {
+                output.write(chunk);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        telegramBot.close();
+        server.stop(0);
+        Files.deleteIfExists(video);
+    }
+
+    @Benchmark
+    public Message uploadFromDisk(PeakHeap peakHeap) {
+        return upload(InputFile.of(video), peakHeap);
+    }
+
+    @Benchmark
+    public Message uploadFromHeap(PeakHeap peakHeap) throws IOException {
+        return upload(InputFile.of("video.mp4", ByteBuffer.wrap(Files.readAllBytes(video))), peakHeap);
+    }
+
+    private Message upload(InputFile file, PeakHeap peakHeap) {
+        SendVideo sendVideo = new SendVideo();
+        sendVideo.setChatId(1);
+        Message message = Flowable.fromPublisher(telegramBot.upload(MediaUpload.video(sendVideo, file))).blockingFirst();
+        peakHeap.record();
+        return message;
+    }
+
+    /**
+     * Peak heap usage during an upload.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PeakHeap {
+        public double peakHeapMegabytes;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+
+        void record() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMegabytes = peak / (1024d * 1024d);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.uri.UriBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the client overhead of a call before it reaches the network: resolving the URI of the method and creating
+ * the request, with the URI built on every call, as {@link DefaultTelegramBot} used to, or resolved once by
+ * {@link TelegramBotEndpoints}. Run with {@code ./gradlew :microchatbots-telegrambots:jmh} and the gc profiler to
+ * compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelegramBotEndpointsBenchmark {
+
+    private static final String TOKEN = "123456789:AAHdqTcvCH1vGWJxfSeofSAs0K5PALDsaw";
+
+    private TelegramBotEndpoints endpoints;
+    private SendMessage sendMessage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        endpoints = TelegramBotEndpoints.of(TOKEN);
+        sendMessage = new SendMessage();
+        sendMessage.setChatId(1);
+        sendMessage.setText("hello");
+    }
+
+    @Benchmark
+    public URI builtUri() {
+        return UriBuilder.of(DefaultTelegramBot.BOT_PATH + TOKEN).path(SendMessage.METHOD_SENDMESSAGE).build();
+    }
+
+    @Benchmark
+    public URI precomputedUri() {
+        return endpoints.uri(SendMessage.METHOD_SENDMESSAGE);
+    }
+
+    @Benchmark
+    public HttpRequest<SendMessage> requestWithBuiltUri() {
+        return HttpRequest.POST(UriBuilder.of(DefaultTelegramBot.BOT_PATH + TOKEN).path(SendMessage.METHOD_SENDMESSAGE).build(), sendMessage);
+    }
+
+    @Benchmark
+    public HttpRequest<SendMessage> requestWithPrecomputedUri() {
+        return HttpRequest.POST(endpoints.uri(SendMessage.METHOD_SENDMESSAGE), sendMessage);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Jackson's reflective bean (de)serializers with the introspection backed codecs of {@link TelegramJacksonModule}.
+ * The {@code AverageTime} benchmarks measure warm throughput, the {@code cold*} benchmarks measure a fresh
+ * {@link ObjectMapper} reading its first update, which is what a serverless cold start pays.
+ * Run with {@code ./gradlew :microchatbots-telegrambots:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonCodecBenchmark {
+
+    static final String UPDATE = "{\"update_id\":987654321,\"message\":{\"message_id\":42," +
+            "\"from\":{\"id\":1111,\"is_bot\":false,\"first_name\":\"Sergio\",\"username\":\"sdelamo\",\"language_code\":\"en\"}," +
+            "\"chat\":{\"id\":1111,\"first_name\":\"Sergio\",\"username\":\"sdelamo\",\"type\":\"private\"}," +
+            "\"date\":1601040000,\"text\":\"/start@testbot hello\"," +
+            "\"entities\":[{\"offset\":0,\"length\":14,\"type\":\"bot_command\"}]}}";
+
+    private ObjectMapper reflective;
+    private ObjectMapper introspected;
+    private SendMessage sendMessage;
+
+    @Setup
+    public void setup() {
+        reflective = objectMapper(false);
+        introspected = objectMapper(true);
+        sendMessage = new SendMessage();
+        sendMessage.setChatId(1111);
+        sendMessage.setText("Hello *world*");
+        sendMessage.setParseMode("MarkdownV2");
+    }
+
+    @Benchmark
+    public Update readUpdateReflective() throws JsonProcessingException {
+        return reflective.readValue(UPDATE, Update.class);
+    }
+
+    @Benchmark
+    public Update readUpdateIntrospected() throws JsonProcessingException {
+        return introspected.readValue(UPDATE, Update.class);
+    }
+
+    @Benchmark
+    public String writeSendMessageReflective() throws JsonProcessingException {
+        return reflective.writeValueAsString(sendMessage);
+    }
+
+    @Benchmark
+    public String writeSendMessageIntrospected() throws JsonProcessingException {
+        return introspected.writeValueAsString(sendMessage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Update coldReadUpdateReflective() throws JsonProcessingException {
+        return objectMapper(false).readValue(UPDATE, Update.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Update coldReadUpdateIntrospected() throws JsonProcessingException {
+        return objectMapper(true).readValue(UPDATE, Update.class);
+    }
+
+    private static ObjectMapper objectMapper(boolean introspected) {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        if (introspected) {
+            objectMapper.registerModule(new TelegramJacksonModule());
+        }
+        return objectMapper;
+    }
+}
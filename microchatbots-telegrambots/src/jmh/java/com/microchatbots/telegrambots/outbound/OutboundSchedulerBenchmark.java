@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead per message of the {@link OutboundScheduler} when 100k messages are queued at once, to a
+ * single chat, to a thousand chats or to a different chat each. Run with {@code ./gradlew :microchatbots-telegrambots:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OutboundSchedulerBenchmark {
+
+    static final int MESSAGES = 100_000;
+
+    @Param({"1", "1000", "100000"})
+    public int chats;
+
+    private OutboundScheduler scheduler;
+    private String[] chatIds;
+
+    @Setup(Level.Trial)
+    public void chats() {
+        chatIds = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            chatIds[i] = Integer.toString(i % chats);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void scheduler() {
+        scheduler = new OutboundScheduler(new OutboundRateLimitConfigurationProperties());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void reserve(Blackhole blackhole) {
+        for (int i = 0; i < MESSAGES; i++) {
+            blackhole.consume(scheduler.reserveChat("bot", chatIds[i]));
+            blackhole.consume(scheduler.reserveBot("bot"));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(MESSAGES)
+    public void reserveConcurrently(Blackhole blackhole) {
+        for (int i = 0; i < MESSAGES; i++) {
+            blackhole.consume(scheduler.reserveChat("bot", chatIds[i]));
+            blackhole.consume(scheduler.reserveBot("bot"));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties;
+import com.microchatbots.telegrambots.core.Chat;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the command parsing based on {@link String#replaceAll(String, String)} and {@link String#split(String)} with
+ * the index based scanner of {@link TelegramParser}. Run with {@code ./gradlew :microchatbots-telegrambots:jmh}; the gc
+ * profiler reports the allocation per update as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelegramParserBenchmark {
+
+    @Param({"/start", "/start@testbot", "/help@testbot with some arguments", "hello world"})
+    public String text;
+
+    private TelegramParser parser;
+    private TelegramBotConfigurationProperties bot;
+    private Update update;
+
+    @Setup
+    public void setup() {
+        parser = new TelegramParser();
+        bot = new TelegramBotConfigurationProperties("test");
+        bot.setToken("token");
+        bot.setAtUsername("@testbot");
+        Chat chat = new Chat();
+        chat.setId(1);
+        Message message = new Message();
+        message.setChat(chat);
+        message.setText(text);
+        update = new Update();
+        update.setUpdateId(1);
+        update.setMessage(message);
+    }
+
+    @Benchmark
+    public Optional<String> replaceAllAndSplit() {
+        String parsed = update.getMessage().getText().replaceAll(bot.getAtUsername(), "").trim();
+        if (parsed.indexOf(' ') != -1) {
+            String[] arr = parsed.split(" ");
+            if (arr.length >= 1) {
+                parsed = arr[0];
+            }
+        }
+        if (parsed.startsWith(TelegramParser.COMMAND_PREFIX)) {
+            return Optional.of(parsed.substring(1));
+        }
+        return Optional.empty();
+    }
+
+    @Benchmark
+    public Optional<String> scanner() {
+        return parser.parserCommand(bot, update);
+    }
+}
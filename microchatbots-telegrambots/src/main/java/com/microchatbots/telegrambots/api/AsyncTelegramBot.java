@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link TelegramBot} whose calls complete a {@link CompletionStage}. No thread waits for a call in flight, unlike
+ * {@link BlockingTelegramBot}, so a caller may have many calls in flight at once.
+ */
+public interface AsyncTelegramBot {
+
+    CompletionStage<List<Update>> getUpdates(@NonNull @NotNull @Valid GetUpdates getUpdates);
+
+    CompletionStage<List<BotCommand>> getMyCommands(@NonNull @NotBlank String token);
+
+    CompletionStage<TelegramApiResponse> setMyCommands(@NonNull @NotBlank String token,
+                                                       @NonNull @NotNull List<@Valid BotCommand> botCommands);
+
+    CompletionStage<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid Webhook webhook);
+
+    CompletionStage<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage);
+
+    CompletionStage<Message> sendMessage(@NonNull @NotNull String text,
+                                         @NonNull @NotNull Integer chatId);
+
+    CompletionStage<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto);
+
+    CompletionStage<TelegramApiResponse> deleteWebhook();
+
+    CompletionStage<WebhookInfo> getWebhookInfo();
+
+    CompletionStage<File> getFile(@NonNull @NotNull @Valid GetFile getFile);
+
+    CompletionStage<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio);
+
+    CompletionStage<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo);
+
+    CompletionStage<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation);
+
+    CompletionStage<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation);
+
+    CompletionStage<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument);
+
+    CompletionStage<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice);
+
+    /**
+     * Sends a message whose media is uploaded with multipart/form-data.
+     * @param upload Media upload
+     * @return The message sent
+     */
+    CompletionStage<Message> upload(@NonNull @NotNull MediaUpload<?> upload);
+
+    /**
+     * Sends an album of media referenced by file_id or URL.
+     * @param sendMediaGroup Media group
+     * @return The messages sent
+     */
+    CompletionStage<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup);
+
+    /**
+     * Sends an album mixing media referenced by file_id or URL with media uploaded in the same request.
+     * @param upload Media group upload
+     * @return The messages sent
+     */
+    CompletionStage<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload);
+}
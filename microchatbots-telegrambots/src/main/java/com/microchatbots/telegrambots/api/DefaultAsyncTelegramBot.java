@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.reactivestreams.Publisher;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link AsyncTelegramBot} completing a {@link CompletableFuture} with the first item of the calls of a
+ * {@link TelegramBot}. Cancelling the future cancels the call.
+ */
+public class DefaultAsyncTelegramBot implements AsyncTelegramBot, AutoCloseable {
+    private final TelegramBot telegramBot;
+
+    /**
+     *
+     * @param telegramBot Bot making the calls
+     */
+    public DefaultAsyncTelegramBot(@NonNull TelegramBot telegramBot) {
+        this.telegramBot = telegramBot;
+    }
+
+    @Override
+    public CompletableFuture<List<Update>> getUpdates(@NonNull @NotNull @Valid GetUpdates getUpdates) {
+        return toFuture(telegramBot.getUpdates(getUpdates));
+    }
+
+    @Override
+    public CompletableFuture<List<BotCommand>> getMyCommands(@NonNull @NotBlank String token) {
+        return toFuture(telegramBot.getMyCommands(token));
+    }
+
+    @Override
+    public CompletableFuture<TelegramApiResponse> setMyCommands(@NonNull @NotBlank String token,
+                                                                @NonNull @NotNull List<@Valid BotCommand> botCommands) {
+        return toFuture(telegramBot.setMyCommands(token, botCommands));
+    }
+
+    @Override
+    public CompletableFuture<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid Webhook webhook) {
+        return toFuture(telegramBot.setWebhook(webhook));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
+        return toFuture(telegramBot.sendMessage(sendMessage));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendMessage(@NonNull @NotNull String text,
+                                                  @NonNull @NotNull Integer chatId) {
+        return toFuture(telegramBot.sendMessage(text, chatId));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
+        return toFuture(telegramBot.sendPhoto(sendPhoto));
+    }
+
+    @Override
+    public CompletableFuture<TelegramApiResponse> deleteWebhook() {
+        return toFuture(telegramBot.deleteWebhook());
+    }
+
+    @Override
+    public CompletableFuture<WebhookInfo> getWebhookInfo() {
+        return toFuture(telegramBot.getWebhookInfo());
+    }
+
+    @Override
+    public CompletableFuture<File> getFile(@NonNull @NotNull @Valid GetFile getFile) {
+        return toFuture(telegramBot.getFile(getFile));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        return toFuture(telegramBot.sendAudio(sendAudio));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
+        return toFuture(telegramBot.sendVideo(sendVideo));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
+        return toFuture(telegramBot.sendAnimation(sendAnimation));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
+        return toFuture(telegramBot.sendLocation(sendLocation));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        return toFuture(telegramBot.sendDocument(sendDocument));
+    }
+
+    @Override
+    public CompletableFuture<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        return toFuture(telegramBot.sendVoice(sendVoice));
+    }
+
+    @Override
+    public CompletableFuture<Message> upload(@NonNull @NotNull MediaUpload<?> upload) {
+        return toFuture(telegramBot.upload(upload));
+    }
+
+    /**
+     *
+     * @return The bot making the calls
+     */
+    @NonNull
+    public TelegramBot getTelegramBot() {
+        return telegramBot;
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        return toFuture(telegramBot.sendMediaGroup(sendMediaGroup));
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return toFuture(telegramBot.sendMediaGroup(upload));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (telegramBot instanceof AutoCloseable) {
+            ((AutoCloseable) telegramBot).close();
+        }
+    }
+
+    /**
+     *
+     * @param publisher Publisher of a call
+     * @param <T> Type of the response
+     * @return A future completed with the first item of the publisher, or exceptionally if it is empty or fails
+     */
+    @NonNull
+    public static <T> CompletableFuture<T> toFuture(@NonNull Publisher<T> publisher) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Disposable disposable = Flowable.fromPublisher(publisher)
+                .firstOrError()
+                .subscribe(future::complete, future::completeExceptionally);
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                disposable.dispose();
+            }
+        });
+        return future;
+    }
+}
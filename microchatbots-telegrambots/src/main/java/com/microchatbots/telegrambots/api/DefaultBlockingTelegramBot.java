@@ -15,196 +15,217 @@
  */
 package com.microchatbots.telegrambots.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
 import com.microchatbots.telegrambots.core.Message;
 import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
 import com.microchatbots.telegrambots.core.send.SendAnimation;
 import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
 import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
 import com.microchatbots.telegrambots.core.send.SendMessage;
 import com.microchatbots.telegrambots.core.send.SendPhoto;
 import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import io.micronaut.core.type.Argument;
-import io.micronaut.http.HttpRequest;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.PathVariable;
-import io.micronaut.http.client.BlockingHttpClient;
 import io.micronaut.http.client.HttpClient;
-import io.micronaut.http.uri.UriBuilder;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.List;
 
+/**
+ * {@link BlockingTelegramBot} blocking on the calls of a {@link DefaultTelegramBot}, so both share the same endpoints
+ * and error handling. Each call holds its thread until Telegram answers. Use {@link AsyncTelegramBot} instead, or call
+ * it from virtual threads, to have many calls in flight.
+ */
 public class DefaultBlockingTelegramBot implements BlockingTelegramBot, AutoCloseable {
-    public static final String BOT_PATH = "/bot";
-    private final BlockingHttpClient httpClient;
-    private final TelegramBotClient telegramBotClient;
-    private final String token;
-
+    public static final String BOT_PATH = DefaultTelegramBot.BOT_PATH;
+    private final DefaultTelegramBot telegramBot;
+
+    /**
+     *
+     * @param token Bot's token
+     * @param telegramBotClient Telegram Bot Client
+     */
     public DefaultBlockingTelegramBot(String token,
                                       TelegramBotClient telegramBotClient) {
-        this.token = token;
-        this.telegramBotClient = telegramBotClient;
-        this.httpClient = null;
+        this(new DefaultTelegramBot(token, telegramBotClient));
     }
 
+    /**
+     *
+     * @param token Bot's token
+     * @param telegramBotClient Telegram Bot Client
+     * @param objectMapper Object Mapper of the application, writing the JSON fields of the multipart requests
+     */
+    public DefaultBlockingTelegramBot(String token,
+                                      TelegramBotClient telegramBotClient,
+                                      ObjectMapper objectMapper) {
+        this(new DefaultTelegramBot(token, telegramBotClient, objectMapper));
+    }
+
+    /**
+     *
+     * @param token Bot's token
+     * @param url URL
+     * @throws MalformedURLException if the url is not a valid URL
+     */
     public DefaultBlockingTelegramBot(String token,
                                       String url) throws MalformedURLException {
-        this.token = token;
-        this.telegramBotClient = null;
-        this.httpClient = HttpClient.create(new URL(url)).toBlocking();
+        this(new DefaultTelegramBot(token, url));
     }
 
+    /**
+     *
+     * @param token Bot's Token
+     * @throws MalformedURLException when a Micronaut HTTP Client cannot be pointed to Telegrams' API
+     */
     public DefaultBlockingTelegramBot(String token) throws MalformedURLException  {
-        this.token = token;
-        this.telegramBotClient = null;
-        this.httpClient = HttpClient.create(new URL(TelegramBotClientConfiguration.TELEGRAM_API)).toBlocking();
+        this(new DefaultTelegramBot(token));
     }
 
+    /**
+     *
+     * @param telegramBotClient Telegram Bot Client, used when not null
+     * @param httpClient HTTP Client, used when there is no Telegram Bot Client
+     * @param token Bot's token
+     */
     public DefaultBlockingTelegramBot(TelegramBotClient telegramBotClient, HttpClient httpClient, String token) {
-        this.telegramBotClient = telegramBotClient;
-        this.httpClient = httpClient.toBlocking();
-        this.token = token;
+        this(new DefaultTelegramBot(token, telegramBotClient, httpClient));
+    }
+
+    /**
+     *
+     * @param telegramBot Bot whose calls are blocked on
+     */
+    public DefaultBlockingTelegramBot(@NonNull DefaultTelegramBot telegramBot) {
+        this.telegramBot = telegramBot;
     }
 
     @Override
     public List<Update> getUpdates(@NonNull @NotNull @Valid @Body GetUpdates getUpdates) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_UPDATES).build(), getUpdates), Argument.listOf(Update.class));
-        } else {
-            return telegramBotClient.getUpdates(token, getUpdates).blockingFirst();
-        }
+        return block(telegramBot.getUpdates(getUpdates));
     }
 
     @Override
     public List<BotCommand> getMyCommands(@PathVariable @NonNull @NotBlank String token) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_MY_COMMANDS).build()), Argument.listOf(BotCommand.class));
-        } else {
-            return telegramBotClient.getMyCommands(token).blockingFirst();
-        }
+        return block(telegramBot.getMyCommands(token));
     }
 
     @Override
     public TelegramApiResponse setMyCommands(@PathVariable @NonNull @NotBlank String token,
                                                         @NonNull @NotNull List<@Valid BotCommand> botCommands) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_SET_MY_COMMANDS).build(), botCommands), TelegramApiResponse.class);
-        } else {
-            return telegramBotClient.setMyCommands(token, botCommands).blockingFirst();
-        }
+        return block(telegramBot.setMyCommands(token, botCommands));
     }
 
     @Override
     public TelegramApiResponse setWebhook(@NonNull @NotNull @Valid @Body Webhook webhook) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_SET_WEBHOOK).build(), webhook), TelegramApiResponse.class);
-        } else {
-            return telegramBotClient.setWebhook(token, webhook).blockingFirst();
-        }
+        return block(telegramBot.setWebhook(webhook));
     }
 
     @Override
     public Message sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendMessage.METHOD_SENDMESSAGE).build(), sendMessage), Message.class);
-
-        } else {
-            return telegramBotClient.sendMessage(token, sendMessage).blockingFirst();
-        }
+        return block(telegramBot.sendMessage(sendMessage));
     }
 
     @Override
     public Message sendMessage(@NonNull @NotNull String text,
                                           @NonNull @NotNull Integer chatId) {
-        if (telegramBotClient ==  null) {
-            SendMessage message = new SendMessage();
-            message.setText(text);
-            message.setChatId(chatId);
-            return this.sendMessage(message);
-
-        } else {
-            return telegramBotClient.sendMessage(token, text, chatId).blockingFirst();
-        }
+        return block(telegramBot.sendMessage(text, chatId));
     }
 
     @Override
     public Message sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendPhoto.SEND_PHOTO).build(), sendPhoto), Message.class);
-
-        } else {
-            return telegramBotClient.sendPhoto(token, sendPhoto).blockingFirst();
-        }
+        return block(telegramBot.sendPhoto(sendPhoto));
     }
 
     @Override
     public TelegramApiResponse deleteWebhook() {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_DELETE_WEBHOOK).build()), TelegramApiResponse.class);
-        } else {
-            return telegramBotClient.deleteWebhook(token).blockingFirst();
-        }
+        return block(telegramBot.deleteWebhook());
     }
 
     @Override
     public WebhookInfo getWebhookInfo() {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_WEBHOOKINFO).build()), WebhookInfo.class);
-        } else {
-            return telegramBotClient.getWebhookInfo(token).blockingFirst();
-        }
+        return block(telegramBot.getWebhookInfo());
     }
 
     @Override
-    public Message sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendAudio.SEND_AUDIO).build(), sendAudio), Message.class);
+    public File getFile(@NonNull @NotNull @Valid GetFile getFile) {
+        return block(telegramBot.getFile(getFile));
+    }
 
-        } else {
-            return telegramBotClient.sendAudio(token, sendAudio).blockingFirst();
-        }
+    @Override
+    public Message sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        return block(telegramBot.sendAudio(sendAudio));
     }
 
     @Override
     public Message sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendVideo.SEND_VIDEO).build(), sendVideo), Message.class);
-
-        } else {
-            return telegramBotClient.sendVideo(token, sendVideo).blockingFirst();
-        }
+        return block(telegramBot.sendVideo(sendVideo));
     }
 
     @Override
     public Message sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendAnimation.SEND_ANIMATION).build(), sendAnimation), Message.class);
-
-        } else {
-            return telegramBotClient.sendAnimation(token, sendAnimation).blockingFirst();
-        }
+        return block(telegramBot.sendAnimation(sendAnimation));
     }
 
     @Override
     public Message sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
-        if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendLocation.SEND_LOCATION).build(), sendLocation), Message.class);
+        return block(telegramBot.sendLocation(sendLocation));
+    }
 
-        } else {
-            return telegramBotClient.sendLocation(token, sendLocation).blockingFirst();
-        }
+    @Override
+    public Message sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        return block(telegramBot.sendDocument(sendDocument));
+    }
+
+    @Override
+    public Message sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        return block(telegramBot.sendVoice(sendVoice));
+    }
+
+    @Override
+    public Message upload(@NonNull @NotNull MediaUpload<?> upload) {
+        return block(telegramBot.upload(upload));
+    }
+
+    @Override
+    public List<Message> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        return block(telegramBot.sendMediaGroup(sendMediaGroup));
+    }
+
+    @Override
+    public List<Message> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return block(telegramBot.sendMediaGroup(upload));
     }
 
     @Override
     public void close() throws IOException {
-        if (httpClient != null) {
-            httpClient.close();
-        }
+        telegramBot.close();
+    }
+
+    /**
+     *
+     * @return The bot whose calls are blocked on
+     */
+    @NonNull
+    public DefaultTelegramBot toAsync() {
+        return telegramBot;
+    }
+
+    private static <T> T block(@NonNull Publisher<T> publisher) {
+        return Flowable.fromPublisher(publisher).blockingFirst();
     }
 }
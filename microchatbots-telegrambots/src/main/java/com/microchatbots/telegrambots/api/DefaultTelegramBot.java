@@ -15,22 +15,33 @@
  */
 package com.microchatbots.telegrambots.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
 import com.microchatbots.telegrambots.core.Message;
 import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
 import com.microchatbots.telegrambots.core.send.SendAnimation;
 import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
 import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
 import com.microchatbots.telegrambots.core.send.SendMessage;
 import com.microchatbots.telegrambots.core.send.SendPhoto;
 import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.client.HttpClient;
-import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.http.client.multipart.MultipartBody;
+import io.micronaut.jackson.ObjectMapperFactory;
+import io.reactivex.Flowable;
 import org.reactivestreams.Publisher;
 
 import javax.validation.Valid;
@@ -41,11 +52,28 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
 
+/**
+ * {@link TelegramBot} calling Telegram's Bot API either through the {@link TelegramBotClient} or through a
+ * {@link HttpClient}, of its own or shared with other bots, see {@link DefaultTelegramBots}. The URIs the
+ * {@link HttpClient} is called with are resolved once, see {@link TelegramBotEndpoints}.
+ * {@link DefaultBlockingTelegramBot} blocks on this bot.
+ */
 public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     public static final String BOT_PATH = "/bot";
+    private static final Argument<List<Update>> UPDATES = Argument.listOf(Update.class);
+    private static final Argument<List<BotCommand>> BOT_COMMANDS = Argument.listOf(BotCommand.class);
+    private static final Argument<TelegramApiResponse> API_RESPONSE = Argument.of(TelegramApiResponse.class);
+    private static final Argument<WebhookInfo> WEBHOOK_INFO = Argument.of(WebhookInfo.class);
+    private static final Argument<File> FILE = Argument.of(File.class);
+    private static final Argument<Message> MESSAGE = Argument.of(Message.class);
+    private static final Argument<List<Message>> MESSAGES = Argument.listOf(Message.class);
+
     private final HttpClient httpClient;
+    private final boolean closeHttpClient;
     private final TelegramBotClient telegramBotClient;
     private final String token;
+    private final TelegramBotEndpoints endpoints;
+    private final ObjectMapper objectMapper;
 
     /**
      *
@@ -54,9 +82,32 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
      */
     public DefaultTelegramBot(String token,
                               TelegramBotClient telegramBotClient) {
-        this.token = token;
-        this.telegramBotClient = telegramBotClient;
-        this.httpClient = null;
+        this(token, telegramBotClient, (HttpClient) null);
+    }
+
+    /**
+     *
+     * @param token Bot's token
+     * @param telegramBotClient Telegram Bot Client
+     * @param objectMapper Object Mapper of the application, writing the JSON fields of the multipart requests
+     */
+    public DefaultTelegramBot(String token,
+                              TelegramBotClient telegramBotClient,
+                              ObjectMapper objectMapper) {
+        this(token, telegramBotClient, null, false, objectMapper);
+    }
+
+    /**
+     * Calls Telegram with the precomputed {@link TelegramBotEndpoints} of the bot through a client shared with other
+     * bots, which closing the bot does not close.
+     * @param token Bot's token
+     * @param httpClient HTTP Client pointed to Telegram's API
+     * @param objectMapper Object Mapper of the application, writing the JSON fields of the multipart requests
+     */
+    public DefaultTelegramBot(String token,
+                              HttpClient httpClient,
+                              ObjectMapper objectMapper) {
+        this(token, null, httpClient, false, objectMapper);
     }
 
     /**
@@ -67,9 +118,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
      */
     public DefaultTelegramBot(String token,
                               String url) throws MalformedURLException {
-        this.token = token;
-        this.telegramBotClient = null;
-        this.httpClient = HttpClient.create(new URL(url));
+        this(token, null, HttpClient.create(new URL(url)));
     }
 
     /**
@@ -78,15 +127,38 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
      * @throws MalformedURLException when a Micronaut HTTP Client cannot be pointed to Telegrams' API
      */
     public DefaultTelegramBot(String token) throws MalformedURLException  {
+        this(token, TelegramBotClientConfiguration.TELEGRAM_API);
+    }
+
+    /**
+     *
+     * @param token Bot's token
+     * @param telegramBotClient Telegram Bot Client, used when not null
+     * @param httpClient HTTP Client, used when there is no Telegram Bot Client, closed with the bot
+     */
+    DefaultTelegramBot(String token,
+                       @Nullable TelegramBotClient telegramBotClient,
+                       @Nullable HttpClient httpClient) {
+        this(token, telegramBotClient, httpClient, true, new ObjectMapperFactory().objectMapper(null, null));
+    }
+
+    private DefaultTelegramBot(String token,
+                               @Nullable TelegramBotClient telegramBotClient,
+                               @Nullable HttpClient httpClient,
+                               boolean closeHttpClient,
+                               ObjectMapper objectMapper) {
         this.token = token;
-        this.telegramBotClient = null;
-        this.httpClient = HttpClient.create(new URL(TelegramBotClientConfiguration.TELEGRAM_API));
+        this.telegramBotClient = telegramBotClient;
+        this.httpClient = httpClient;
+        this.closeHttpClient = closeHttpClient;
+        this.objectMapper = objectMapper;
+        this.endpoints = TelegramBotEndpoints.of(token);
     }
 
     @Override
     public Publisher<List<Update>> getUpdates(@NonNull @NotNull @Valid @Body GetUpdates getUpdates) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_UPDATES).build(), getUpdates), Argument.listOf(Update.class));
+            return post(endpoints, TelegramBotApi.METHOD_GET_UPDATES, getUpdates, UPDATES);
         } else {
             return telegramBotClient.getUpdates(token, getUpdates);
         }
@@ -95,7 +167,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<List<BotCommand>> getMyCommands(@PathVariable @NonNull @NotBlank String token) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_MY_COMMANDS).build()), Argument.listOf(BotCommand.class));
+            return get(endpoints(token), TelegramBotApi.METHOD_GET_MY_COMMANDS, BOT_COMMANDS);
         } else {
             return telegramBotClient.getMyCommands(token);
         }
@@ -105,7 +177,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     public Publisher<TelegramApiResponse> setMyCommands(@PathVariable @NonNull @NotBlank String token,
                                                         @NonNull @NotNull List<@Valid BotCommand> botCommands) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_SET_MY_COMMANDS).build(), botCommands), TelegramApiResponse.class);
+            return post(endpoints(token), TelegramBotApi.METHOD_SET_MY_COMMANDS, botCommands, API_RESPONSE);
         } else {
             return telegramBotClient.setMyCommands(token, botCommands);
         }
@@ -114,7 +186,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid @Body Webhook webhook) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_SET_WEBHOOK).build(), webhook), TelegramApiResponse.class);
+            return post(endpoints, TelegramBotApi.METHOD_SET_WEBHOOK, webhook, API_RESPONSE);
         } else {
             return telegramBotClient.setWebhook(token, webhook);
         }
@@ -123,8 +195,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendMessage.METHOD_SENDMESSAGE).build(), sendMessage), Message.class);
-
+            return post(endpoints, SendMessage.METHOD_SENDMESSAGE, sendMessage, MESSAGE);
         } else {
             return telegramBotClient.sendMessage(token, sendMessage);
         }
@@ -147,8 +218,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendPhoto.SEND_PHOTO).build(), sendPhoto), Message.class);
-
+            return post(endpoints, SendPhoto.SEND_PHOTO, sendPhoto, MESSAGE);
         } else {
             return telegramBotClient.sendPhoto(token, sendPhoto);
         }
@@ -157,7 +227,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<TelegramApiResponse> deleteWebhook() {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_DELETE_WEBHOOK).build()), TelegramApiResponse.class);
+            return get(endpoints, TelegramBotApi.METHOD_DELETE_WEBHOOK, API_RESPONSE);
         } else {
             return telegramBotClient.deleteWebhook(token);
         }
@@ -166,17 +236,25 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<WebhookInfo> getWebhookInfo() {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.GET(UriBuilder.of(BOT_PATH + token).path(TelegramBotApi.METHOD_GET_WEBHOOKINFO).build()), WebhookInfo.class);
+            return get(endpoints, TelegramBotApi.METHOD_GET_WEBHOOKINFO, WEBHOOK_INFO);
         } else {
             return telegramBotClient.getWebhookInfo(token);
         }
     }
 
     @Override
-    public Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+    public Publisher<File> getFile(@NonNull @NotNull @Valid GetFile getFile) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendAudio.SEND_AUDIO).build(), sendAudio), Message.class);
+            return post(endpoints, TelegramBotApi.METHOD_GET_FILE, getFile, FILE);
+        } else {
+            return telegramBotClient.getFile(token, getFile);
+        }
+    }
 
+    @Override
+    public Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        if (telegramBotClient ==  null) {
+            return post(endpoints, SendAudio.SEND_AUDIO, sendAudio, MESSAGE);
         } else {
             return telegramBotClient.sendAudio(token, sendAudio);
         }
@@ -185,8 +263,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendVideo.SEND_VIDEO).build(), sendVideo), Message.class);
-
+            return post(endpoints, SendVideo.SEND_VIDEO, sendVideo, MESSAGE);
         } else {
             return telegramBotClient.sendVideo(token, sendVideo);
         }
@@ -195,8 +272,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendAnimation.SEND_ANIMATION).build(), sendAnimation), Message.class);
-
+            return post(endpoints, SendAnimation.SEND_ANIMATION, sendAnimation, MESSAGE);
         } else {
             return telegramBotClient.sendAnimation(token, sendAnimation);
         }
@@ -205,16 +281,61 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     @Override
     public Publisher<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
         if (telegramBotClient ==  null) {
-            return httpClient.retrieve(HttpRequest.POST(UriBuilder.of(BOT_PATH + token).path(SendLocation.SEND_LOCATION).build(), sendLocation), Message.class);
-
+            return post(endpoints, SendLocation.SEND_LOCATION, sendLocation, MESSAGE);
         } else {
             return telegramBotClient.sendLocation(token, sendLocation);
         }
     }
 
+    @Override
+    public Publisher<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        if (telegramBotClient ==  null) {
+            return post(endpoints, SendDocument.SEND_DOCUMENT, sendDocument, MESSAGE);
+        } else {
+            return telegramBotClient.sendDocument(token, sendDocument);
+        }
+    }
+
+    @Override
+    public Publisher<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        if (telegramBotClient ==  null) {
+            return post(endpoints, SendVoice.SEND_VOICE, sendVoice, MESSAGE);
+        } else {
+            return telegramBotClient.sendVoice(token, sendVoice);
+        }
+    }
+
+    @Override
+    public Publisher<Message> upload(@NonNull @NotNull MediaUpload<?> upload) {
+        MultipartBody body = MultipartUploads.body(upload);
+        if (telegramBotClient ==  null) {
+            return httpClient.retrieve(HttpRequest.POST(endpoints.uri(upload.getMethod()), body)
+                    .contentType(MediaType.MULTIPART_FORM_DATA_TYPE), MESSAGE);
+        } else {
+            return telegramBotClient.upload(token, upload.getMethod(), body);
+        }
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        if (telegramBotClient ==  null) {
+            return post(endpoints, SendMediaGroup.SEND_MEDIA_GROUP, sendMediaGroup, MESSAGES);
+        } else {
+            return telegramBotClient.sendMediaGroup(token, sendMediaGroup);
+        }
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return Flowable.using(TemporaryFiles::new,
+                temporaryFiles -> MultipartUploads.body(upload, temporaryFiles, objectMapper)
+                        .flatMapPublisher(body -> uploadMediaGroup(upload, body)),
+                TemporaryFiles::close);
+    }
+
     @Override
     public void close() throws IOException {
-        if (httpClient != null) {
+        if (httpClient != null && closeHttpClient) {
             httpClient.close();
         }
     }
@@ -224,7 +345,7 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
      * @return a Blocking Telegram Bot
      */
     public BlockingTelegramBot toBlocking() {
-        return new DefaultBlockingTelegramBot(getTelegramBotClient(), getHttpClient(), getToken());
+        return new DefaultBlockingTelegramBot(this);
     }
 
     /**
@@ -250,4 +371,42 @@ public class DefaultTelegramBot implements TelegramBot, AutoCloseable {
     public String getToken() {
         return token;
     }
+
+    /**
+     *
+     * @return The URIs of the methods of the bot
+     */
+    public TelegramBotEndpoints getEndpoints() {
+        return endpoints;
+    }
+
+    @NonNull
+    private TelegramBotEndpoints endpoints(@NonNull String token) {
+        return token.equals(this.token) ? endpoints : TelegramBotEndpoints.of(token);
+    }
+
+    @NonNull
+    private <B, T> Publisher<T> post(@NonNull TelegramBotEndpoints botEndpoints,
+                                     @NonNull String method,
+                                     @NonNull B body,
+                                     @NonNull Argument<T> type) {
+        return httpClient.retrieve(HttpRequest.POST(botEndpoints.uri(method), body), type);
+    }
+
+    @NonNull
+    private <T> Publisher<T> get(@NonNull TelegramBotEndpoints botEndpoints,
+                                 @NonNull String method,
+                                 @NonNull Argument<T> type) {
+        return httpClient.retrieve(HttpRequest.GET(botEndpoints.uri(method)), type);
+    }
+
+    @NonNull
+    private Publisher<List<Message>> uploadMediaGroup(@NonNull MediaGroupUpload upload, @NonNull MultipartBody body) {
+        if (telegramBotClient ==  null) {
+            return httpClient.retrieve(HttpRequest.POST(endpoints.uri(upload.getMethod()), body)
+                    .contentType(MediaType.MULTIPART_FORM_DATA_TYPE), MESSAGES);
+        } else {
+            return telegramBotClient.uploadMediaGroup(token, body);
+        }
+    }
 }
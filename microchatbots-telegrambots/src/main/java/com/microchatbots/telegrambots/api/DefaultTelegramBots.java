@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+
+import javax.inject.Singleton;
+
+/**
+ * Creates the {@link DefaultTelegramBot}s of the configured and registered bots. They call Telegram with the
+ * {@link TelegramBotEndpoints} resolved for their token, through an {@link HttpClient} configured like the
+ * {@link TelegramBotClient} and shared by every bot. When {@code telegram.client.retry.attempts} is set, they call the
+ * {@link TelegramBotClient} instead, whose {@link io.micronaut.retry.annotation.Retryable} retries the failed calls.
+ */
+@Singleton
+public class DefaultTelegramBots {
+    private final TelegramBotClient telegramBotClient;
+    private final HttpClient httpClient;
+    private final TelegramBotClientConfiguration.TelegramBotClientConfigurationConnectionPoolRetryConfiguration retryConfiguration;
+    private final ObjectMapper objectMapper;
+
+    /**
+     *
+     * @param telegramBotClient Telegram Bot Client
+     * @param httpClient HTTP client pointed to Telegram's API
+     * @param retryConfiguration Retries of the calls of the Telegram Bot Client
+     * @param objectMapper Object Mapper
+     */
+    public DefaultTelegramBots(TelegramBotClient telegramBotClient,
+                               @Client(value = "${" + TelegramBotClientConfiguration.PREFIX + ".url:`" + TelegramBotClientConfiguration.TELEGRAM_API + "`}",
+                                       configuration = TelegramBotClientConfiguration.class) HttpClient httpClient,
+                               TelegramBotClientConfiguration.TelegramBotClientConfigurationConnectionPoolRetryConfiguration retryConfiguration,
+                               ObjectMapper objectMapper) {
+        this.telegramBotClient = telegramBotClient;
+        this.httpClient = httpClient;
+        this.retryConfiguration = retryConfiguration;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     *
+     * @param token Bot's token
+     * @return A bot calling Telegram with the token
+     */
+    @NonNull
+    public DefaultTelegramBot create(@NonNull String token) {
+        if (retryConfiguration.getAttempts() > 0) {
+            return new DefaultTelegramBot(token, telegramBotClient, objectMapper);
+        }
+        return new DefaultTelegramBot(token, httpClient, objectMapper);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.annotation.Introspected;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Use this method to get basic info about a file and prepare it for downloading. For the moment, bots can download files of up to 20MB in size.
+ * @see <a href="https://core.telegram.org/bots/api#getfile">getFile</a>
+ */
+@Introspected
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GetFile {
+
+    /**
+     * File identifier to get info about.
+     */
+    @NonNull
+    @NotBlank
+    @JsonProperty("file_id")
+    private String fileId;
+
+    public GetFile() {
+    }
+
+    /**
+     *
+     * @param fileId File identifier to get info about.
+     */
+    public GetFile(@NonNull String fileId) {
+        this.fileId = fileId;
+    }
+
+    /**
+     *
+     * @return File identifier to get info about.
+     */
+    @NonNull
+    public String getFileId() {
+        return fileId;
+    }
+
+    /**
+     *
+     * @param fileId File identifier to get info about.
+     */
+    public void setFileId(@NonNull String fileId) {
+        this.fileId = fileId;
+    }
+
+    @Override
+    public String toString() {
+        return "GetFile{" +
+                "fileId='" + fileId + '\'' +
+                '}';
+    }
+}
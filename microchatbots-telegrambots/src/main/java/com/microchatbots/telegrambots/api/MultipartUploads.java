@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.telegrambots.core.send.InputFile;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.Send;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.multipart.MultipartBody;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Builds the multipart/form-data bodies of {@link MediaUpload}s. A file uploaded from disk is added as a file part,
+ * which the Netty HTTP client streams from disk in chunks while the request is written, so the heap never holds more
+ * than a chunk of it. Buffers and streams are not sent in place: the client's multipart encoder reads them into a part
+ * of its own, kept in memory while it is small and otherwise copied to a temporary file before the request is sent.
+ * Uploading from disk is the only way to avoid that copy. The files of a media group are prepared in parallel and
+ * sent in a single request.
+ *
+ * In a media group, streams and the buffers larger than the encoder keeps in memory are copied to temporary files
+ * while the group is prepared. The encoder would copy them anyway, one after the other while it writes the request;
+ * copied up front they are copied in parallel and then streamed from disk as they are. Smaller buffers are added as
+ * in-memory parts, for which a temporary file would cost more than it saves.
+ */
+final class MultipartUploads {
+    private static final String MEDIA_FIELD = "media";
+    /**
+     * Largest part the Netty multipart encoder of the HTTP client keeps in memory, DefaultHttpDataFactory.MINSIZE.
+     */
+    private static final int IN_MEMORY_PART_SIZE = 16 * 1024;
+
+    private MultipartUploads() {
+    }
+
+    /**
+     *
+     * @param upload Media upload
+     * @param <S> Type of the message
+     * @return The multipart/form-data body of the upload
+     */
+    @NonNull
+    static <S extends Send> MultipartBody body(@NonNull MediaUpload<S> upload) {
+        MultipartBody.Builder builder = MultipartBody.builder();
+        addFields(builder, upload.getSend(), upload.getField());
+        addFile(builder, upload.getField(), upload.getFile());
+        return builder.build();
+    }
+
+    /**
+     * The files of the group are prepared in parallel on the I/O scheduler before the body is built: files on disk
+     * are checked and added as they are, small buffers are added in memory, larger buffers and streams are copied to
+     * temporary files so that the client streams every part from disk instead of copying them one after the other
+     * while it writes the request.
+     * @param upload Media group upload
+     * @param temporaryFiles Temporary files of the request, to delete once it is over
+     * @param objectMapper Object mapper writing the media of the group, the one the JSON requests are written with
+     * @return The multipart/form-data body of the upload
+     */
+    @NonNull
+    static Single<MultipartBody> body(@NonNull MediaGroupUpload upload,
+                                      @NonNull TemporaryFiles temporaryFiles,
+                                      @NonNull ObjectMapper objectMapper) {
+        return Flowable.fromIterable(upload.getFiles().entrySet())
+                .concatMapEager(entry -> Flowable.fromCallable(() -> prepare(entry.getKey(), entry.getValue(), temporaryFiles))
+                        .subscribeOn(Schedulers.io()))
+                .toList()
+                .map(parts -> {
+                    MultipartBody.Builder builder = MultipartBody.builder();
+                    addFields(builder, upload.getSend(), MEDIA_FIELD);
+                    builder.addPart(MEDIA_FIELD, objectMapper.writeValueAsString(upload.getSend().getMedia()));
+                    for (PreparedFile part : parts) {
+                        if (part.content != null) {
+                            builder.addPart(part.name, part.filename, MediaType.APPLICATION_OCTET_STREAM_TYPE, part.content);
+                        } else {
+                            builder.addPart(part.name, part.filename, MediaType.APPLICATION_OCTET_STREAM_TYPE, part.path.toFile());
+                        }
+                    }
+                    return builder.build();
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends Send> void addFields(@NonNull MultipartBody.Builder builder,
+                                                   @NonNull S send,
+                                                   @NonNull String skippedField) {
+        BeanIntrospection<S> introspection = BeanIntrospection.getIntrospection((Class<S>) send.getClass());
+        for (BeanProperty<S, Object> property : introspection.getBeanProperties()) {
+            if (property.isReadOnly()) {
+                continue;
+            }
+            String name = property.stringValue(JsonProperty.class)
+                    .filter(value -> !value.isEmpty())
+                    .orElse(property.getName());
+            Object value = property.get(send);
+            if (value != null && !name.equals(skippedField)) {
+                builder.addPart(name, value.toString());
+            }
+        }
+    }
+
+    @NonNull
+    private static PreparedFile prepare(@NonNull String name,
+                                        @NonNull InputFile file,
+                                        @NonNull TemporaryFiles temporaryFiles) throws IOException {
+        Optional<Path> path = file.getPath();
+        if (path.isPresent()) {
+            if (!Files.isReadable(path.get())) {
+                throw new NoSuchFileException(path.get().toString());
+            }
+            return new PreparedFile(name, file.getFilename(), path.get(), null);
+        }
+        Optional<ByteBuffer> byteBuffer = file.getByteBuffer();
+        if (byteBuffer.isPresent() && byteBuffer.get().remaining() <= IN_MEMORY_PART_SIZE) {
+            byte[] content = new byte[byteBuffer.get().remaining()];
+            byteBuffer.get().get(content);
+            return new PreparedFile(name, file.getFilename(), null, content);
+        }
+        Path temporaryFile = temporaryFiles.create(file.getFilename());
+        if (byteBuffer.isPresent()) {
+            ByteBuffer buffer = byteBuffer.get();
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            return new PreparedFile(name, file.getFilename(), temporaryFile, null);
+        }
+        try (InputStream inputStream = file.getInputStream()
+                .orElseThrow(() -> new IllegalArgumentException("no content for " + file))) {
+            Files.copy(inputStream, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new PreparedFile(name, file.getFilename(), temporaryFile, null);
+    }
+
+    private static void addFile(@NonNull MultipartBody.Builder builder,
+                                @NonNull String field,
+                                @NonNull InputFile file) {
+        Optional<Path> path = file.getPath();
+        if (path.isPresent()) {
+            builder.addPart(field, file.getFilename(), MediaType.APPLICATION_OCTET_STREAM_TYPE, path.get().toFile());
+            return;
+        }
+        Optional<ByteBuffer> byteBuffer = file.getByteBuffer();
+        if (byteBuffer.isPresent()) {
+            builder.addPart(field, file.getFilename(), MediaType.APPLICATION_OCTET_STREAM_TYPE,
+                    new ByteBufferInputStream(byteBuffer.get()), file.getLength());
+            return;
+        }
+        InputStream inputStream = file.getInputStream()
+                .orElseThrow(() -> new IllegalArgumentException("no content for " + file));
+        builder.addPart(field, file.getFilename(), MediaType.APPLICATION_OCTET_STREAM_TYPE, inputStream, file.getLength());
+    }
+
+    /**
+     * A file of a media group, ready to be streamed from disk or held in memory when small.
+     */
+    private static final class PreparedFile {
+        private final String name;
+        private final String filename;
+        private final Path path;
+        private final byte[] content;
+
+        private PreparedFile(@NonNull String name, @NonNull String filename, @Nullable Path path, @Nullable byte[] content) {
+            this.name = name;
+            this.filename = filename;
+            this.path = path;
+            this.content = content;
+        }
+    }
+}
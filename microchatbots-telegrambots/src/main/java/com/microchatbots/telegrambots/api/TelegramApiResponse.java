@@ -16,6 +16,8 @@
 package com.microchatbots.telegrambots.api;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microchatbots.telegrambots.core.ResponseParameters;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.annotation.Introspected;
 
@@ -31,6 +33,13 @@ public class TelegramApiResponse {
     @Nullable
     private String description;
 
+    @Nullable
+    @JsonProperty("error_code")
+    private Integer errorCode;
+
+    @Nullable
+    private ResponseParameters parameters;
+
     public TelegramApiResponse() {
     }
 
@@ -85,12 +94,48 @@ public class TelegramApiResponse {
         this.description = description;
     }
 
+    /**
+     *
+     * @return Error code of an unsuccessful method
+     */
+    @Nullable
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     *
+     * @param errorCode Error code of an unsuccessful method
+     */
+    public void setErrorCode(@Nullable Integer errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    /**
+     *
+     * @return Why an unsuccessful method failed and whether it can be repeated
+     */
+    @Nullable
+    public ResponseParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     *
+     * @param parameters Why an unsuccessful method failed and whether it can be repeated
+     */
+    public void setParameters(@Nullable ResponseParameters parameters) {
+        this.parameters = parameters;
+    }
+
     @Override
     public String toString() {
         return "TelegramApiResponse{" +
                 "ok=" + ok +
                 ", result=" + result +
                 ", description='" + description + '\'' +
+                ", errorCode=" + errorCode +
+                ", parameters=" + parameters +
                 '}';
     }
 }
@@ -16,14 +16,20 @@
 package com.microchatbots.telegrambots.api;
 
 import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
 import com.microchatbots.telegrambots.core.Message;
 import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
 import com.microchatbots.telegrambots.core.send.SendAnimation;
 import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
 import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
 import com.microchatbots.telegrambots.core.send.SendMessage;
 import com.microchatbots.telegrambots.core.send.SendPhoto;
 import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.PathVariable;
@@ -56,6 +62,8 @@ public interface TelegramBot {
 
     Publisher<WebhookInfo> getWebhookInfo();
 
+    Publisher<File> getFile(@NonNull @NotNull @Valid GetFile getFile);
+
     Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio);
 
     Publisher<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo);
@@ -63,4 +71,29 @@ public interface TelegramBot {
     Publisher<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation);
 
     Publisher<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation);
+
+    Publisher<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument);
+
+    Publisher<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice);
+
+    /**
+     * Sends a message whose media is uploaded with multipart/form-data.
+     * @param upload Media upload
+     * @return The message sent
+     */
+    Publisher<Message> upload(@NonNull @NotNull MediaUpload<?> upload);
+
+    /**
+     * Sends an album of media referenced by file_id or URL.
+     * @param sendMediaGroup Media group
+     * @return The messages sent
+     */
+    Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup);
+
+    /**
+     * Sends an album mixing media referenced by file_id or URL with media uploaded in the same request.
+     * @param upload Media group upload
+     * @return The messages sent
+     */
+    Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload);
 }
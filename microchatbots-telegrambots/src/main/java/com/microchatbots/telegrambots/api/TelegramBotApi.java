@@ -16,10 +16,12 @@
 package com.microchatbots.telegrambots.api;
 
 import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
 import com.microchatbots.telegrambots.core.Message;
 import com.microchatbots.telegrambots.core.send.SendAnimation;
 import com.microchatbots.telegrambots.core.send.SendAudio;
 import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
 import com.microchatbots.telegrambots.core.send.SendMessage;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.SendPhoto;
@@ -41,6 +43,7 @@ public interface TelegramBotApi {
     String METHOD_SET_WEBHOOK = "setWebhook";
     String METHOD_GET_WEBHOOKINFO = "getWebhookInfo";
     String METHOD_DELETE_WEBHOOK = "deleteWebhook";
+    String METHOD_GET_FILE = "getFile";
 
     Flowable<TelegramApiResponse> setMyCommands(@PathVariable @NonNull @NotBlank String token,
                                                 @NonNull @NotNull List<@Valid BotCommand> botCommands);
@@ -81,6 +84,16 @@ public interface TelegramBotApi {
      */
     Flowable<WebhookInfo> getWebhookInfo(@PathVariable @NonNull @NotBlank String token);
 
+    /**
+     * Use this method to get basic info about a file and prepare it for downloading.
+     * @param token Token
+     * @param getFile Get File
+     * @see <a href="https://core.telegram.org/bots/api#getfile">getFile</a>
+     * @return On success, a File object is returned.
+     */
+    Flowable<File> getFile(@PathVariable @NonNull @NotBlank String token,
+                           @NonNull @NotNull @Valid @Body GetFile getFile);
+
     /**
      *
      * @param token Token
@@ -125,4 +138,14 @@ public interface TelegramBotApi {
      */
     Flowable<Message> sendLocation(@PathVariable @NonNull @NotBlank String token,
                                    @NonNull @NotNull @Valid @Body SendLocation sendLocation);
+
+    /**
+     *
+     * @param token Token
+     * @param sendMediaGroup SendMediaGroup
+     * @see <a href="https://core.telegram.org/bots/api#sendmediagroup">sendMediaGroup</a>
+     * @return On success, an array of the sent Messages is returned.
+     */
+    Flowable<List<Message>> sendMediaGroup(@PathVariable @NonNull @NotBlank String token,
+                                           @NonNull @NotNull @Valid @Body SendMediaGroup sendMediaGroup);
 }
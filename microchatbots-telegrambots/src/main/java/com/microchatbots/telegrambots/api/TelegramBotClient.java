@@ -16,20 +16,26 @@
 package com.microchatbots.telegrambots.api;
 
 import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
 import com.microchatbots.telegrambots.core.Message;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.SendAnimation;
 import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
 import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
 import com.microchatbots.telegrambots.core.send.SendMessage;
 import com.microchatbots.telegrambots.core.send.SendPhoto;
 import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.Post;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.retry.annotation.Retryable;
 import io.reactivex.Flowable;
 import javax.validation.Valid;
@@ -74,6 +80,11 @@ public interface TelegramBotClient extends TelegramBotApi {
     @Override
     Flowable<WebhookInfo> getWebhookInfo(@PathVariable @NonNull @NotBlank String token);
 
+    @Post("/bot{token}/getFile")
+    @Override
+    Flowable<File> getFile(@PathVariable @NonNull @NotBlank String token,
+                           @NonNull @NotNull @Valid @Body GetFile getFile);
+
     @Get("/bot{token}/getMyCommands")
     Flowable<List<BotCommand>> getMyCommands(@PathVariable @NonNull @NotBlank String token);
 
@@ -96,4 +107,26 @@ public interface TelegramBotClient extends TelegramBotApi {
     @Post("/bot{token}/sendLocation")
     Flowable<Message> sendLocation(@PathVariable @NonNull @NotBlank String token,
                                    @NonNull @NotNull @Valid @Body SendLocation sendLocation);
+
+    @Post("/bot{token}/sendDocument")
+    Flowable<Message> sendDocument(@PathVariable @NonNull @NotBlank String token,
+                                   @NonNull @NotNull @Valid @Body SendDocument sendDocument);
+
+    @Post("/bot{token}/sendVoice")
+    Flowable<Message> sendVoice(@PathVariable @NonNull @NotBlank String token,
+                                @NonNull @NotNull @Valid @Body SendVoice sendVoice);
+
+    @Post("/bot{token}/sendMediaGroup")
+    @Override
+    Flowable<List<Message>> sendMediaGroup(@PathVariable @NonNull @NotBlank String token,
+                                           @NonNull @NotNull @Valid @Body SendMediaGroup sendMediaGroup);
+
+    @Post(value = "/bot{token}/sendMediaGroup", produces = MediaType.MULTIPART_FORM_DATA)
+    Flowable<List<Message>> uploadMediaGroup(@PathVariable @NonNull @NotBlank String token,
+                                             @NonNull @NotNull @Body MultipartBody body);
+
+    @Post(value = "/bot{token}/{method}", produces = MediaType.MULTIPART_FORM_DATA)
+    Flowable<Message> upload(@PathVariable @NonNull @NotBlank String token,
+                             @PathVariable @NonNull @NotBlank String method,
+                             @NonNull @NotNull @Body MultipartBody body);
 }
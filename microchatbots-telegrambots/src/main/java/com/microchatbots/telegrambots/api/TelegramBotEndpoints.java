@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.http.uri.UriBuilder;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The URIs of the methods of Telegram's Bot API for a bot, {@code /bot<token>/<method>}, resolved once when the bot
+ * is created rather than built and parsed on every call.
+ */
+public final class TelegramBotEndpoints {
+
+    /**
+     * Methods whose URI is resolved up front.
+     */
+    public static final List<String> METHODS = Arrays.asList(TelegramBotApi.METHOD_GET_UPDATES,
+            TelegramBotApi.METHOD_GET_MY_COMMANDS,
+            TelegramBotApi.METHOD_SET_MY_COMMANDS,
+            TelegramBotApi.METHOD_SET_WEBHOOK,
+            TelegramBotApi.METHOD_DELETE_WEBHOOK,
+            TelegramBotApi.METHOD_GET_WEBHOOKINFO,
+            TelegramBotApi.METHOD_GET_FILE,
+            SendMessage.METHOD_SENDMESSAGE,
+            SendPhoto.SEND_PHOTO,
+            SendAudio.SEND_AUDIO,
+            SendVideo.SEND_VIDEO,
+            SendAnimation.SEND_ANIMATION,
+            SendLocation.SEND_LOCATION,
+            SendDocument.SEND_DOCUMENT,
+            SendVoice.SEND_VOICE,
+            SendMediaGroup.SEND_MEDIA_GROUP);
+
+    private final String token;
+    private final Map<String, URI> uris = new ConcurrentHashMap<>();
+
+    private TelegramBotEndpoints(String token) {
+        this.token = token;
+        for (String method : METHODS) {
+            uris.put(method, build(method));
+        }
+    }
+
+    /**
+     *
+     * @param token Bot's token
+     * @return The URIs of the methods of the bot
+     */
+    @NonNull
+    public static TelegramBotEndpoints of(@NonNull String token) {
+        return new TelegramBotEndpoints(token);
+    }
+
+    /**
+     *
+     * @return Bot's token
+     */
+    @NonNull
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     *
+     * @param method Method of Telegram's Bot API, for example sendMessage
+     * @return URI of the method, relative to Telegram's API URL. Methods not resolved up front are resolved on first use.
+     */
+    @NonNull
+    public URI uri(@NonNull String method) {
+        URI uri = uris.get(method);
+        return uri != null ? uri : uris.computeIfAbsent(method, this::build);
+    }
+
+    @NonNull
+    private URI build(@NonNull String method) {
+        return UriBuilder.of(DefaultTelegramBot.BOT_PATH + token).path(method).build();
+    }
+}
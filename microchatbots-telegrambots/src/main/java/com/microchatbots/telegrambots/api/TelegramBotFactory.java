@@ -15,18 +15,28 @@
  */
 package com.microchatbots.telegrambots.api;
 
+import com.microchatbots.telegrambots.outbound.OutboundTelegramBots;
 import io.micronaut.context.annotation.EachBean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Factory
 public class TelegramBotFactory {
     private static final Logger LOG = LoggerFactory.getLogger(TelegramBotFactory.class);
-    private final TelegramBotClient telegramBotClient;
+    private final DefaultTelegramBots defaultTelegramBots;
+    private final OutboundTelegramBots outboundTelegramBots;
 
-    public TelegramBotFactory(TelegramBotClient telegramBotClient) {
-        this.telegramBotClient = telegramBotClient;
+    /**
+     *
+     * @param defaultTelegramBots Creates the bots calling Telegram
+     * @param outboundTelegramBots Decorators of the messages sent by the bots
+     */
+    public TelegramBotFactory(DefaultTelegramBots defaultTelegramBots,
+                              OutboundTelegramBots outboundTelegramBots) {
+        this.defaultTelegramBots = defaultTelegramBots;
+        this.outboundTelegramBots = outboundTelegramBots;
     }
 
     /**
@@ -36,7 +46,8 @@ public class TelegramBotFactory {
      */
     @EachBean(TelegramBotConfiguration.class)
     public TelegramBot createBot(TelegramBotConfiguration telegramBotConfiguration) {
-        return new DefaultTelegramBot(telegramBotConfiguration.getToken(), telegramBotClient);
+        return outboundTelegramBots.decorate(defaultTelegramBots.create(telegramBotConfiguration.getToken()),
+                telegramBotConfiguration.getName());
     }
 
     /**
@@ -46,6 +57,19 @@ public class TelegramBotFactory {
      */
     @EachBean(TelegramBotConfiguration.class)
     public BlockingTelegramBot createBlockingBot(TelegramBotConfiguration telegramBotConfiguration) {
-        return new DefaultBlockingTelegramBot(telegramBotConfiguration.getToken(), telegramBotClient);
+        return outboundTelegramBots.decorate(new DefaultBlockingTelegramBot(defaultTelegramBots.create(telegramBotConfiguration.getToken())),
+                telegramBotConfiguration.getName());
+    }
+
+    /**
+     *
+     * @param telegramBotConfiguration Telegram's Bot configuration
+     * @param telegramBot The {@link TelegramBot} bean of the same bot, already decorated
+     * @return A bean of type {@link AsyncTelegramBot} for each bean of type {@link TelegramBotConfiguration}
+     */
+    @EachBean(TelegramBotConfiguration.class)
+    public AsyncTelegramBot createAsyncBot(TelegramBotConfiguration telegramBotConfiguration,
+                                           @Parameter TelegramBot telegramBot) {
+        return new DefaultAsyncTelegramBot(telegramBot);
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.core.type.Argument;
+import org.reactivestreams.Publisher;
+
+/**
+ * Sends a {@link Send} whose type is only known at runtime with the matching method of a {@link TelegramBot} or a
+ * {@link BlockingTelegramBot}.
+ */
+public final class TelegramBotSends {
+
+    private TelegramBotSends() {
+    }
+
+    /**
+     *
+     * @param send Message
+     * @return Whether the bots have a method sending the message
+     */
+    public static boolean isSupported(@NonNull Send send) {
+        return send instanceof SendMessage ||
+                send instanceof SendPhoto ||
+                send instanceof SendAudio ||
+                send instanceof SendVideo ||
+                send instanceof SendAnimation ||
+                send instanceof SendLocation ||
+                send instanceof SendDocument ||
+                send instanceof SendVoice;
+    }
+
+    /**
+     * Copies a message, so that it can be changed, for example to another chat, without changing the caller's one.
+     * Messages without a default constructor, such as a {@link com.microchatbots.telegrambots.core.send.SerializedSendMessage},
+     * are created with the values of the properties named after the arguments of their introspected constructor.
+     * @param send Message
+     * @param <S> Type of the message
+     * @return A shallow copy of the message
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public static <S extends Send> S copy(@NonNull S send) {
+        BeanIntrospection<S> introspection = BeanIntrospection.getIntrospection((Class<S>) send.getClass());
+        Argument<?>[] arguments = introspection.getConstructorArguments();
+        S copy;
+        if (arguments.length == 0) {
+            copy = introspection.instantiate();
+        } else {
+            Object[] values = new Object[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                String name = arguments[i].getName();
+                values[i] = introspection.getProperty(name)
+                        .orElseThrow(() -> new IllegalArgumentException("cannot copy " + send.getClass().getSimpleName() + ", no property " + name))
+                        .get(send);
+            }
+            copy = introspection.instantiate(values);
+        }
+        for (BeanProperty<S, Object> property : introspection.getBeanProperties()) {
+            if (!property.isReadOnly()) {
+                property.set(copy, property.get(send));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     *
+     * @param telegramBot Bot sending the message
+     * @param send Message
+     * @return The message sent
+     * @throws IllegalArgumentException if the bot has no method sending the message
+     */
+    @NonNull
+    public static Publisher<Message> send(@NonNull TelegramBot telegramBot, @NonNull Send send) {
+        if (send instanceof SendMessage) {
+            return telegramBot.sendMessage((SendMessage) send);
+        } else if (send instanceof SendPhoto) {
+            return telegramBot.sendPhoto((SendPhoto) send);
+        } else if (send instanceof SendAudio) {
+            return telegramBot.sendAudio((SendAudio) send);
+        } else if (send instanceof SendVideo) {
+            return telegramBot.sendVideo((SendVideo) send);
+        } else if (send instanceof SendAnimation) {
+            return telegramBot.sendAnimation((SendAnimation) send);
+        } else if (send instanceof SendLocation) {
+            return telegramBot.sendLocation((SendLocation) send);
+        } else if (send instanceof SendDocument) {
+            return telegramBot.sendDocument((SendDocument) send);
+        } else if (send instanceof SendVoice) {
+            return telegramBot.sendVoice((SendVoice) send);
+        }
+        throw new IllegalArgumentException("cannot send " + send.getClass().getSimpleName());
+    }
+
+    /**
+     *
+     * @param telegramBot Bot sending the message
+     * @param send Message
+     * @return The message sent
+     * @throws IllegalArgumentException if the bot has no method sending the message
+     */
+    @NonNull
+    public static Message send(@NonNull BlockingTelegramBot telegramBot, @NonNull Send send) {
+        if (send instanceof SendMessage) {
+            return telegramBot.sendMessage((SendMessage) send);
+        } else if (send instanceof SendPhoto) {
+            return telegramBot.sendPhoto((SendPhoto) send);
+        } else if (send instanceof SendAudio) {
+            return telegramBot.sendAudio((SendAudio) send);
+        } else if (send instanceof SendVideo) {
+            return telegramBot.sendVideo((SendVideo) send);
+        } else if (send instanceof SendAnimation) {
+            return telegramBot.sendAnimation((SendAnimation) send);
+        } else if (send instanceof SendLocation) {
+            return telegramBot.sendLocation((SendLocation) send);
+        } else if (send instanceof SendDocument) {
+            return telegramBot.sendDocument((SendDocument) send);
+        } else if (send instanceof SendVoice) {
+            return telegramBot.sendVoice((SendVoice) send);
+        }
+        throw new IllegalArgumentException("cannot send " + send.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Temporary files created while preparing a request, deleted once the request is over.
+ */
+final class TemporaryFiles implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(TemporaryFiles.class);
+    private static final String PREFIX = "telegram-";
+
+    private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+
+    /**
+     *
+     * @param name Name the file ends with
+     * @return A new empty temporary file
+     * @throws IOException if the file cannot be created
+     */
+    @NonNull
+    Path create(@NonNull String name) throws IOException {
+        Path file = Files.createTempFile(PREFIX, "-" + name);
+        files.add(file);
+        return file;
+    }
+
+    @Override
+    public void close() {
+        for (Path file = files.poll(); file != null; file = files.poll()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("could not delete temporary file " + file, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A running broadcast, started by {@link Broadcaster#broadcast(com.microchatbots.telegrambots.api.TelegramBot, BroadcastRequest)}.
+ */
+public final class Broadcast {
+    private final String id;
+    private final Path failuresFile;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder recipients = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final CompletableFuture<BroadcastMetrics> completion = new CompletableFuture<>();
+    private volatile long endNanos;
+    private volatile Disposable subscription;
+
+    /**
+     *
+     * @param id Identifier of the broadcast
+     * @param failuresFile File the failures are appended to
+     */
+    Broadcast(@NonNull String id, @NonNull Path failuresFile) {
+        this.id = id;
+        this.failuresFile = failuresFile;
+    }
+
+    /**
+     *
+     * @return Identifier of the broadcast
+     */
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     *
+     * @return File the {@link BroadcastFailure}s are appended to, as JSON lines
+     */
+    @NonNull
+    public Path getFailuresFile() {
+        return failuresFile;
+    }
+
+    /**
+     *
+     * @return Progress of the broadcast
+     */
+    @NonNull
+    public BroadcastMetrics getMetrics() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return new BroadcastMetrics(recipients.sum(),
+                skipped.sum(),
+                sent.sum(),
+                failed.sum(),
+                Duration.ofNanos(end - startNanos));
+    }
+
+    /**
+     *
+     * @return Completed with the final metrics once every recipient was handled, or exceptionally if the recipients or the checkpoint could not be read or written
+     */
+    @NonNull
+    public CompletableFuture<BroadcastMetrics> getCompletion() {
+        return completion;
+    }
+
+    /**
+     *
+     * @return Whether the broadcast is over
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Stops the broadcast. The calls in flight are abandoned and their recipients are sent again when the broadcast
+     * is resumed.
+     */
+    public void cancel() {
+        Disposable disposable = subscription;
+        if (disposable != null) {
+            disposable.dispose();
+        }
+    }
+
+    void setSubscription(@NonNull Disposable subscription) {
+        this.subscription = subscription;
+    }
+
+    void onRecipient() {
+        recipients.increment();
+    }
+
+    void onSkipped() {
+        skipped.increment();
+    }
+
+    void onSent() {
+        sent.increment();
+    }
+
+    void onFailed() {
+        failed.increment();
+    }
+
+    void complete(Throwable error) {
+        endNanos = System.nanoTime();
+        if (error != null) {
+            completion.completeExceptionally(error);
+        } else {
+            completion.complete(getMetrics());
+        }
+    }
+}
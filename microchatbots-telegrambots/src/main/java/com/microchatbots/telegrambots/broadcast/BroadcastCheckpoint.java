@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Append-only file of the indexes of the recipients a broadcast handled, one long per recipient. Recipients are handled
+ * concurrently so the indexes are not in order. A record torn by a crash is truncated when the file is opened again.
+ */
+final class BroadcastCheckpoint implements Closeable {
+    private static final int RECORD_SIZE = Long.BYTES;
+
+    private final BitSet handled;
+    private final DataOutputStream output;
+    private final int flushInterval;
+    private int unflushed;
+
+    private BroadcastCheckpoint(BitSet handled, DataOutputStream output, int flushInterval) {
+        this.handled = handled;
+        this.output = output;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     *
+     * @param file Checkpoint file, created if it does not exist
+     * @param flushInterval Number of records written between two flushes
+     * @return The checkpoint, with the records of the previous runs
+     * @throws IOException if the file cannot be read or written
+     */
+    @NonNull
+    static BroadcastCheckpoint open(@NonNull Path file, int flushInterval) throws IOException {
+        BitSet handled = new BitSet();
+        if (Files.exists(file)) {
+            long records = Files.size(file) / RECORD_SIZE;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(records * RECORD_SIZE);
+            }
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                for (long i = 0; i < records; i++) {
+                    long index = input.readLong();
+                    if (index >= 0 && index < Integer.MAX_VALUE) {
+                        handled.set((int) index);
+                    }
+                }
+            }
+        }
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+        return new BroadcastCheckpoint(handled, output, flushInterval);
+    }
+
+    /**
+     *
+     * @param index Index of a recipient
+     * @return Whether a previous run handled the recipient
+     */
+    synchronized boolean isHandled(long index) {
+        return index < Integer.MAX_VALUE && handled.get((int) index);
+    }
+
+    /**
+     * Records that a recipient was handled.
+     * @param index Index of a recipient
+     * @throws IOException if the record cannot be written
+     */
+    synchronized void record(long index) throws IOException {
+        output.writeLong(index);
+        unflushed++;
+        if (unflushed >= flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     * @throws IOException if the records cannot be written
+     */
+    synchronized void flush() throws IOException {
+        output.flush();
+        unflushed = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+}
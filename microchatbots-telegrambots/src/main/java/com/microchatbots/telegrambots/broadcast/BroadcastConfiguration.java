@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+/**
+ * Configuration of the {@link Broadcaster}.
+ */
+public interface BroadcastConfiguration {
+
+    /**
+     *
+     * @return Directory where the checkpoint and the failures of every broadcast are written.
+     */
+    String getDirectory();
+
+    /**
+     *
+     * @return Number of calls to Telegram in flight for a broadcast which does not set its own.
+     */
+    int getConcurrency();
+
+    /**
+     *
+     * @return Number of recipients written to the checkpoint between two flushes.
+     */
+    int getCheckpointInterval();
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+
+/**
+ * {@link ConfigurationProperties} for {@link Broadcaster}.
+ */
+@ConfigurationProperties(BroadcastConfigurationProperties.PREFIX)
+public class BroadcastConfigurationProperties implements BroadcastConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".broadcast";
+
+    private static final String DEFAULT_DIRECTORY = "broadcasts";
+
+    private static final int DEFAULT_CONCURRENCY = 30;
+
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    @NonNull
+    @NotBlank
+    private String directory = DEFAULT_DIRECTORY;
+
+    @Min(1)
+    private int concurrency = DEFAULT_CONCURRENCY;
+
+    @Min(1)
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    /**
+     *
+     * @return Directory where the checkpoint and the failures of every broadcast are written. Defaults to broadcasts, in the working directory.
+     */
+    @Override
+    @NonNull
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     *
+     * @param directory Directory where the checkpoint and the failures of every broadcast are written.
+     */
+    public void setDirectory(@NonNull String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     *
+     * @return Number of calls to Telegram in flight for a broadcast which does not set its own. Defaults to 30.
+     */
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     *
+     * @param concurrency Number of calls to Telegram in flight for a broadcast which does not set its own.
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     *
+     * @return Number of recipients written to the checkpoint between two flushes. Defaults to 1000.
+     */
+    @Override
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     *
+     * @param checkpointInterval Number of recipients written to the checkpoint between two flushes.
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A recipient a broadcast could not be delivered to, or was delivered to another chat. Failures are appended as JSON
+ * lines to the failures file of the broadcast.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BroadcastFailure {
+
+    @JsonProperty("index")
+    private final long index;
+
+    @NonNull
+    @JsonProperty("chat_id")
+    private final String chatId;
+
+    @NonNull
+    @JsonProperty("reason")
+    private final Reason reason;
+
+    @Nullable
+    @JsonProperty("error_code")
+    private final Integer errorCode;
+
+    @Nullable
+    @JsonProperty("description")
+    private final String description;
+
+    @Nullable
+    @JsonProperty("migrate_to_chat_id")
+    private final Long migrateToChatId;
+
+    /**
+     *
+     * @param index Position of the recipient in the {@link ChatIdSource}
+     * @param chatId Chat identifier of the recipient
+     * @param reason Reason of the failure
+     * @param errorCode Error code answered by Telegram
+     * @param description Description of the error answered by Telegram
+     * @param migrateToChatId Supergroup the group was migrated to
+     */
+    public BroadcastFailure(long index,
+                            @NonNull String chatId,
+                            @NonNull Reason reason,
+                            @Nullable Integer errorCode,
+                            @Nullable String description,
+                            @Nullable Long migrateToChatId) {
+        this.index = index;
+        this.chatId = chatId;
+        this.reason = reason;
+        this.errorCode = errorCode;
+        this.description = description;
+        this.migrateToChatId = migrateToChatId;
+    }
+
+    /**
+     *
+     * @return Position of the recipient in the {@link ChatIdSource}
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     *
+     * @return Chat identifier of the recipient
+     */
+    @NonNull
+    public String getChatId() {
+        return chatId;
+    }
+
+    /**
+     *
+     * @return Reason of the failure
+     */
+    @NonNull
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     *
+     * @return Error code answered by Telegram
+     */
+    @Nullable
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     *
+     * @return Description of the error answered by Telegram
+     */
+    @Nullable
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     *
+     * @return Supergroup the group was migrated to
+     */
+    @Nullable
+    public Long getMigrateToChatId() {
+        return migrateToChatId;
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastFailure{" +
+                "index=" + index +
+                ", chatId='" + chatId + '\'' +
+                ", reason=" + reason +
+                ", errorCode=" + errorCode +
+                ", description='" + description + '\'' +
+                ", migrateToChatId=" + migrateToChatId +
+                '}';
+    }
+
+    /**
+     * Reasons a recipient is recorded as a failure.
+     */
+    public enum Reason {
+        /**
+         * The bot was blocked by the user, kicked from the chat or the user was deactivated.
+         */
+        BLOCKED,
+        /**
+         * The chat does not exist.
+         */
+        CHAT_NOT_FOUND,
+        /**
+         * The group was migrated to a supergroup. The message was delivered to the supergroup if the bot follows migrations.
+         */
+        MIGRATED,
+        /**
+         * Telegram rejected the message for another reason.
+         */
+        REJECTED,
+        /**
+         * Telegram could not be reached or answered without an error envelope. The recipient is not checkpointed and
+         * is retried when the broadcast is resumed.
+         */
+        UNAVAILABLE
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Progress of a {@link Broadcast}.
+ */
+public class BroadcastMetrics {
+    private final long recipients;
+    private final long skipped;
+    private final long sent;
+    private final long failed;
+    private final Duration elapsed;
+
+    /**
+     *
+     * @param recipients Recipients read from the {@link ChatIdSource} so far
+     * @param skipped Recipients skipped because a previous run already handled them
+     * @param sent Recipients the message was delivered to
+     * @param failed Recipients the message could not be delivered to
+     * @param elapsed Time since the broadcast started, or its duration once done
+     */
+    public BroadcastMetrics(long recipients, long skipped, long sent, long failed, @NonNull Duration elapsed) {
+        this.recipients = recipients;
+        this.skipped = skipped;
+        this.sent = sent;
+        this.failed = failed;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     *
+     * @return Recipients read from the {@link ChatIdSource} so far
+     */
+    public long getRecipients() {
+        return recipients;
+    }
+
+    /**
+     *
+     * @return Recipients skipped because a previous run already handled them
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     *
+     * @return Recipients the message was delivered to
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     *
+     * @return Recipients the message could not be delivered to
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     *
+     * @return Recipients read but not handled yet
+     */
+    public long getInFlight() {
+        return recipients - skipped - sent - failed;
+    }
+
+    /**
+     *
+     * @return Time since the broadcast started, or its duration once done
+     */
+    @NonNull
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     *
+     * @return Recipients handled, delivered or failed, per second
+     */
+    public double getThroughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : (sent + failed) * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastMetrics{" +
+                "recipients=" + recipients +
+                ", skipped=" + skipped +
+                ", sent=" + sent +
+                ", failed=" + failed +
+                ", elapsed=" + elapsed +
+                ", throughput=" + getThroughput() +
+                '}';
+    }
+}
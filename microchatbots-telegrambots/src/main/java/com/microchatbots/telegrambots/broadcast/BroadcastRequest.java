@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import com.microchatbots.telegrambots.core.send.Send;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A message to send to every recipient of a {@link ChatIdSource}.
+ *
+ * @param <S> Type of the message
+ */
+public class BroadcastRequest<S extends Send> {
+
+    @NonNull
+    @NotBlank
+    private final String id;
+
+    @NonNull
+    @NotNull
+    private final ChatIdSource chatIds;
+
+    @NonNull
+    @NotNull
+    private final S template;
+
+    @Nullable
+    @Min(1)
+    private Integer concurrency;
+
+    /**
+     *
+     * @param id Identifier of the broadcast, naming its checkpoint. A broadcast started again with the same identifier resumes where it stopped.
+     * @param chatIds Recipients
+     * @param template Message sent to every recipient, its chat identifier is replaced by the recipient's.
+     */
+    public BroadcastRequest(@NonNull String id, @NonNull ChatIdSource chatIds, @NonNull S template) {
+        this.id = id;
+        this.chatIds = chatIds;
+        this.template = template;
+    }
+
+    /**
+     *
+     * @return Identifier of the broadcast, naming its checkpoint.
+     */
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     *
+     * @return Recipients
+     */
+    @NonNull
+    public ChatIdSource getChatIds() {
+        return chatIds;
+    }
+
+    /**
+     *
+     * @return Message sent to every recipient.
+     */
+    @NonNull
+    public S getTemplate() {
+        return template;
+    }
+
+    /**
+     *
+     * @return Number of calls to Telegram in flight, the configured concurrency if not set.
+     */
+    @Nullable
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     *
+     * @param concurrency Number of calls to Telegram in flight.
+     */
+    public void setConcurrency(@Nullable Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBotSends;
+import com.microchatbots.telegrambots.core.ResponseParameters;
+import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.outbound.OutboundScheduler;
+import com.microchatbots.telegrambots.outbound.TelegramApiErrors;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Sends a message to a large number of recipients. Recipients are read lazily from a {@link ChatIdSource} and the
+ * message is sent to a bounded number of them at a time. Pacing is left to the bot: the bots created by
+ * {@link com.microchatbots.telegrambots.api.TelegramBotFactory} and the registry respect Telegram's rate limits and
+ * repeat the calls Telegram asks to retry later.
+ *
+ * Every handled recipient is recorded in an append-only checkpoint, {@code <id>.checkpoint} in
+ * {@link BroadcastConfiguration#getDirectory()}, so a broadcast started again with the same identifier skips the
+ * recipients handled before a crash or a {@link Broadcast#cancel()}. Only the calls in flight, and the records not
+ * flushed yet, are sent twice. Recipients the message could not be delivered to are appended to {@code <id>.failures}.
+ */
+@Singleton
+public class Broadcaster {
+    private static final Logger LOG = LoggerFactory.getLogger(Broadcaster.class);
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String FAILURES_SUFFIX = ".failures";
+    private static final int FORBIDDEN = 403;
+    private static final String CHAT_NOT_FOUND = "chat not found";
+
+    private final BroadcastConfiguration configuration;
+    private final OutboundScheduler outboundScheduler;
+    private final ObjectMapper objectMapper;
+
+    /**
+     *
+     * @param configuration Broadcast configuration
+     * @param outboundScheduler Scheduler remembering the groups migrated to a supergroup
+     * @param objectMapper Object Mapper used to write the failures
+     */
+    public Broadcaster(BroadcastConfiguration configuration,
+                       OutboundScheduler outboundScheduler,
+                       ObjectMapper objectMapper) {
+        this.configuration = configuration;
+        this.outboundScheduler = outboundScheduler;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Starts, or resumes, a broadcast.
+     * @param telegramBot Bot sending the message
+     * @param request Broadcast request
+     * @param <S> Type of the message
+     * @return The running broadcast
+     * @throws IOException if the checkpoint or the failures file cannot be opened
+     * @throws IllegalArgumentException if the bot cannot send the template
+     */
+    @NonNull
+    public <S extends Send> Broadcast broadcast(@NonNull TelegramBot telegramBot,
+                                                @NonNull @NotNull @Valid BroadcastRequest<S> request) throws IOException {
+        if (!TelegramBotSends.isSupported(request.getTemplate())) {
+            throw new IllegalArgumentException("cannot broadcast " + request.getTemplate().getClass().getSimpleName());
+        }
+        Path directory = Paths.get(configuration.getDirectory());
+        Files.createDirectories(directory);
+        Path failuresFile = directory.resolve(request.getId() + FAILURES_SUFFIX);
+        BroadcastCheckpoint checkpoint = BroadcastCheckpoint.open(directory.resolve(request.getId() + CHECKPOINT_SUFFIX),
+                configuration.getCheckpointInterval());
+        BufferedWriter failures;
+        try {
+            failures = Files.newBufferedWriter(failuresFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            checkpoint.close();
+            throw e;
+        }
+        Broadcast broadcast = new Broadcast(request.getId(), failuresFile);
+        int concurrency = request.getConcurrency() != null ? request.getConcurrency() : configuration.getConcurrency();
+        AtomicLong indexes = new AtomicLong();
+        AtomicBoolean finished = new AtomicBoolean();
+        if (LOG.isInfoEnabled()) {
+            LOG.info("starting broadcast {} with a concurrency of {}", request.getId(), concurrency);
+        }
+        broadcast.setSubscription(Flowable.using(request.getChatIds()::open,
+                    chatIds -> Flowable.fromIterable(chatIds::iterator),
+                    Stream::close)
+                .map(chatId -> new Recipient(indexes.getAndIncrement(), chatId))
+                .filter(recipient -> {
+                    broadcast.onRecipient();
+                    if (checkpoint.isHandled(recipient.index)) {
+                        broadcast.onSkipped();
+                        return false;
+                    }
+                    return true;
+                })
+                .flatMapSingle(recipient -> send(telegramBot, copy(request.getTemplate(), recipient), recipient, broadcast, checkpoint, failures),
+                        false,
+                        concurrency)
+                .doOnCancel(() -> finish(broadcast, checkpoint, failures, finished, new CancellationException("broadcast " + request.getId() + " cancelled")))
+                .subscribe(handled -> { },
+                    error -> finish(broadcast, checkpoint, failures, finished, error),
+                    () -> finish(broadcast, checkpoint, failures, finished, null)));
+        return broadcast;
+    }
+
+    @NonNull
+    private Single<Boolean> send(@NonNull TelegramBot telegramBot,
+                                 @NonNull Send send,
+                                 @NonNull Recipient recipient,
+                                 @NonNull Broadcast broadcast,
+                                 @NonNull BroadcastCheckpoint checkpoint,
+                                 @NonNull BufferedWriter failures) {
+        return Flowable.defer(() -> TelegramBotSends.send(telegramBot, send))
+                .firstOrError()
+                .map(message -> {
+                    Object resolvedChatId = outboundScheduler.resolveChatId(recipient.chatId);
+                    if (!recipient.chatId.equals(resolvedChatId.toString())) {
+                        writeFailure(failures, new BroadcastFailure(recipient.index, recipient.chatId,
+                                BroadcastFailure.Reason.MIGRATED, null, null, (Long) resolvedChatId));
+                    }
+                    broadcast.onSent();
+                    checkpoint.record(recipient.index);
+                    return true;
+                })
+                .onErrorReturn(error -> {
+                    BroadcastFailure failure = failure(recipient, error);
+                    writeFailure(failures, failure);
+                    broadcast.onFailed();
+                    if (failure.getReason() != BroadcastFailure.Reason.UNAVAILABLE) {
+                        checkpoint.record(recipient.index);
+                    }
+                    return false;
+                });
+    }
+
+    @NonNull
+    private BroadcastFailure failure(@NonNull Recipient recipient, @NonNull Throwable error) {
+        TelegramApiResponse response = TelegramApiErrors.errorResponse(error).orElse(null);
+        if (response == null || response.getErrorCode() == null) {
+            return new BroadcastFailure(recipient.index, recipient.chatId, BroadcastFailure.Reason.UNAVAILABLE,
+                    null, error.getMessage(), null);
+        }
+        ResponseParameters parameters = response.getParameters();
+        BroadcastFailure.Reason reason;
+        if (parameters != null && parameters.getMigrateToChatId() != null) {
+            reason = BroadcastFailure.Reason.MIGRATED;
+        } else if (response.getErrorCode() == FORBIDDEN) {
+            reason = BroadcastFailure.Reason.BLOCKED;
+        } else if (response.getDescription() != null && response.getDescription().toLowerCase().contains(CHAT_NOT_FOUND)) {
+            reason = BroadcastFailure.Reason.CHAT_NOT_FOUND;
+        } else {
+            reason = BroadcastFailure.Reason.REJECTED;
+        }
+        return new BroadcastFailure(recipient.index, recipient.chatId, reason, response.getErrorCode(),
+                response.getDescription(), parameters != null ? parameters.getMigrateToChatId() : null);
+    }
+
+    private void writeFailure(@NonNull BufferedWriter failures, @NonNull BroadcastFailure failure) throws IOException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("broadcast failure {}", failure);
+        }
+        String line = objectMapper.writeValueAsString(failure);
+        synchronized (failures) {
+            failures.write(line);
+            failures.newLine();
+            failures.flush();
+        }
+    }
+
+    private void finish(@NonNull Broadcast broadcast,
+                        @NonNull BroadcastCheckpoint checkpoint,
+                        @NonNull BufferedWriter failures,
+                        @NonNull AtomicBoolean finished,
+                        @Nullable Throwable error) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        Throwable result = error;
+        try {
+            checkpoint.close();
+            synchronized (failures) {
+                failures.close();
+            }
+        } catch (IOException e) {
+            if (result == null) {
+                result = new UncheckedIOException(e);
+            }
+        }
+        broadcast.complete(result);
+        if (LOG.isInfoEnabled()) {
+            LOG.info("broadcast {} {}: {}", broadcast.getId(), result == null ? "done" : "stopped", broadcast.getMetrics());
+        }
+    }
+
+    @NonNull
+    private static <S extends Send> S copy(@NonNull S template, @NonNull Recipient recipient) {
+        S send = TelegramBotSends.copy(template);
+        send.setChatId(chatId(recipient.chatId));
+        return send;
+    }
+
+    @NonNull
+    private static Object chatId(@NonNull String chatId) {
+        try {
+            return Long.parseLong(chatId);
+        } catch (NumberFormatException e) {
+            return chatId;
+        }
+    }
+
+    /**
+     * A recipient and its position in the {@link ChatIdSource}.
+     */
+    private static final class Recipient {
+        private final long index;
+        private final String chatId;
+
+        private Recipient(long index, String chatId) {
+            this.index = index;
+            this.chatId = chatId;
+        }
+    }
+}
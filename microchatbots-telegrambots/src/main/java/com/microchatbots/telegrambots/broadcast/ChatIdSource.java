@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Recipients of a broadcast, in a stable order so an interrupted broadcast can be resumed.
+ */
+@FunctionalInterface
+public interface ChatIdSource {
+
+    /**
+     * Opens the chat identifiers, the stream is closed once the broadcast is over.
+     * @return Chat identifiers or channel usernames (in the format @channelusername)
+     * @throws IOException if the chat identifiers cannot be read
+     */
+    @NonNull
+    Stream<String> open() throws IOException;
+
+    /**
+     *
+     * @param chatIds Chat identifiers
+     * @return A source of the chat identifiers
+     */
+    @NonNull
+    static ChatIdSource of(@NonNull Iterable<?> chatIds) {
+        return () -> StreamSupport.stream(chatIds.spliterator(), false)
+                .filter(Objects::nonNull)
+                .map(Object::toString);
+    }
+
+    /**
+     *
+     * @param file UTF-8 file with a chat identifier per line, blank lines are ignored
+     * @return A source reading the chat identifiers lazily from the file
+     */
+    @NonNull
+    static ChatIdSource of(@NonNull Path file) {
+        return () -> Files.lines(file, StandardCharsets.UTF_8)
+                .map(String::trim)
+                .filter(line -> !line.isEmpty());
+    }
+}
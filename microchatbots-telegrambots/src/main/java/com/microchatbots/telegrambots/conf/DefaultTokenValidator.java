@@ -16,24 +16,117 @@
 package com.microchatbots.telegrambots.conf;
 
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.registry.TelegramBotRegistryEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.event.ApplicationEventListener;
 
 import javax.inject.Singleton;
 import javax.validation.constraints.NotBlank;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Indexes the bots by the SHA-256 digest of their token when it is created, so a token is validated with a single hash
+ * lookup whatever the number of bots. The token of the indexed bot is then compared with
+ * {@link MessageDigest#isEqual(byte[], byte[])}, which does not leak through timing how much of it matched.
+ * Bots registered or unregistered at runtime are added to or removed from the index when their
+ * {@link TelegramBotRegistryEvent} is published.
+ */
 @Singleton
-public class DefaultTokenValidator implements TokenValidator {
-    private final  Collection<TelegramBotConfiguration> telegramBotConfigurations;
+public class DefaultTokenValidator implements TokenValidator, ApplicationEventListener<TelegramBotRegistryEvent> {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(DefaultTokenValidator::createDigest);
+
+    private final Map<ByteBuffer, IndexedBot> index = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
 
     public DefaultTokenValidator(Collection<TelegramBotConfiguration> telegramBotConfigurations) {
-        this.telegramBotConfigurations = telegramBotConfigurations;
+        for (TelegramBotConfiguration bot : telegramBotConfigurations) {
+            if (bot.getToken() != null) {
+                byte[] token = bot.getToken().getBytes(StandardCharsets.UTF_8);
+                index.putIfAbsent(ByteBuffer.wrap(DIGEST.get().digest(token)), new IndexedBot(bot, token));
+            }
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(TelegramBotRegistryEvent event) {
+        TelegramBotConfiguration bot = event.getSource();
+        if (bot.getToken() == null) {
+            return;
+        }
+        byte[] token = bot.getToken().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer key = ByteBuffer.wrap(DIGEST.get().digest(token));
+        if (event.isRegistered()) {
+            index.put(key, new IndexedBot(bot, token));
+        } else {
+            index.computeIfPresent(key, (digest, indexed) -> indexed.bot.getName().equals(bot.getName()) ? null : indexed);
+        }
     }
 
     @NonNull
     @Override
     public Optional<TelegramBotConfiguration> validate(@NonNull @NotBlank String token) {
-        return telegramBotConfigurations.stream().filter(bot -> bot.getToken().equals(token)).findFirst();
+        long start = System.nanoTime();
+        byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+        IndexedBot candidate = index.get(ByteBuffer.wrap(DIGEST.get().digest(bytes)));
+        TelegramBotConfiguration bot = candidate != null && MessageDigest.isEqual(candidate.token, bytes) ?
+                candidate.bot : null;
+        long latency = System.nanoTime() - start;
+        lookups.increment();
+        if (bot != null) {
+            matches.increment();
+        }
+        latencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        return Optional.ofNullable(bot);
+    }
+
+    /**
+     *
+     * @return A snapshot of the lookup metrics
+     */
+    @NonNull
+    public TokenValidatorMetrics getMetrics() {
+        long count = lookups.sum();
+        return new TokenValidatorMetrics(index.size(),
+                count,
+                matches.sum(),
+                Duration.ofNanos(count == 0 ? 0 : latencyNanos.sum() / count),
+                Duration.ofNanos(maxLatencyNanos.get()));
+    }
+
+    @NonNull
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * A bot and the bytes of its token.
+     */
+    private static final class IndexedBot {
+        private final TelegramBotConfiguration bot;
+        private final byte[] token;
+
+        private IndexedBot(TelegramBotConfiguration bot, byte[] token) {
+            this.bot = bot;
+            this.token = token;
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.microchatbots.telegrambots.conf;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microchatbots.core.parser.SpaceParser;
 import com.microchatbots.core.parser.TextParser;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
@@ -31,13 +32,16 @@ public class TelegramBotCommandsHandlerFactory {
     private final ResourceLoader resourceLoader;
     private final SpaceParser<Update> spaceParser;
     private final TextParser<Update> textParser;
+    private final ObjectMapper objectMapper;
 
     public TelegramBotCommandsHandlerFactory(ResourceLoader resourceLoader,
                                              SpaceParser<Update> spaceParser,
-                                             TextParser<Update> textParser) {
+                                             TextParser<Update> textParser,
+                                             ObjectMapper objectMapper) {
         this.resourceLoader = resourceLoader;
         this.spaceParser = spaceParser;
         this.textParser = textParser;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -48,6 +52,6 @@ public class TelegramBotCommandsHandlerFactory {
     @EachBean(TelegramBotConfiguration.class)
     @Singleton
     public TelegramBotCommandsHandler createCommandHandler(TelegramBotConfiguration telegramBotConfiguration) {
-        return new TelegramBotCommandsHandler(telegramBotConfiguration, resourceLoader, spaceParser, textParser);
+        return new TelegramBotCommandsHandler(telegramBotConfiguration, resourceLoader, spaceParser, textParser, objectMapper);
     }
 }
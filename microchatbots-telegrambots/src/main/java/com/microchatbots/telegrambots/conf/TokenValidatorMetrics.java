@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.conf;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the metrics of a {@link DefaultTokenValidator}.
+ */
+public class TokenValidatorMetrics {
+
+    private final int bots;
+    private final long lookups;
+    private final long matches;
+    private final Duration averageLatency;
+    private final Duration maxLatency;
+
+    /**
+     *
+     * @param bots Number of indexed bots
+     * @param lookups Number of tokens validated
+     * @param matches Number of tokens which matched a bot
+     * @param averageLatency Average time spent validating a token
+     * @param maxLatency Maximum time spent validating a token
+     */
+    public TokenValidatorMetrics(int bots,
+                                 long lookups,
+                                 long matches,
+                                 Duration averageLatency,
+                                 Duration maxLatency) {
+        this.bots = bots;
+        this.lookups = lookups;
+        this.matches = matches;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     *
+     * @return Number of indexed bots
+     */
+    public int getBots() {
+        return bots;
+    }
+
+    /**
+     *
+     * @return Number of tokens validated
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     *
+     * @return Number of tokens which matched a bot
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     *
+     * @return Average time spent validating a token
+     */
+    public Duration getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     *
+     * @return Maximum time spent validating a token
+     */
+    public Duration getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenValidatorMetrics{" +
+                "bots=" + bots +
+                ", lookups=" + lookups +
+                ", matches=" + matches +
+                ", averageLatency=" + averageLatency +
+                ", maxLatency=" + maxLatency +
+                '}';
+    }
+}
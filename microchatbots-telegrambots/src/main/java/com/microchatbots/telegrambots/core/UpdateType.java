@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * The kinds of {@link Update}. Each kind owns a bit, so the kinds of an update or the kinds a handler accepts can be
+ * represented and compared as an int mask.
+ * @see <a href="https://core.telegram.org/bots/api#update">Update</a>
+ */
+public enum UpdateType {
+    MESSAGE("message"),
+    EDITED_MESSAGE("edited_message"),
+    CHANNEL_POST("channel_post"),
+    EDITED_CHANNEL_POST("edited_channel_post"),
+    INLINE_QUERY("inline_query"),
+    CHOSEN_INLINE_RESULT("chosen_inline_result"),
+    CALLBACK_QUERY("callback_query"),
+    SHIPPING_QUERY("shipping_query"),
+    PRE_CHECKOUT_QUERY("pre_checkout_query"),
+    POLL("poll"),
+    POLL_ANSWER("poll_answer");
+
+    private static final UpdateType[] VALUES = values();
+
+    private final String value;
+    private final int mask;
+
+    UpdateType(String value) {
+        this.value = value;
+        this.mask = 1 << ordinal();
+    }
+
+    /**
+     *
+     * @return The bit of this kind
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     *
+     * @param value Name of the kind as it appears in the update. E.g. callback_query
+     * @return The kind with the given name
+     */
+    @NonNull
+    public static Optional<UpdateType> of(@NonNull String value) {
+        for (UpdateType updateType : VALUES) {
+            if (updateType.value.equals(value)) {
+                return Optional.of(updateType);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param updateTypes Kinds of update
+     * @return The mask combining the bits of the kinds
+     */
+    public static int mask(@NonNull Collection<UpdateType> updateTypes) {
+        int mask = 0;
+        for (UpdateType updateType : updateTypes) {
+            mask |= updateType.mask;
+        }
+        return mask;
+    }
+
+    /**
+     *
+     * @param update Update
+     * @return The mask of the kinds present in the update, 0 if the update contains none of the known kinds
+     */
+    public static int classify(@NonNull Update update) {
+        int mask = 0;
+        if (update.getMessage() != null) {
+            mask |= MESSAGE.mask;
+        }
+        if (update.getEditedMessage() != null) {
+            mask |= EDITED_MESSAGE.mask;
+        }
+        if (update.getChannelPost() != null) {
+            mask |= CHANNEL_POST.mask;
+        }
+        if (update.getEditedChannelPost() != null) {
+            mask |= EDITED_CHANNEL_POST.mask;
+        }
+        if (update.getInlineQuery() != null) {
+            mask |= INLINE_QUERY.mask;
+        }
+        if (update.getChosenInlineResult() != null) {
+            mask |= CHOSEN_INLINE_RESULT.mask;
+        }
+        if (update.getCallbackQuery() != null) {
+            mask |= CALLBACK_QUERY.mask;
+        }
+        if (update.getShippingQuery() != null) {
+            mask |= SHIPPING_QUERY.mask;
+        }
+        if (update.getPreCheckoutQuery() != null) {
+            mask |= PRE_CHECKOUT_QUERY.mask;
+        }
+        if (update.getPoll() != null) {
+            mask |= POLL.mask;
+        }
+        if (update.getPollAnswer() != null) {
+            mask |= POLL_ANSWER.mask;
+        }
+        return mask;
+    }
+}
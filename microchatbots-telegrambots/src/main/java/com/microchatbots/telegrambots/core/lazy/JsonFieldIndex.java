@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.lazy;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offsets, within the raw JSON bytes, of the object and array values of the fields of a JSON object.
+ */
+final class JsonFieldIndex {
+    private final byte[] json;
+    private final Map<String, Range> ranges;
+
+    private JsonFieldIndex(@NonNull byte[] json, @NonNull Map<String, Range> ranges) {
+        this.json = json;
+        this.ranges = ranges;
+    }
+
+    /**
+     *
+     * @param jsonFactory JSON Factory
+     * @param json Raw JSON bytes
+     * @param offset Offset of the object within the bytes
+     * @param length Length of the object
+     * @param fields Names of the fields to index. Fields whose value is not an object or an array are not indexed.
+     * @return The index of the object
+     * @throws IOException if the bytes do not contain a JSON object
+     */
+    @NonNull
+    static JsonFieldIndex of(@NonNull JsonFactory jsonFactory,
+                             @NonNull byte[] json,
+                             int offset,
+                             int length,
+                             @NonNull Set<String> fields) throws IOException {
+        Map<String, Range> ranges = new HashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(json, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "expected an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ((token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) && fields.contains(name)) {
+                    int start = (int) parser.getTokenLocation().getByteOffset();
+                    parser.skipChildren();
+                    int end = (int) parser.getCurrentLocation().getByteOffset();
+                    ranges.put(name, new Range(offset + start, end - start));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new JsonFieldIndex(json, ranges);
+    }
+
+    /**
+     *
+     * @return Raw JSON bytes
+     */
+    @NonNull
+    byte[] getJson() {
+        return json;
+    }
+
+    /**
+     *
+     * @param field Field name
+     * @return The offsets of the value of the field or null if it is absent
+     */
+    @Nullable
+    Range find(@NonNull String field) {
+        return ranges.get(field);
+    }
+
+    /**
+     * Offset and length of a value within the raw JSON bytes.
+     */
+    static final class Range {
+        private final int offset;
+        private final int length;
+
+        private Range(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        int getOffset() {
+            return offset;
+        }
+
+        int getLength() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.lazy;
+
+import com.microchatbots.telegrambots.core.Animation;
+import com.microchatbots.telegrambots.core.Audio;
+import com.microchatbots.telegrambots.core.Document;
+import com.microchatbots.telegrambots.core.Game;
+import com.microchatbots.telegrambots.core.InlineKeyboardMarkup;
+import com.microchatbots.telegrambots.core.Invoice;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.MessageEntity;
+import com.microchatbots.telegrambots.core.PassportData;
+import com.microchatbots.telegrambots.core.PhotoSize;
+import com.microchatbots.telegrambots.core.Poll;
+import com.microchatbots.telegrambots.core.Sticker;
+import com.microchatbots.telegrambots.core.SuccessfulPayment;
+import com.microchatbots.telegrambots.core.User;
+import com.microchatbots.telegrambots.core.Video;
+import com.microchatbots.telegrambots.core.VideoNote;
+import com.microchatbots.telegrambots.core.Voice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Message} backed by the raw JSON bytes of the update. Scalar values, the chat, the sender and other small objects
+ * are bound eagerly. Nested messages, entities, photos, media, passport data and the other properties listed in
+ * {@link #LAZY_PROPERTIES} are decoded on first access and memoized. Instances are created by {@link LazyUpdateReader}
+ * and are not thread-safe.
+ */
+public class LazyMessage extends Message {
+
+    /**
+     * Properties decoded on first access.
+     */
+    public static final List<String> LAZY_PROPERTIES = Collections.unmodifiableList(Arrays.asList(
+            "replyToMessage",
+            "pinnedMessage",
+            "entities",
+            "captionEntities",
+            "photo",
+            "newChatPhoto",
+            "newChatMembers",
+            "audio",
+            "document",
+            "animation",
+            "game",
+            "sticker",
+            "video",
+            "voice",
+            "videoNote",
+            "poll",
+            "invoice",
+            "successfulPayment",
+            "passportData",
+            "replyMarkup"));
+
+    private static final int REPLY_TO_MESSAGE = 0;
+    private static final int PINNED_MESSAGE = 1;
+    private static final int ENTITIES = 2;
+    private static final int CAPTION_ENTITIES = 3;
+    private static final int PHOTO = 4;
+    private static final int NEW_CHAT_PHOTO = 5;
+    private static final int NEW_CHAT_MEMBERS = 6;
+    private static final int AUDIO = 7;
+    private static final int DOCUMENT = 8;
+    private static final int ANIMATION = 9;
+    private static final int GAME = 10;
+    private static final int STICKER = 11;
+    private static final int VIDEO = 12;
+    private static final int VOICE = 13;
+    private static final int VIDEO_NOTE = 14;
+    private static final int POLL = 15;
+    private static final int INVOICE = 16;
+    private static final int SUCCESSFUL_PAYMENT = 17;
+    private static final int PASSPORT_DATA = 18;
+    private static final int REPLY_MARKUP = 19;
+
+    private final LazyUpdateReader reader;
+    private final JsonFieldIndex index;
+    private int resolved;
+
+    /**
+     *
+     * @param reader Reader which decodes the lazy properties
+     * @param index Index of the message within the raw JSON bytes
+     */
+    LazyMessage(@NonNull LazyUpdateReader reader, @NonNull JsonFieldIndex index) {
+        this.reader = reader;
+        this.index = index;
+    }
+
+    @Override
+    public Message getReplyToMessage() {
+        if (resolve(REPLY_TO_MESSAGE)) {
+            super.setReplyToMessage(reader.decodeMessageProperty(index, REPLY_TO_MESSAGE));
+        }
+        return super.getReplyToMessage();
+    }
+
+    @Override
+    public void setReplyToMessage(@Nullable Message replyToMessage) {
+        resolve(REPLY_TO_MESSAGE);
+        super.setReplyToMessage(replyToMessage);
+    }
+
+    @Override
+    public Message getPinnedMessage() {
+        if (resolve(PINNED_MESSAGE)) {
+            super.setPinnedMessage(reader.decodeMessageProperty(index, PINNED_MESSAGE));
+        }
+        return super.getPinnedMessage();
+    }
+
+    @Override
+    public void setPinnedMessage(@Nullable Message pinnedMessage) {
+        resolve(PINNED_MESSAGE);
+        super.setPinnedMessage(pinnedMessage);
+    }
+
+    @Override
+    public List<MessageEntity> getEntities() {
+        if (resolve(ENTITIES)) {
+            super.setEntities(reader.decodeMessageProperty(index, ENTITIES));
+        }
+        return super.getEntities();
+    }
+
+    @Override
+    public void setEntities(@Nullable List<MessageEntity> entities) {
+        resolve(ENTITIES);
+        super.setEntities(entities);
+    }
+
+    @Override
+    public List<MessageEntity> getCaptionEntities() {
+        if (resolve(CAPTION_ENTITIES)) {
+            super.setCaptionEntities(reader.decodeMessageProperty(index, CAPTION_ENTITIES));
+        }
+        return super.getCaptionEntities();
+    }
+
+    @Override
+    public void setCaptionEntities(@Nullable List<MessageEntity> captionEntities) {
+        resolve(CAPTION_ENTITIES);
+        super.setCaptionEntities(captionEntities);
+    }
+
+    @Override
+    public List<PhotoSize> getPhoto() {
+        if (resolve(PHOTO)) {
+            super.setPhoto(reader.decodeMessageProperty(index, PHOTO));
+        }
+        return super.getPhoto();
+    }
+
+    @Override
+    public void setPhoto(@Nullable List<PhotoSize> photo) {
+        resolve(PHOTO);
+        super.setPhoto(photo);
+    }
+
+    @Override
+    public List<PhotoSize> getNewChatPhoto() {
+        if (resolve(NEW_CHAT_PHOTO)) {
+            super.setNewChatPhoto(reader.decodeMessageProperty(index, NEW_CHAT_PHOTO));
+        }
+        return super.getNewChatPhoto();
+    }
+
+    @Override
+    public void setNewChatPhoto(@Nullable List<PhotoSize> newChatPhoto) {
+        resolve(NEW_CHAT_PHOTO);
+        super.setNewChatPhoto(newChatPhoto);
+    }
+
+    @Override
+    public List<User> getNewChatMembers() {
+        if (resolve(NEW_CHAT_MEMBERS)) {
+            super.setNewChatMembers(reader.decodeMessageProperty(index, NEW_CHAT_MEMBERS));
+        }
+        return super.getNewChatMembers();
+    }
+
+    @Override
+    public void setNewChatMembers(@Nullable List<User> newChatMembers) {
+        resolve(NEW_CHAT_MEMBERS);
+        super.setNewChatMembers(newChatMembers);
+    }
+
+    @Override
+    public Audio getAudio() {
+        if (resolve(AUDIO)) {
+            super.setAudio(reader.decodeMessageProperty(index, AUDIO));
+        }
+        return super.getAudio();
+    }
+
+    @Override
+    public void setAudio(@Nullable Audio audio) {
+        resolve(AUDIO);
+        super.setAudio(audio);
+    }
+
+    @Override
+    public Document getDocument() {
+        if (resolve(DOCUMENT)) {
+            super.setDocument(reader.decodeMessageProperty(index, DOCUMENT));
+        }
+        return super.getDocument();
+    }
+
+    @Override
+    public void setDocument(@Nullable Document document) {
+        resolve(DOCUMENT);
+        super.setDocument(document);
+    }
+
+    @Override
+    public Animation getAnimation() {
+        if (resolve(ANIMATION)) {
+            super.setAnimation(reader.decodeMessageProperty(index, ANIMATION));
+        }
+        return super.getAnimation();
+    }
+
+    @Override
+    public void setAnimation(@Nullable Animation animation) {
+        resolve(ANIMATION);
+        super.setAnimation(animation);
+    }
+
+    @Override
+    public Game getGame() {
+        if (resolve(GAME)) {
+            super.setGame(reader.decodeMessageProperty(index, GAME));
+        }
+        return super.getGame();
+    }
+
+    @Override
+    public void setGame(@Nullable Game game) {
+        resolve(GAME);
+        super.setGame(game);
+    }
+
+    @Override
+    public Sticker getSticker() {
+        if (resolve(STICKER)) {
+            super.setSticker(reader.decodeMessageProperty(index, STICKER));
+        }
+        return super.getSticker();
+    }
+
+    @Override
+    public void setSticker(@Nullable Sticker sticker) {
+        resolve(STICKER);
+        super.setSticker(sticker);
+    }
+
+    @Override
+    public Video getVideo() {
+        if (resolve(VIDEO)) {
+            super.setVideo(reader.decodeMessageProperty(index, VIDEO));
+        }
+        return super.getVideo();
+    }
+
+    @Override
+    public void setVideo(@Nullable Video video) {
+        resolve(VIDEO);
+        super.setVideo(video);
+    }
+
+    @Override
+    public Voice getVoice() {
+        if (resolve(VOICE)) {
+            super.setVoice(reader.decodeMessageProperty(index, VOICE));
+        }
+        return super.getVoice();
+    }
+
+    @Override
+    public void setVoice(@Nullable Voice voice) {
+        resolve(VOICE);
+        super.setVoice(voice);
+    }
+
+    @Override
+    public VideoNote getVideoNote() {
+        if (resolve(VIDEO_NOTE)) {
+            super.setVideoNote(reader.decodeMessageProperty(index, VIDEO_NOTE));
+        }
+        return super.getVideoNote();
+    }
+
+    @Override
+    public void setVideoNote(@Nullable VideoNote videoNote) {
+        resolve(VIDEO_NOTE);
+        super.setVideoNote(videoNote);
+    }
+
+    @Override
+    public Poll getPoll() {
+        if (resolve(POLL)) {
+            super.setPoll(reader.decodeMessageProperty(index, POLL));
+        }
+        return super.getPoll();
+    }
+
+    @Override
+    public void setPoll(@Nullable Poll poll) {
+        resolve(POLL);
+        super.setPoll(poll);
+    }
+
+    @Override
+    public Invoice getInvoice() {
+        if (resolve(INVOICE)) {
+            super.setInvoice(reader.decodeMessageProperty(index, INVOICE));
+        }
+        return super.getInvoice();
+    }
+
+    @Override
+    public void setInvoice(@Nullable Invoice invoice) {
+        resolve(INVOICE);
+        super.setInvoice(invoice);
+    }
+
+    @Override
+    public SuccessfulPayment getSuccessfulPayment() {
+        if (resolve(SUCCESSFUL_PAYMENT)) {
+            super.setSuccessfulPayment(reader.decodeMessageProperty(index, SUCCESSFUL_PAYMENT));
+        }
+        return super.getSuccessfulPayment();
+    }
+
+    @Override
+    public void setSuccessfulPayment(@Nullable SuccessfulPayment successfulPayment) {
+        resolve(SUCCESSFUL_PAYMENT);
+        super.setSuccessfulPayment(successfulPayment);
+    }
+
+    @Override
+    public PassportData getPassportData() {
+        if (resolve(PASSPORT_DATA)) {
+            super.setPassportData(reader.decodeMessageProperty(index, PASSPORT_DATA));
+        }
+        return super.getPassportData();
+    }
+
+    @Override
+    public void setPassportData(@Nullable PassportData passportData) {
+        resolve(PASSPORT_DATA);
+        super.setPassportData(passportData);
+    }
+
+    @Override
+    public InlineKeyboardMarkup getReplyMarkup() {
+        if (resolve(REPLY_MARKUP)) {
+            super.setReplyMarkup(reader.decodeMessageProperty(index, REPLY_MARKUP));
+        }
+        return super.getReplyMarkup();
+    }
+
+    @Override
+    public void setReplyMarkup(@Nullable InlineKeyboardMarkup replyMarkup) {
+        resolve(REPLY_MARKUP);
+        super.setReplyMarkup(replyMarkup);
+    }
+
+    /**
+     * Marks a property as resolved.
+     * @param property Index of the property in {@link #LAZY_PROPERTIES}
+     * @return true if the property had not been resolved yet
+     */
+    private boolean resolve(int property) {
+        int bit = 1 << property;
+        if ((resolved & bit) != 0) {
+            return false;
+        }
+        resolved |= bit;
+        return true;
+    }
+}
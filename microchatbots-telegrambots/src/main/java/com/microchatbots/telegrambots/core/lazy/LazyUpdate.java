@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.lazy;
+
+import com.microchatbots.telegrambots.core.CallbackQuery;
+import com.microchatbots.telegrambots.core.ChosenInlineResult;
+import com.microchatbots.telegrambots.core.InlineQuery;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Poll;
+import com.microchatbots.telegrambots.core.PollAnswer;
+import com.microchatbots.telegrambots.core.PreCheckoutQuery;
+import com.microchatbots.telegrambots.core.ShippingQuery;
+import com.microchatbots.telegrambots.core.Update;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Update} backed by its raw JSON bytes. The update id is bound eagerly. The object of each kind is decoded on
+ * first access and memoized; messages are decoded as {@link LazyMessage}s. Instances are created by
+ * {@link LazyUpdateReader} and are not thread-safe.
+ */
+public class LazyUpdate extends Update {
+
+    /**
+     * Properties decoded on first access.
+     */
+    public static final List<String> LAZY_PROPERTIES = Collections.unmodifiableList(Arrays.asList(
+            "message",
+            "editedMessage",
+            "channelPost",
+            "editedChannelPost",
+            "inlineQuery",
+            "chosenInlineResult",
+            "callbackQuery",
+            "shippingQuery",
+            "preCheckoutQuery",
+            "poll",
+            "pollAnswer"));
+
+    private static final int MESSAGE = 0;
+    private static final int EDITED_MESSAGE = 1;
+    private static final int CHANNEL_POST = 2;
+    private static final int EDITED_CHANNEL_POST = 3;
+    private static final int INLINE_QUERY = 4;
+    private static final int CHOSEN_INLINE_RESULT = 5;
+    private static final int CALLBACK_QUERY = 6;
+    private static final int SHIPPING_QUERY = 7;
+    private static final int PRE_CHECKOUT_QUERY = 8;
+    private static final int POLL = 9;
+    private static final int POLL_ANSWER = 10;
+
+    private final LazyUpdateReader reader;
+    private final JsonFieldIndex index;
+    private int resolved;
+
+    /**
+     *
+     * @param reader Reader which decodes the lazy properties
+     * @param index Index of the update within the raw JSON bytes
+     */
+    LazyUpdate(@NonNull LazyUpdateReader reader, @NonNull JsonFieldIndex index) {
+        this.reader = reader;
+        this.index = index;
+    }
+
+    @Override
+    public Message getMessage() {
+        if (resolve(MESSAGE)) {
+            super.setMessage(reader.decodeUpdateProperty(index, MESSAGE));
+        }
+        return super.getMessage();
+    }
+
+    @Override
+    public void setMessage(@Nullable Message message) {
+        resolve(MESSAGE);
+        super.setMessage(message);
+    }
+
+    @Override
+    public Message getEditedMessage() {
+        if (resolve(EDITED_MESSAGE)) {
+            super.setEditedMessage(reader.decodeUpdateProperty(index, EDITED_MESSAGE));
+        }
+        return super.getEditedMessage();
+    }
+
+    @Override
+    public void setEditedMessage(@Nullable Message editedMessage) {
+        resolve(EDITED_MESSAGE);
+        super.setEditedMessage(editedMessage);
+    }
+
+    @Override
+    public Message getChannelPost() {
+        if (resolve(CHANNEL_POST)) {
+            super.setChannelPost(reader.decodeUpdateProperty(index, CHANNEL_POST));
+        }
+        return super.getChannelPost();
+    }
+
+    @Override
+    public void setChannelPost(@Nullable Message channelPost) {
+        resolve(CHANNEL_POST);
+        super.setChannelPost(channelPost);
+    }
+
+    @Override
+    public Message getEditedChannelPost() {
+        if (resolve(EDITED_CHANNEL_POST)) {
+            super.setEditedChannelPost(reader.decodeUpdateProperty(index, EDITED_CHANNEL_POST));
+        }
+        return super.getEditedChannelPost();
+    }
+
+    @Override
+    public void setEditedChannelPost(@Nullable Message editedChannelPost) {
+        resolve(EDITED_CHANNEL_POST);
+        super.setEditedChannelPost(editedChannelPost);
+    }
+
+    @Override
+    public InlineQuery getInlineQuery() {
+        if (resolve(INLINE_QUERY)) {
+            super.setInlineQuery(reader.decodeUpdateProperty(index, INLINE_QUERY));
+        }
+        return super.getInlineQuery();
+    }
+
+    @Override
+    public void setInlineQuery(@Nullable InlineQuery inlineQuery) {
+        resolve(INLINE_QUERY);
+        super.setInlineQuery(inlineQuery);
+    }
+
+    @Override
+    public ChosenInlineResult getChosenInlineResult() {
+        if (resolve(CHOSEN_INLINE_RESULT)) {
+            super.setChosenInlineResult(reader.decodeUpdateProperty(index, CHOSEN_INLINE_RESULT));
+        }
+        return super.getChosenInlineResult();
+    }
+
+    @Override
+    public void setChosenInlineResult(@Nullable ChosenInlineResult chosenInlineResult) {
+        resolve(CHOSEN_INLINE_RESULT);
+        super.setChosenInlineResult(chosenInlineResult);
+    }
+
+    @Override
+    public CallbackQuery getCallbackQuery() {
+        if (resolve(CALLBACK_QUERY)) {
+            super.setCallbackQuery(reader.decodeUpdateProperty(index, CALLBACK_QUERY));
+        }
+        return super.getCallbackQuery();
+    }
+
+    @Override
+    public void setCallbackQuery(@Nullable CallbackQuery callbackQuery) {
+        resolve(CALLBACK_QUERY);
+        super.setCallbackQuery(callbackQuery);
+    }
+
+    @Override
+    public ShippingQuery getShippingQuery() {
+        if (resolve(SHIPPING_QUERY)) {
+            super.setShippingQuery(reader.decodeUpdateProperty(index, SHIPPING_QUERY));
+        }
+        return super.getShippingQuery();
+    }
+
+    @Override
+    public void setShippingQuery(@Nullable ShippingQuery shippingQuery) {
+        resolve(SHIPPING_QUERY);
+        super.setShippingQuery(shippingQuery);
+    }
+
+    @Override
+    public PreCheckoutQuery getPreCheckoutQuery() {
+        if (resolve(PRE_CHECKOUT_QUERY)) {
+            super.setPreCheckoutQuery(reader.decodeUpdateProperty(index, PRE_CHECKOUT_QUERY));
+        }
+        return super.getPreCheckoutQuery();
+    }
+
+    @Override
+    public void setPreCheckoutQuery(@Nullable PreCheckoutQuery preCheckoutQuery) {
+        resolve(PRE_CHECKOUT_QUERY);
+        super.setPreCheckoutQuery(preCheckoutQuery);
+    }
+
+    @Override
+    public Poll getPoll() {
+        if (resolve(POLL)) {
+            super.setPoll(reader.decodeUpdateProperty(index, POLL));
+        }
+        return super.getPoll();
+    }
+
+    @Override
+    public void setPoll(@Nullable Poll poll) {
+        resolve(POLL);
+        super.setPoll(poll);
+    }
+
+    @Override
+    public PollAnswer getPollAnswer() {
+        if (resolve(POLL_ANSWER)) {
+            super.setPollAnswer(reader.decodeUpdateProperty(index, POLL_ANSWER));
+        }
+        return super.getPollAnswer();
+    }
+
+    @Override
+    public void setPollAnswer(@Nullable PollAnswer pollAnswer) {
+        resolve(POLL_ANSWER);
+        super.setPollAnswer(pollAnswer);
+    }
+
+    /**
+     * Marks a property as resolved.
+     * @param property Index of the property in {@link #LAZY_PROPERTIES}
+     * @return true if the property had not been resolved yet
+     */
+    private boolean resolve(int property) {
+        int bit = 1 << property;
+        if ((resolved & bit) != 0) {
+            return false;
+        }
+        resolved |= bit;
+        return true;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.lazy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads {@link LazyUpdate}s. Scalar values are bound eagerly. Object and array values of the properties listed in
+ * {@link LazyUpdate#LAZY_PROPERTIES} and {@link LazyMessage#LAZY_PROPERTIES} are indexed by offset and decoded on first
+ * access. JSON names and types of the lazy properties are resolved once from the {@link ObjectMapper} configuration.
+ */
+@Singleton
+public class LazyUpdateReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper eagerObjectMapper;
+    private final LazyProperty[] updateProperties;
+    private final LazyProperty[] messageProperties;
+    private final Set<String> updateFields;
+    private final Set<String> messageFields;
+
+    /**
+     *
+     * @param objectMapper Object Mapper
+     */
+    public LazyUpdateReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.updateProperties = lazyProperties(objectMapper, Update.class, LazyUpdate.LAZY_PROPERTIES);
+        this.messageProperties = lazyProperties(objectMapper, Message.class, LazyMessage.LAZY_PROPERTIES);
+        this.updateFields = fields(updateProperties);
+        this.messageFields = fields(messageProperties);
+        this.eagerObjectMapper = objectMapper.copy();
+        eagerObjectMapper.configOverride(LazyUpdate.class)
+                .setIgnorals(JsonIgnoreProperties.Value.forIgnoredProperties(updateFields));
+        eagerObjectMapper.configOverride(LazyMessage.class)
+                .setIgnorals(JsonIgnoreProperties.Value.forIgnoredProperties(messageFields));
+    }
+
+    /**
+     *
+     * @param json JSON of the update
+     * @return A lazy update backed by the bytes. The bytes must not be modified afterwards.
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    public LazyUpdate read(@NonNull byte[] json) throws IOException {
+        JsonFieldIndex index = JsonFieldIndex.of(objectMapper.getFactory(), json, 0, json.length, updateFields);
+        return eagerObjectMapper.readerForUpdating(new LazyUpdate(this, index)).readValue(json);
+    }
+
+    /**
+     *
+     * @param index Index of the update
+     * @param property Index of the property in {@link LazyUpdate#LAZY_PROPERTIES}
+     * @param <T> Property type
+     * @return The decoded value of the property or null if it is absent
+     */
+    @Nullable
+    <T> T decodeUpdateProperty(@NonNull JsonFieldIndex index, int property) {
+        return decode(index, updateProperties[property]);
+    }
+
+    /**
+     *
+     * @param index Index of the message
+     * @param property Index of the property in {@link LazyMessage#LAZY_PROPERTIES}
+     * @param <T> Property type
+     * @return The decoded value of the property or null if it is absent
+     */
+    @Nullable
+    <T> T decodeMessageProperty(@NonNull JsonFieldIndex index, int property) {
+        return decode(index, messageProperties[property]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private <T> T decode(@NonNull JsonFieldIndex index, @NonNull LazyProperty property) {
+        JsonFieldIndex.Range range = index.find(property.field);
+        if (range == null) {
+            return null;
+        }
+        try {
+            if (property.type.hasRawClass(Message.class)) {
+                return (T) readMessage(index.getJson(), range);
+            }
+            return objectMapper.readValue(index.getJson(), range.getOffset(), range.getLength(), property.type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NonNull
+    private LazyMessage readMessage(@NonNull byte[] json, @NonNull JsonFieldIndex.Range range) throws IOException {
+        JsonFieldIndex index = JsonFieldIndex.of(objectMapper.getFactory(), json, range.getOffset(), range.getLength(), messageFields);
+        return eagerObjectMapper.readerForUpdating(new LazyMessage(this, index))
+                .readValue(json, range.getOffset(), range.getLength());
+    }
+
+    @NonNull
+    private static LazyProperty[] lazyProperties(@NonNull ObjectMapper objectMapper,
+                                                 @NonNull Class<?> type,
+                                                 @NonNull List<String> names) {
+        BeanDescription description = objectMapper.getDeserializationConfig().introspect(objectMapper.constructType(type));
+        List<BeanPropertyDefinition> definitions = description.findProperties();
+        LazyProperty[] properties = new LazyProperty[names.size()];
+        for (int i = 0; i < properties.length; i++) {
+            String name = names.get(i);
+            BeanPropertyDefinition definition = definitions.stream()
+                    .filter(candidate -> name.equals(candidate.getInternalName()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("no property " + name + " in " + type.getName()));
+            properties[i] = new LazyProperty(definition.getName(), definition.getPrimaryType());
+        }
+        return properties;
+    }
+
+    @NonNull
+    private static Set<String> fields(@NonNull LazyProperty[] properties) {
+        Set<String> fields = new HashSet<>();
+        Arrays.stream(properties).forEach(property -> fields.add(property.field));
+        return fields;
+    }
+
+    /**
+     * JSON name and type of a lazy property.
+     */
+    private static final class LazyProperty {
+        private final String field;
+        private final JavaType type;
+
+        private LazyProperty(String field, JavaType type) {
+            this.field = field;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * A file uploaded with multipart/form-data, read from a file, a stream or a buffer.
+ * @see <a href="https://core.telegram.org/bots/api#inputfile">InputFile</a>
+ */
+public final class InputFile {
+
+    @NonNull
+    private final String filename;
+
+    private final Path path;
+
+    private final InputStream inputStream;
+
+    private final ByteBuffer byteBuffer;
+
+    private final long length;
+
+    private InputFile(@NonNull String filename, Path path, InputStream inputStream, ByteBuffer byteBuffer, long length) {
+        this.filename = filename;
+        this.path = path;
+        this.inputStream = inputStream;
+        this.byteBuffer = byteBuffer;
+        this.length = length;
+    }
+
+    /**
+     * The file is streamed from disk when the request is sent, it is never loaded on the heap.
+     * @param path File to upload
+     * @return A file uploaded from disk
+     */
+    @NonNull
+    public static InputFile of(@NonNull Path path) {
+        return new InputFile(path.getFileName().toString(), path, null, null, -1);
+    }
+
+    /**
+     * The stream can only be read once, so a call repeated after a migration or a retry_after fails. The HTTP client
+     * copies the stream to memory, or to a temporary file when it is large, before the request is sent.
+     * @param filename File name sent to Telegram
+     * @param inputStream Content of the file
+     * @param length Length of the content, in bytes
+     * @return A file uploaded from a stream
+     */
+    @NonNull
+    public static InputFile of(@NonNull String filename, @NonNull InputStream inputStream, long length) {
+        return new InputFile(filename, null, inputStream, null, length);
+    }
+
+    /**
+     * The HTTP client copies the buffer, to memory or to a temporary file when it is large, before the request is sent.
+     * @param filename File name sent to Telegram
+     * @param byteBuffer Content of the file, from its position to its limit. The buffer itself is not modified.
+     * @return A file uploaded from a buffer
+     */
+    @NonNull
+    public static InputFile of(@NonNull String filename, @NonNull ByteBuffer byteBuffer) {
+        return new InputFile(filename, null, null, byteBuffer.asReadOnlyBuffer(), byteBuffer.remaining());
+    }
+
+    /**
+     *
+     * @return File name sent to Telegram
+     */
+    @NonNull
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     *
+     * @return File to upload, if uploaded from disk
+     */
+    @NonNull
+    public Optional<Path> getPath() {
+        return Optional.ofNullable(path);
+    }
+
+    /**
+     *
+     * @return Content of the file, if uploaded from a stream
+     */
+    @NonNull
+    public Optional<InputStream> getInputStream() {
+        return Optional.ofNullable(inputStream);
+    }
+
+    /**
+     *
+     * @return A new view of the content of the file, if uploaded from a buffer
+     */
+    @NonNull
+    public Optional<ByteBuffer> getByteBuffer() {
+        return Optional.ofNullable(byteBuffer).map(ByteBuffer::duplicate);
+    }
+
+    /**
+     *
+     * @return Length of the content, in bytes, or -1 for a file uploaded from disk
+     */
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "InputFile{" +
+                "filename='" + filename + '\'' +
+                ", length=" + length +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import com.microchatbots.telegrambots.core.InputMedia;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link SendMediaGroup} sent with multipart/form-data, mixing media referenced by file_id or URL with media
+ * uploaded in the same request. The media of an uploaded item is set to {@code attach://<name>} and its
+ * {@link InputFile} is sent as the part named after it.
+ */
+public final class MediaGroupUpload {
+
+    public static final String ATTACH = "attach://";
+
+    private static final String PART_PREFIX = "media";
+
+    @NonNull
+    private final SendMediaGroup send;
+
+    @NonNull
+    private final Map<String, InputFile> files = new LinkedHashMap<>();
+
+    /**
+     *
+     * @param send Media group, items may already be added to it
+     */
+    public MediaGroupUpload(@NonNull SendMediaGroup send) {
+        this.send = send;
+    }
+
+    /**
+     *
+     * @param media Item whose media is a file_id or a URL
+     * @return This upload
+     */
+    @NonNull
+    public MediaGroupUpload add(@NonNull InputMedia media) {
+        send.getMedia().add(media);
+        return this;
+    }
+
+    /**
+     *
+     * @param media Item, its media is set to the part of the file
+     * @param file File to upload
+     * @return This upload
+     */
+    @NonNull
+    public MediaGroupUpload add(@NonNull InputMedia media, @NonNull InputFile file) {
+        String name = PART_PREFIX + files.size();
+        media.setMedia(ATTACH + name);
+        files.put(name, file);
+        send.getMedia().add(media);
+        return this;
+    }
+
+    /**
+     *
+     * @param send Media group with the same items, for example a copy addressed to another chat
+     * @return An upload of the same files with the given media group
+     */
+    @NonNull
+    public MediaGroupUpload withSend(@NonNull SendMediaGroup send) {
+        MediaGroupUpload upload = new MediaGroupUpload(send);
+        upload.files.putAll(files);
+        return upload;
+    }
+
+    /**
+     *
+     * @return Media group
+     */
+    @NonNull
+    public SendMediaGroup getSend() {
+        return send;
+    }
+
+    /**
+     *
+     * @return Files to upload, by part name, in the order they were added
+     */
+    @NonNull
+    public Map<String, InputFile> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /**
+     *
+     * @return Method of Telegram's Bot API, sendMediaGroup
+     */
+    @NonNull
+    public String getMethod() {
+        return send.getMethod();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link Send} whose media is uploaded with multipart/form-data rather than referenced by file_id or URL. The
+ * properties of the {@link Send} are sent as form fields, the media field of the {@link Send} is left empty and the
+ * {@link InputFile} is sent in its place.
+ *
+ * @param <S> Type of the message
+ */
+public final class MediaUpload<S extends Send> {
+
+    @NonNull
+    private final S send;
+
+    @NonNull
+    private final String field;
+
+    @NonNull
+    private final InputFile file;
+
+    /**
+     *
+     * @param send Message, without its media
+     * @param field Form field of the media, for example photo
+     * @param file Media to upload
+     */
+    public MediaUpload(@NonNull S send, @NonNull String field, @NonNull InputFile file) {
+        this.send = send;
+        this.field = field;
+        this.file = file;
+    }
+
+    /**
+     *
+     * @param sendPhoto Photo message, without its photo
+     * @param photo Photo to upload
+     * @return The upload of a photo
+     */
+    @NonNull
+    public static MediaUpload<SendPhoto> photo(@NonNull SendPhoto sendPhoto, @NonNull InputFile photo) {
+        return new MediaUpload<>(sendPhoto, "photo", photo);
+    }
+
+    /**
+     *
+     * @param sendDocument Document message, without its document
+     * @param document Document to upload
+     * @return The upload of a document
+     */
+    @NonNull
+    public static MediaUpload<SendDocument> document(@NonNull SendDocument sendDocument, @NonNull InputFile document) {
+        return new MediaUpload<>(sendDocument, "document", document);
+    }
+
+    /**
+     *
+     * @param sendVideo Video message, without its video
+     * @param video Video to upload
+     * @return The upload of a video
+     */
+    @NonNull
+    public static MediaUpload<SendVideo> video(@NonNull SendVideo sendVideo, @NonNull InputFile video) {
+        return new MediaUpload<>(sendVideo, "video", video);
+    }
+
+    /**
+     *
+     * @param sendAudio Audio message, without its audio
+     * @param audio Audio to upload
+     * @return The upload of an audio
+     */
+    @NonNull
+    public static MediaUpload<SendAudio> audio(@NonNull SendAudio sendAudio, @NonNull InputFile audio) {
+        return new MediaUpload<>(sendAudio, "audio", audio);
+    }
+
+    /**
+     *
+     * @param sendVoice Voice message, without its voice
+     * @param voice Voice to upload
+     * @return The upload of a voice
+     */
+    @NonNull
+    public static MediaUpload<SendVoice> voice(@NonNull SendVoice sendVoice, @NonNull InputFile voice) {
+        return new MediaUpload<>(sendVoice, "voice", voice);
+    }
+
+    /**
+     *
+     * @return Message, without its media
+     */
+    @NonNull
+    public S getSend() {
+        return send;
+    }
+
+    /**
+     *
+     * @return Form field of the media
+     */
+    @NonNull
+    public String getField() {
+        return field;
+    }
+
+    /**
+     *
+     * @return Media to upload
+     */
+    @NonNull
+    public InputFile getFile() {
+        return file;
+    }
+
+    /**
+     *
+     * @return Method of Telegram's Bot API, for example sendPhoto
+     */
+    @NonNull
+    public String getMethod() {
+        return send.getMethod();
+    }
+}
@@ -27,6 +27,8 @@ import javax.validation.constraints.NotBlank;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class SendDocument extends Send {
 
+    public static final String SEND_DOCUMENT = "sendDocument";
+
     /**
      * File to send. Pass a file_id as String to send a file that exists on the Telegram servers (recommended), pass an HTTP URL as a String for Telegram to get a file from the Internet, or upload a new one using multipart/form-data.
      */
@@ -55,7 +57,7 @@ public class SendDocument extends Send {
     private String parseMode;
 
     public SendDocument() {
-        super("sendDocument");
+        super(SEND_DOCUMENT);
     }
 
     /**
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.microchatbots.telegrambots.core.InputMedia;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.annotation.Introspected;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Use this method to send a group of photos, videos, documents or audios as an album. Documents and audio files can be only grouped in an album with messages of the same type.
+ * @see <a href="https://core.telegram.org/bots/api#sendmediagroup">sendMediaGroup</a>
+ */
+@Introspected
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SendMediaGroup extends Send {
+
+    public static final String SEND_MEDIA_GROUP = "sendMediaGroup";
+
+    /**
+     * A JSON-serialized array describing messages to be sent, must include 2-10 items.
+     */
+    @NonNull
+    @NotNull
+    @Size(min = 2, max = 10)
+    private List<@Valid InputMedia> media = new ArrayList<>();
+
+    /**
+     * Constructor.
+     */
+    public SendMediaGroup() {
+        super(SEND_MEDIA_GROUP);
+    }
+
+    /**
+     *
+     * @return A JSON-serialized array describing messages to be sent, must include 2-10 items.
+     */
+    @NonNull
+    public List<InputMedia> getMedia() {
+        return media;
+    }
+
+    /**
+     *
+     * @param media A JSON-serialized array describing messages to be sent, must include 2-10 items.
+     */
+    public void setMedia(@NonNull List<InputMedia> media) {
+        this.media = media;
+    }
+
+    @Override
+    public String toString() {
+        return "SendMediaGroup{" +
+                "media=" + media +
+                '}';
+    }
+}
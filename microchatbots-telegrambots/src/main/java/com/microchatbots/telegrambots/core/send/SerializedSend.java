@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link Send} whose JSON representation was computed ahead of time. Webhook adapters write it as the response body
+ * instead of serializing the object.
+ */
+public interface SerializedSend {
+
+    /**
+     *
+     * @return JSON representation of the send method, including the method name
+     */
+    @NonNull
+    String toJson();
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * A {@link SendMessage} whose fields, other than the chat id, were serialized once. The chat id is spliced into the JSON
+ * when {@link #toJson()} is called. The JSON reflects the message as it was created; changes made through the setters
+ * other than {@link #setChatId(Object)} are not part of it.
+ */
+@Introspected
+public class SerializedSendMessage extends SendMessage implements SerializedSend {
+
+    private static final String CHAT_ID_START = "{\"chat_id\":\"";
+    private static final String CHAT_ID_END = "\",";
+
+    @NonNull
+    private final String serializedFields;
+
+    /**
+     *
+     * @param text Text of the message to be sent.
+     * @param parseMode Parse mode
+     * @param serializedFields JSON of the message without chat id and without the opening brace
+     */
+    public SerializedSendMessage(@NonNull String text,
+                                 @NonNull String parseMode,
+                                 @NonNull String serializedFields) {
+        setText(text);
+        setParseMode(parseMode);
+        this.serializedFields = serializedFields;
+    }
+
+    /**
+     *
+     * @param json JSON of a message serialized without chat id
+     * @return The non empty JSON object without the opening brace, ready to be passed to {@link #SerializedSendMessage(String, String, String)}
+     */
+    @NonNull
+    public static String serializedFields(@NonNull String json) {
+        String fields = json.trim();
+        if (!fields.startsWith("{") || fields.length() <= 2) {
+            throw new IllegalArgumentException("not a JSON object: " + json);
+        }
+        return fields.substring(1);
+    }
+
+    /**
+     *
+     * @return JSON of the message without chat id and without the opening brace
+     */
+    @JsonIgnore
+    @NonNull
+    public String getSerializedFields() {
+        return serializedFields;
+    }
+
+    @Override
+    @NonNull
+    public String toJson() {
+        char[] chatId = JsonStringEncoder.getInstance().quoteAsString(String.valueOf(getChatId()));
+        return new StringBuilder(CHAT_ID_START.length() + chatId.length + CHAT_ID_END.length() + serializedFields.length())
+                .append(CHAT_ID_START)
+                .append(chatId)
+                .append(CHAT_ID_END)
+                .append(serializedFields)
+                .toString();
+    }
+}
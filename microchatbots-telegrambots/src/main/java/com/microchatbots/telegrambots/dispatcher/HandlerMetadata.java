@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.core.request.handler.CommandRequestHandler;
+import com.microchatbots.telegrambots.annotation.TelegramCallback;
+import com.microchatbots.telegrambots.annotation.TelegramCommand;
+import com.microchatbots.telegrambots.annotation.TelegramUpdateTypes;
+import com.microchatbots.telegrambots.core.UpdateType;
+import com.microchatbots.telegrambots.handler.TelegramRequestHandler;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.core.annotation.AnnotationMetadataProvider;
+import io.micronaut.core.beans.BeanIntrospector;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Routing information of a {@link TelegramRequestHandler}. It is read from the annotation metadata which Micronaut
+ * generates at compile time for classes annotated with {@link TelegramCommand}, {@link TelegramCallback} or
+ * {@link TelegramUpdateTypes}, so no reflection is involved, and from the handler's own methods otherwise.
+ * The annotation metadata is looked up once per handler class. The routing indexes themselves are still built, and the
+ * handlers sorted, when the {@link TelegramDispatcher} is created; no routing table is generated at build time.
+ */
+final class HandlerMetadata {
+    private static final ClassValue<AnnotatedRoutes> ANNOTATED_ROUTES = new ClassValue<AnnotatedRoutes>() {
+        @Override
+        protected AnnotatedRoutes computeValue(Class<?> type) {
+            return new AnnotatedRoutes(BeanIntrospector.SHARED.findIntrospection(type)
+                    .map(AnnotationMetadataProvider::getAnnotationMetadata)
+                    .orElse(AnnotationMetadata.EMPTY_METADATA));
+        }
+    };
+
+    private final TelegramRequestHandler<?> handler;
+    private final Set<String> commands;
+    private final Set<String> callbackPrefixes;
+    private final int updateTypes;
+
+    private HandlerMetadata(@NonNull TelegramRequestHandler<?> handler,
+                            @NonNull Set<String> commands,
+                            @NonNull Set<String> callbackPrefixes,
+                            int updateTypes) {
+        this.handler = handler;
+        this.commands = commands;
+        this.callbackPrefixes = callbackPrefixes;
+        this.updateTypes = updateTypes;
+    }
+
+    /**
+     *
+     * @param handler Telegram request handler
+     * @return The routing information of the handler
+     */
+    @NonNull
+    static HandlerMetadata of(@NonNull TelegramRequestHandler<?> handler) {
+        AnnotatedRoutes annotated = ANNOTATED_ROUTES.get(handler.getClass());
+        Set<String> commands = new LinkedHashSet<>();
+        if (handler instanceof CommandRequestHandler) {
+            commands.addAll(((CommandRequestHandler<?, ?, ?>) handler).getCommands());
+        }
+        commands.addAll(annotated.commands);
+        Set<String> callbackPrefixes = annotated.callbackPrefixes;
+        Set<UpdateType> accepted;
+        if (annotated.updateTypes != null) {
+            accepted = annotated.updateTypes;
+        } else if (!callbackPrefixes.isEmpty() && commands.isEmpty()) {
+            accepted = EnumSet.of(UpdateType.CALLBACK_QUERY);
+        } else {
+            accepted = handler.getUpdateTypes();
+        }
+        int updateTypes = accepted.size() == UpdateType.values().length ? HandlerRoute.ALL_UPDATE_TYPES : UpdateType.mask(accepted);
+        return new HandlerMetadata(handler,
+                Collections.unmodifiableSet(commands),
+                callbackPrefixes,
+                updateTypes);
+    }
+
+    /**
+     *
+     * @return Telegram request handler
+     */
+    @NonNull
+    TelegramRequestHandler<?> getHandler() {
+        return handler;
+    }
+
+    /**
+     *
+     * @return Commands the handler is registered for
+     */
+    @NonNull
+    Set<String> getCommands() {
+        return commands;
+    }
+
+    /**
+     *
+     * @return Callback data prefixes the handler is registered for
+     */
+    @NonNull
+    Set<String> getCallbackPrefixes() {
+        return callbackPrefixes;
+    }
+
+    /**
+     *
+     * @return Mask of the update kinds accepted by the handler
+     */
+    int getUpdateTypes() {
+        return updateTypes;
+    }
+
+    /**
+     *
+     * @return Whether the handler is only asked about the commands or callback prefixes it is registered for
+     */
+    boolean isRouted() {
+        return !commands.isEmpty() || !callbackPrefixes.isEmpty();
+    }
+
+    /**
+     * Routing information declared by the annotations of a handler class.
+     */
+    private static final class AnnotatedRoutes {
+        private final Set<String> commands;
+        private final Set<String> callbackPrefixes;
+        @Nullable
+        private final Set<UpdateType> updateTypes;
+
+        private AnnotatedRoutes(AnnotationMetadata annotationMetadata) {
+            this.commands = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(annotationMetadata.stringValues(TelegramCommand.class))));
+            this.callbackPrefixes = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(annotationMetadata.stringValues(TelegramCallback.class))));
+            if (annotationMetadata.hasAnnotation(TelegramUpdateTypes.class)) {
+                Set<UpdateType> accepted = EnumSet.noneOf(UpdateType.class);
+                accepted.addAll(Arrays.asList(annotationMetadata.enumValues(TelegramUpdateTypes.class, UpdateType.class)));
+                this.updateTypes = Collections.unmodifiableSet(accepted);
+            } else {
+                this.updateTypes = null;
+            }
+        }
+    }
+}
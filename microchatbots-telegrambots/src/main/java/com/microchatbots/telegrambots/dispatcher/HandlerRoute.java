@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.handler.TelegramRequestHandler;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Handlers which may handle an update, sorted by order, together with the mask of the update kinds each one accepts.
+ */
+final class HandlerRoute {
+    static final int ALL_UPDATE_TYPES = ~0;
+
+    private final TelegramRequestHandler<?>[] handlers;
+    private final int[] updateTypes;
+
+    /**
+     *
+     * @param sortedHandlers Metadata of the handlers sorted by order
+     */
+    HandlerRoute(@NonNull List<HandlerMetadata> sortedHandlers) {
+        this.handlers = new TelegramRequestHandler<?>[sortedHandlers.size()];
+        this.updateTypes = new int[sortedHandlers.size()];
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = sortedHandlers.get(i).getHandler();
+            updateTypes[i] = sortedHandlers.get(i).getUpdateTypes();
+        }
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update being dispatched
+     * @param updateMask Mask of the kinds of the update
+     * @return The first handler which accepts the update kind and can handle the update
+     */
+    @NonNull
+    Optional<TelegramRequestHandler<?>> find(@NonNull TelegramBotConfiguration botConfiguration,
+                                             @NonNull RequestContext<Update> context,
+                                             int updateMask) {
+        for (int i = 0; i < handlers.length; i++) {
+            if ((updateTypes[i] & updateMask) != 0 && handlers[i].canHandle(botConfiguration, context)) {
+                return Optional.of(handlers[i]);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the metrics of a {@link TelegramDispatcherExecutor} lane.
+ */
+public class LaneMetrics {
+
+    private final int lane;
+    private final int depth;
+    private final long processed;
+    private final long rejected;
+    private final Duration averageLatency;
+    private final Duration maxLatency;
+
+    /**
+     *
+     * @param lane Lane index
+     * @param depth Number of updates waiting in the lane
+     * @param processed Number of updates processed by the lane
+     * @param rejected Number of updates rejected because the lane was full
+     * @param averageLatency Average time between an update being submitted and its dispatch completing
+     * @param maxLatency Maximum time between an update being submitted and its dispatch completing
+     */
+    public LaneMetrics(int lane,
+                       int depth,
+                       long processed,
+                       long rejected,
+                       Duration averageLatency,
+                       Duration maxLatency) {
+        this.lane = lane;
+        this.depth = depth;
+        this.processed = processed;
+        this.rejected = rejected;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     *
+     * @return Lane index
+     */
+    public int getLane() {
+        return lane;
+    }
+
+    /**
+     *
+     * @return Number of updates waiting in the lane
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     *
+     * @return Number of updates processed by the lane
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     *
+     * @return Number of updates rejected because the lane was full
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     *
+     * @return Average time between an update being submitted and its dispatch completing
+     */
+    public Duration getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     *
+     * @return Maximum time between an update being submitted and its dispatch completing
+     */
+    public Duration getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "LaneMetrics{" +
+                "lane=" + lane +
+                ", depth=" + depth +
+                ", processed=" + processed +
+                ", rejected=" + rejected +
+                ", averageLatency=" + averageLatency +
+                ", maxLatency=" + maxLatency +
+                '}';
+    }
+}
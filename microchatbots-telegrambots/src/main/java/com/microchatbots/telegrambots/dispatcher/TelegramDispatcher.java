@@ -15,27 +15,135 @@
  */
 package com.microchatbots.telegrambots.dispatcher;
 
+import com.microchatbots.core.parser.SpaceParser;
+import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.parser.UserParser;
+import com.microchatbots.core.request.DefaultRequestContext;
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.core.request.handler.AsyncRequestHandler;
+import com.microchatbots.core.request.handler.CommandRequestHandler;
+import com.microchatbots.telegrambots.annotation.TelegramCallback;
+import com.microchatbots.telegrambots.annotation.TelegramCommand;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.UpdateType;
 import com.microchatbots.telegrambots.handler.TelegramRequestHandler;
+import com.microchatbots.telegrambots.parser.TelegramRequestContext;
+import com.microchatbots.telegrambots.scheduling.BlockingExecutorFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.micronaut.core.order.OrderUtil;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
 
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Dispatches Telegram {@link Update}s to the first {@link TelegramRequestHandler} which can handle them.
+ * Every update is wrapped in a single {@link RequestContext} shared by the handlers, so it is parsed once.
+ * Handlers implementing {@link CommandRequestHandler} or annotated with {@link TelegramCommand} are indexed by command when
+ * the dispatcher is created and are only asked about updates whose command matches. Handlers annotated with
+ * {@link TelegramCallback} are indexed by callback data prefix and are only asked about the matching callback queries.
+ * Every other handler is asked about every update. Handlers are always
+ * evaluated in {@link OrderUtil#COMPARATOR} order. Each update is classified once into an {@link UpdateType} mask and
+ * handlers are not asked about updates whose kind is not in {@link TelegramRequestHandler#getUpdateTypes()}.
+ * {@link #dispatchAsync(TelegramBotConfiguration, Update)} does not block the caller: {@link AsyncRequestHandler}s
+ * publish their output directly and blocking handlers are run on the {@link BlockingExecutorFactory#BLOCKING} executor,
+ * on virtual threads when the JVM supports them.
+ */
 @Singleton
 public class TelegramDispatcher {
 
-    private final List<TelegramRequestHandler<?>> handlers;
+    private final HandlerRoute fallbackRoute;
+    private final Map<String, HandlerRoute> commandRoutes;
+    private final Map<String, HandlerRoute> callbackRoutes;
+    private final int[] callbackPrefixLengths;
+    private final SpaceParser<Update> spaceParser;
+    private final UserParser<Update> userParser;
+    private final TextParser<Update> textParser;
+    private final Scheduler scheduler;
+
+    /**
+     *
+     * @param handlerCollection Telegram request handlers
+     * @param spaceParser Space Parser
+     * @param userParser User Parser
+     * @param textParser Text parser
+     */
+    public TelegramDispatcher(Collection<TelegramRequestHandler<?>> handlerCollection,
+                              SpaceParser<Update> spaceParser,
+                              UserParser<Update> userParser,
+                              TextParser<Update> textParser) {
+        this(handlerCollection, spaceParser, userParser, textParser, Schedulers.io());
+    }
+
+    /**
+     *
+     * @param handlerCollection Telegram request handlers
+     * @param spaceParser Space Parser
+     * @param userParser User Parser
+     * @param textParser Text parser
+     * @param executorService Executor used to run blocking handlers when dispatching asynchronously
+     */
+    @Inject
+    public TelegramDispatcher(Collection<TelegramRequestHandler<?>> handlerCollection,
+                              SpaceParser<Update> spaceParser,
+                              UserParser<Update> userParser,
+                              TextParser<Update> textParser,
+                              @Named(BlockingExecutorFactory.BLOCKING) ExecutorService executorService) {
+        this(handlerCollection, spaceParser, userParser, textParser, Schedulers.from(executorService));
+    }
 
-    public TelegramDispatcher(Collection<TelegramRequestHandler<?>> handlerCollection) {
-        this.handlers = handlerCollection.stream().sorted(OrderUtil.COMPARATOR).collect(Collectors.toList());
+    /**
+     *
+     * @param handlerCollection Telegram request handlers
+     * @param spaceParser Space Parser
+     * @param userParser User Parser
+     * @param textParser Text parser
+     * @param scheduler Scheduler used to run blocking handlers when dispatching asynchronously
+     */
+    protected TelegramDispatcher(Collection<TelegramRequestHandler<?>> handlerCollection,
+                                 SpaceParser<Update> spaceParser,
+                                 UserParser<Update> userParser,
+                                 TextParser<Update> textParser,
+                                 Scheduler scheduler) {
+        this.scheduler = scheduler;
+        this.spaceParser = spaceParser;
+        this.userParser = userParser;
+        this.textParser = textParser;
+        List<HandlerMetadata> handlers = handlerCollection.stream()
+                .sorted(OrderUtil.COMPARATOR)
+                .map(HandlerMetadata::of)
+                .collect(Collectors.toList());
+        this.fallbackRoute = new HandlerRoute(handlers.stream()
+                .filter(handler -> !handler.isRouted())
+                .collect(Collectors.toList()));
+        this.commandRoutes = Collections.unmodifiableMap(routeBy(handlers, HandlerMetadata::getCommands));
+        this.callbackRoutes = Collections.unmodifiableMap(routeBy(handlers, HandlerMetadata::getCallbackPrefixes));
+        this.callbackPrefixLengths = callbackRoutes.keySet().stream()
+                .map(String::length)
+                .collect(Collectors.toCollection(() -> new TreeSet<>(Collections.reverseOrder())))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
     /**
@@ -46,11 +154,160 @@ public class TelegramDispatcher {
      */
     public Optional<?> dispatch(@NonNull @NotNull @Valid TelegramBotConfiguration botConfiguration,
                                 @NonNull @NotNull @Valid Update update) {
-        for (TelegramRequestHandler<?> handler : handlers) {
-            if (handler.canHandle(botConfiguration, update)) {
-                return Optional.ofNullable(handler.handle(botConfiguration, update));
+        return dispatch(botConfiguration, createContext(botConfiguration, update));
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update being dispatched
+     * @return An optional response
+     */
+    public Optional<?> dispatch(@NonNull @NotNull @Valid TelegramBotConfiguration botConfiguration,
+                                @NonNull @NotNull RequestContext<Update> context) {
+        Optional<TelegramRequestHandler<?>> handlerOptional = findHandler(botConfiguration, context);
+        if (!handlerOptional.isPresent()) {
+            return Optional.empty();
+        }
+        TelegramRequestHandler<?> handler = handlerOptional.get();
+        Object output = handler.handle(botConfiguration, context);
+        if (output != null && handler instanceof AsyncRequestHandler) {
+            return Optional.ofNullable(Flowable.fromPublisher((Publisher<?>) output).firstElement().blockingGet());
+        }
+        return Optional.ofNullable(output);
+    }
+
+    /**
+     * Dispatches an update without blocking the calling thread.
+     * @param botConfiguration Telegram's bot configuration
+     * @param update Update
+     * @return A publisher which emits the response, if any, of the handler which handled the update
+     */
+    @NonNull
+    public Publisher<?> dispatchAsync(@NonNull @NotNull @Valid TelegramBotConfiguration botConfiguration,
+                                      @NonNull @NotNull @Valid Update update) {
+        return dispatchAsync(botConfiguration, createContext(botConfiguration, update));
+    }
+
+    /**
+     * Dispatches an update without blocking the calling thread.
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update being dispatched
+     * @return A publisher which emits the response, if any, of the handler which handled the update
+     */
+    @NonNull
+    public Publisher<?> dispatchAsync(@NonNull @NotNull @Valid TelegramBotConfiguration botConfiguration,
+                                      @NonNull @NotNull RequestContext<Update> context) {
+        return Flowable.<Object>defer(() -> {
+            Optional<TelegramRequestHandler<?>> handlerOptional = findHandler(botConfiguration, context);
+            if (!handlerOptional.isPresent()) {
+                return Flowable.empty();
+            }
+            TelegramRequestHandler<?> handler = handlerOptional.get();
+            if (handler instanceof AsyncRequestHandler) {
+                Publisher<?> output = (Publisher<?>) handler.handle(botConfiguration, context);
+                return output != null ? Flowable.fromPublisher(output) : Flowable.empty();
             }
+            return Maybe.fromCallable(() -> handler.handle(botConfiguration, context))
+                    .subscribeOn(scheduler)
+                    .toFlowable();
+        });
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param update Update
+     * @return A context which parses the update at most once
+     */
+    @NonNull
+    public RequestContext<Update> createContext(@NonNull TelegramBotConfiguration botConfiguration,
+                                                @NonNull Update update) {
+        return new DefaultRequestContext<>(botConfiguration, update, spaceParser, userParser, textParser);
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update being dispatched
+     * @return The first handler, in order, which can handle the update
+     */
+    @NonNull
+    protected Optional<TelegramRequestHandler<?>> findHandler(@NonNull TelegramBotConfiguration botConfiguration,
+                                                              @NonNull RequestContext<Update> context) {
+        int updateMask = context instanceof TelegramRequestContext ?
+                ((TelegramRequestContext) context).getUpdateMask() :
+                UpdateType.classify(context.getInput());
+        if (updateMask == 0) {
+            updateMask = HandlerRoute.ALL_UPDATE_TYPES;
+        }
+        return route(context, updateMask).find(botConfiguration, context, updateMask);
+    }
+
+    /**
+     *
+     * @param context Context of the update being dispatched
+     * @param updateMask Mask of the kinds of the update
+     * @return Handlers which may handle the update, sorted by order.
+     */
+    @NonNull
+    private HandlerRoute route(@NonNull RequestContext<Update> context, int updateMask) {
+        if (!commandRoutes.isEmpty()) {
+            Optional<HandlerRoute> commandRoute = context.getCommand().map(commandRoutes::get);
+            if (commandRoute.isPresent()) {
+                return commandRoute.get();
+            }
+        }
+        if (callbackPrefixLengths.length > 0 && updateMask == UpdateType.CALLBACK_QUERY.getMask()) {
+            Optional<String> data = context.getText();
+            if (data.isPresent()) {
+                return routeCallback(data.get());
+            }
+        }
+        return fallbackRoute;
+    }
+
+    /**
+     *
+     * @param data Callback data
+     * @return Handlers registered for the longest prefix of the data merged with the fallback handlers
+     */
+    @NonNull
+    private HandlerRoute routeCallback(@NonNull String data) {
+        for (int length : callbackPrefixLengths) {
+            if (length <= data.length()) {
+                HandlerRoute route = callbackRoutes.get(data.substring(0, length));
+                if (route != null) {
+                    return route;
+                }
+            }
+        }
+        return fallbackRoute;
+    }
+
+    /**
+     * Builds, for every key, the ordered list of the handlers registered for that key merged with the fallback handlers.
+     * @param sortedHandlers Metadata of the handlers sorted by order
+     * @param keys Function returning the keys, commands or callback prefixes, a handler is registered for
+     * @return Routing table
+     */
+    @NonNull
+    private static Map<String, HandlerRoute> routeBy(@NonNull List<HandlerMetadata> sortedHandlers,
+                                                     @NonNull Function<HandlerMetadata, Collection<String>> keys) {
+        Map<String, List<HandlerMetadata>> routes = new LinkedHashMap<>();
+        for (HandlerMetadata handler : sortedHandlers) {
+            for (String key : keys.apply(handler)) {
+                routes.computeIfAbsent(key, k -> new ArrayList<>()).add(handler);
+            }
+        }
+        Map<String, HandlerRoute> result = new HashMap<>(routes.size());
+        for (Map.Entry<String, List<HandlerMetadata>> entry : routes.entrySet()) {
+            List<HandlerMetadata> keyHandlers = entry.getValue();
+            List<HandlerMetadata> route = sortedHandlers.stream()
+                    .filter(handler -> keyHandlers.contains(handler) || !handler.isRouted())
+                    .collect(Collectors.toList());
+            result.put(entry.getKey(), new HandlerRoute(route));
         }
-        return Optional.empty();
+        return result;
     }
 }
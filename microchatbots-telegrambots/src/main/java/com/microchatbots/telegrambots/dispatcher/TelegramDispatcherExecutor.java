@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.scheduling.BlockingExecutorFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link TelegramDispatcher} on several threads while keeping the updates of a chat in order.
+ * The chat of every update is hashed into one of a fixed number of lanes. Each lane is a bounded lock-free queue
+ * drained by at most one thread at a time, so updates of different chats are dispatched in parallel and updates of
+ * the same chat are dispatched in the order they were submitted.
+ */
+@Singleton
+public class TelegramDispatcherExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramDispatcherExecutor.class);
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private final TelegramDispatcher dispatcher;
+    private final ExecutorService executorService;
+    private final int queueCapacity;
+    private final Lane[] lanes;
+
+    /**
+     *
+     * @param dispatcher Telegram Dispatcher
+     * @param configuration Lanes configuration
+     * @param executorService Executor which drains the lanes
+     */
+    public TelegramDispatcherExecutor(TelegramDispatcher dispatcher,
+                                      TelegramDispatcherExecutorConfiguration configuration,
+                                      @Named(BlockingExecutorFactory.BLOCKING) ExecutorService executorService) {
+        this.dispatcher = dispatcher;
+        this.executorService = executorService;
+        this.queueCapacity = configuration.getQueueCapacity();
+        this.lanes = new Lane[configuration.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    /**
+     * Queues an update in the lane of its chat.
+     * @param botConfiguration Telegram's bot configuration
+     * @param update Update
+     * @return A future completed with the dispatcher's response once the update has been dispatched. It is completed
+     * exceptionally with a {@link RejectedExecutionException} if the lane is full or if the executor rejects the lane.
+     */
+    @NonNull
+    public CompletableFuture<Optional<?>> submit(@NonNull @NotNull @Valid TelegramBotConfiguration botConfiguration,
+                                                 @NonNull @NotNull @Valid Update update) {
+        RequestContext<Update> context = dispatcher.createContext(botConfiguration, update);
+        Lane lane = lanes[laneIndex(context.getSpaceUniqueIdentifier().orElse(update.getUpdateId()))];
+        Task task = new Task(botConfiguration, context);
+        if (!lane.offer(task)) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("lane {} is full, rejecting update {}", lane.index, update.getUpdateId());
+            }
+            task.future.completeExceptionally(new RejectedExecutionException("lane " + lane.index + " is full"));
+            return task.future;
+        }
+        lane.schedule();
+        return task.future;
+    }
+
+    /**
+     *
+     * @return Number of updates waiting in every lane
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.depth.get();
+        }
+        return depth;
+    }
+
+    /**
+     *
+     * @return A snapshot of the metrics of every lane
+     */
+    @NonNull
+    public List<LaneMetrics> getMetrics() {
+        List<LaneMetrics> metrics = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            metrics.add(lane.metrics());
+        }
+        return metrics;
+    }
+
+    /**
+     *
+     * @param key Chat unique identifier
+     * @return The index of the lane of the chat
+     */
+    protected int laneIndex(@NonNull Serializable key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    /**
+     * An update waiting in a lane.
+     */
+    private static final class Task {
+        private final TelegramBotConfiguration botConfiguration;
+        private final RequestContext<Update> context;
+        private final long submittedAt = System.nanoTime();
+        private final CompletableFuture<Optional<?>> future = new CompletableFuture<>();
+
+        private Task(TelegramBotConfiguration botConfiguration, RequestContext<Update> context) {
+            this.botConfiguration = botConfiguration;
+            this.context = context;
+        }
+    }
+
+    /**
+     * A bounded queue of updates drained by at most one thread at a time.
+     */
+    private final class Lane implements Runnable {
+        private final int index;
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private Lane(int index) {
+            this.index = index;
+        }
+
+        private boolean offer(Task task) {
+            if (depth.incrementAndGet() > queueCapacity) {
+                depth.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            queue.offer(task);
+            return true;
+        }
+
+        private void schedule() {
+            while (scheduled.compareAndSet(false, true)) {
+                try {
+                    executorService.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    reject(e);
+                    scheduled.set(false);
+                    if (queue.isEmpty()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void reject(RejectedExecutionException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("executor rejected lane {}, failing its {} queued updates", index, depth.get());
+            }
+            for (Task task = queue.poll(); task != null; task = queue.poll()) {
+                depth.decrementAndGet();
+                rejected.increment();
+                task.future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int drained = 0; drained < DRAIN_BATCH_SIZE; drained++) {
+                Task task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                depth.decrementAndGet();
+                execute(task);
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void execute(Task task) {
+            try {
+                task.future.complete(dispatcher.dispatch(task.botConfiguration, task.context));
+            } catch (Exception e) {
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("error dispatching update in lane " + index, e);
+                }
+                task.future.completeExceptionally(e);
+            } finally {
+                long latency = System.nanoTime() - task.submittedAt;
+                processed.increment();
+                latencyNanos.add(latency);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        }
+
+        private LaneMetrics metrics() {
+            long count = processed.sum();
+            return new LaneMetrics(index,
+                    depth.get(),
+                    count,
+                    rejected.sum(),
+                    Duration.ofNanos(count == 0 ? 0 : latencyNanos.sum() / count),
+                    Duration.ofNanos(maxLatencyNanos.get()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+/**
+ * Configuration of {@link TelegramDispatcherExecutor}.
+ */
+public interface TelegramDispatcherExecutorConfiguration {
+
+    /**
+     *
+     * @return Number of lanes updates are distributed to. Updates of the same chat always use the same lane.
+     */
+    int getLanes();
+
+    /**
+     *
+     * @return Maximum number of updates waiting in a lane. Updates submitted to a full lane are rejected.
+     */
+    int getQueueCapacity();
+}
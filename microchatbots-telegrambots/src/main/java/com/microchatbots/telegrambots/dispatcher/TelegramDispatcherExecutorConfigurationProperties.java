@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+/**
+ * {@link ConfigurationProperties} for {@link TelegramDispatcherExecutor}.
+ */
+@ConfigurationProperties(TelegramDispatcherExecutorConfigurationProperties.PREFIX)
+public class TelegramDispatcherExecutorConfigurationProperties implements TelegramDispatcherExecutorConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".dispatcher";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    @Min(1)
+    private int lanes = Runtime.getRuntime().availableProcessors();
+
+    @Min(1)
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     *
+     * @return Number of lanes updates are distributed to. Defaults to the number of available processors.
+     */
+    @Override
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     *
+     * @param lanes Number of lanes updates are distributed to.
+     */
+    public void setLanes(int lanes) {
+        this.lanes = lanes;
+    }
+
+    /**
+     *
+     * @return Maximum number of updates waiting in a lane. Defaults to 1024.
+     */
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     *
+     * @param queueCapacity Maximum number of updates waiting in a lane.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.util.Toggleable;
+
+/**
+ * Configuration of {@link UpdateDeduplicator}.
+ */
+public interface UpdateDeduplicationConfiguration extends Toggleable {
+
+    /**
+     *
+     * @return Number of recent update ids remembered per bot.
+     */
+    int getWindowSize();
+
+    /**
+     *
+     * @return Directory where the window of every bot is memory-mapped so it survives restarts. Null to keep it on the heap.
+     */
+    @Nullable
+    String getDirectory();
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+/**
+ * {@link ConfigurationProperties} for {@link UpdateDeduplicator}.
+ */
+@ConfigurationProperties(UpdateDeduplicationConfigurationProperties.PREFIX)
+public class UpdateDeduplicationConfigurationProperties implements UpdateDeduplicationConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".deduplication";
+
+    public static final boolean DEFAULT_ENABLED = true;
+
+    private static final int DEFAULT_WINDOW_SIZE = 4096;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    @Min(1)
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    @Nullable
+    private String directory;
+
+    /**
+     *
+     * @return Whether redelivered updates are discarded. Defaults to true.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether redelivered updates are discarded.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     *
+     * @return Number of recent update ids remembered per bot. Defaults to 4096.
+     */
+    @Override
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     *
+     * @param windowSize Number of recent update ids remembered per bot.
+     */
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     *
+     * @return Directory where the window of every bot is memory-mapped. Defaults to none, windows are kept on the heap.
+     */
+    @Override
+    @Nullable
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     *
+     * @param directory Directory where the window of every bot is memory-mapped.
+     */
+    public void setDirectory(@Nullable String directory) {
+        this.directory = directory;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.parser.PartialUpdateRequestContext;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Discards updates redelivered by Telegram, for example when a webhook invocation timed out after the update was
+ * dispatched. It should be called before handing an update to the {@link TelegramDispatcher}; if the dispatch fails,
+ * the update must be forgotten, so that Telegram's redelivery is dispatched rather than discarded. Every bot has its own
+ * {@link UpdateIdWindow}, memory-mapped in {@link UpdateDeduplicationConfiguration#getDirectory()} when configured.
+ */
+@Singleton
+public class UpdateDeduplicator implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(UpdateDeduplicator.class);
+    private static final String FILE_SUFFIX = ".updates";
+
+    private final UpdateDeduplicationConfiguration configuration;
+    private final Map<String, UpdateIdWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param configuration De-duplication configuration
+     */
+    public UpdateDeduplicator(UpdateDeduplicationConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Records the update of a request context.
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update about to be dispatched
+     * @return true if the update was already seen by the bot and should not be dispatched again
+     */
+    public boolean isDuplicate(@NonNull TelegramBotConfiguration botConfiguration,
+                               @NonNull RequestContext<Update> context) {
+        return isDuplicate(botConfiguration, updateId(context));
+    }
+
+    /**
+     * Records an update id.
+     * @param botConfiguration Telegram's bot configuration
+     * @param updateId Update id, updates without id are never considered duplicates
+     * @return true if the update was already seen by the bot and should not be dispatched again
+     */
+    public boolean isDuplicate(@NonNull TelegramBotConfiguration botConfiguration, @Nullable Integer updateId) {
+        if (!configuration.isEnabled() || updateId == null) {
+            return false;
+        }
+        boolean duplicate = !windows.computeIfAbsent(botConfiguration.getName(), this::createWindow).markSeen(updateId);
+        if (duplicate && LOG.isInfoEnabled()) {
+            LOG.info("discarding update {} redelivered to bot {}", updateId, botConfiguration.getName());
+        }
+        return duplicate;
+    }
+
+    /**
+     * Forgets the update of a request context whose dispatch failed.
+     * @param botConfiguration Telegram's bot configuration
+     * @param context Context of the update which could not be dispatched
+     */
+    public void forget(@NonNull TelegramBotConfiguration botConfiguration,
+                       @NonNull RequestContext<Update> context) {
+        forget(botConfiguration, updateId(context));
+    }
+
+    /**
+     * Forgets an update id whose dispatch failed, so that its redelivery is not considered a duplicate.
+     * @param botConfiguration Telegram's bot configuration
+     * @param updateId Update id
+     */
+    public void forget(@NonNull TelegramBotConfiguration botConfiguration, @Nullable Integer updateId) {
+        if (!configuration.isEnabled() || updateId == null) {
+            return;
+        }
+        UpdateIdWindow window = windows.get(botConfiguration.getName());
+        if (window != null) {
+            window.forget(updateId);
+        }
+    }
+
+    /**
+     * Flushes the memory-mapped windows.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        windows.values().forEach(UpdateIdWindow::close);
+    }
+
+    @Nullable
+    private static Integer updateId(@NonNull RequestContext<Update> context) {
+        return context instanceof PartialUpdateRequestContext ?
+                ((PartialUpdateRequestContext) context).getPartialUpdate().getUpdateId().orElse(null) :
+                context.getInput().getUpdateId();
+    }
+
+    @NonNull
+    private UpdateIdWindow createWindow(@NonNull String botName) {
+        String directory = configuration.getDirectory();
+        if (directory != null) {
+            Path file = Paths.get(directory, botName + FILE_SUFFIX);
+            try {
+                Files.createDirectories(file.getParent());
+                return UpdateIdWindow.mapped(file, configuration.getWindowSize());
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("could not map update window file " + file + ", keeping it in memory", e);
+                }
+            }
+        }
+        return UpdateIdWindow.inMemory(configuration.getWindowSize());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sliding window over the most recent update ids of a bot, used to detect updates redelivered by Telegram.
+ * The window is a bitset of primitive longs indexed by {@code update_id} modulo its size; the highest id seen is stored
+ * next to it. The bitset lives either on the heap or in a memory-mapped file, so it survives process restarts.
+ * Ids older than the window are considered new: Telegram restarts the update sequence from a random number after a week
+ * without updates.
+ */
+public final class UpdateIdWindow implements Closeable {
+    private static final int WINDOW_BITS_INDEX = 0;
+    private static final int HIGHEST_INDEX = 1;
+    private static final int HEADER_WORDS = 2;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final LongBuffer words;
+    private final MappedByteBuffer mappedBuffer;
+    private final long windowBits;
+    private final long mask;
+
+    private UpdateIdWindow(@NonNull LongBuffer words, MappedByteBuffer mappedBuffer, long windowBits) {
+        this.words = words;
+        this.mappedBuffer = mappedBuffer;
+        this.windowBits = windowBits;
+        this.mask = windowBits - 1;
+        if (words.get(WINDOW_BITS_INDEX) != windowBits) {
+            words.put(WINDOW_BITS_INDEX, windowBits);
+            words.put(HIGHEST_INDEX, EMPTY);
+            clear();
+        }
+    }
+
+    /**
+     *
+     * @param windowSize Number of update ids remembered, rounded up to a power of two of at least 64
+     * @return A window kept on the heap
+     */
+    @NonNull
+    public static UpdateIdWindow inMemory(int windowSize) {
+        long windowBits = windowBits(windowSize);
+        return new UpdateIdWindow(LongBuffer.allocate(words(windowBits)), null, windowBits);
+    }
+
+    /**
+     * Opens a window backed by a memory-mapped file, which is created if it does not exist. A file written with a
+     * different window size is reset.
+     * @param file File backing the window
+     * @param windowSize Number of update ids remembered, rounded up to a power of two of at least 64
+     * @return A window backed by the file
+     * @throws IOException if the file cannot be mapped
+     */
+    @NonNull
+    public static UpdateIdWindow mapped(@NonNull Path file, int windowSize) throws IOException {
+        long windowBits = windowBits(windowSize);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) words(windowBits) * Long.BYTES);
+            return new UpdateIdWindow(buffer.asLongBuffer(), buffer, windowBits);
+        }
+    }
+
+    /**
+     * Records an update id.
+     * @param updateId Update id
+     * @return true if the update id was not seen before, false if it is a redelivery
+     */
+    public synchronized boolean markSeen(long updateId) {
+        long highest = words.get(HIGHEST_INDEX);
+        if (highest == EMPTY || updateId - highest >= windowBits || highest - updateId >= windowBits) {
+            clear();
+        } else if (updateId > highest) {
+            for (long id = highest + 1; id < updateId; id++) {
+                clearBit(id);
+            }
+        } else if (isSet(updateId)) {
+            return false;
+        }
+        setBit(updateId);
+        if (highest == EMPTY || updateId > highest || highest - updateId >= windowBits) {
+            words.put(HIGHEST_INDEX, updateId);
+        }
+        return true;
+    }
+
+    /**
+     * Forgets an update id recorded with {@link #markSeen(long)}, so that its next delivery is considered new.
+     * @param updateId Update id
+     */
+    public synchronized void forget(long updateId) {
+        long highest = words.get(HIGHEST_INDEX);
+        if (highest != EMPTY && updateId <= highest && highest - updateId < windowBits) {
+            clearBit(updateId);
+        }
+    }
+
+    /**
+     *
+     * @return Number of update ids remembered
+     */
+    public long getWindowSize() {
+        return windowBits;
+    }
+
+    /**
+     * Flushes the window to its file, if it is memory-mapped.
+     */
+    @Override
+    public synchronized void close() {
+        if (mappedBuffer != null) {
+            mappedBuffer.force();
+        }
+    }
+
+    private void clear() {
+        for (int i = HEADER_WORDS; i < words.capacity(); i++) {
+            words.put(i, 0L);
+        }
+    }
+
+    private boolean isSet(long updateId) {
+        long bit = updateId & mask;
+        return (words.get(wordIndex(bit)) & (1L << bit)) != 0;
+    }
+
+    private void setBit(long updateId) {
+        long bit = updateId & mask;
+        int index = wordIndex(bit);
+        words.put(index, words.get(index) | (1L << bit));
+    }
+
+    private void clearBit(long updateId) {
+        long bit = updateId & mask;
+        int index = wordIndex(bit);
+        words.put(index, words.get(index) & ~(1L << bit));
+    }
+
+    private static int wordIndex(long bit) {
+        return HEADER_WORDS + (int) (bit >>> 6);
+    }
+
+    private static long windowBits(int windowSize) {
+        long bits = Long.SIZE;
+        while (bits < windowSize) {
+            bits <<= 1;
+        }
+        return bits;
+    }
+
+    private static int words(long windowBits) {
+        return HEADER_WORDS + (int) (windowBits / Long.SIZE);
+    }
+}
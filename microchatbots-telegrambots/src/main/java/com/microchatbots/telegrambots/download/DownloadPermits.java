@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.reactivex.CompletableEmitter;
+import io.reactivex.CompletableOnSubscribe;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Download permits of a bot. A download waiting for a permit holds no thread: it is queued and granted the permit,
+ * in order, by the download releasing it.
+ */
+final class DownloadPermits {
+    private final Queue<Permit> waiting = new ArrayDeque<>();
+    private int available;
+
+    /**
+     *
+     * @param permits Maximum number of downloads at the same time
+     */
+    DownloadPermits(int permits) {
+        this.available = permits;
+    }
+
+    /**
+     *
+     * @return A permit, which completes once granted when subscribed to with {@code Completable.create}
+     */
+    @NonNull
+    Permit newPermit() {
+        return new Permit();
+    }
+
+    private boolean acquire(@NonNull Permit permit) {
+        synchronized (this) {
+            if (available == 0) {
+                waiting.add(permit);
+                return false;
+            }
+            available--;
+        }
+        return true;
+    }
+
+    private void release() {
+        Permit next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        next.grant();
+    }
+
+    private synchronized boolean remove(@NonNull Permit permit) {
+        return waiting.remove(permit);
+    }
+
+    /**
+     * A permit requested by a download, to {@link #close()} once the download is over, whether it was granted or not.
+     */
+    final class Permit implements CompletableOnSubscribe {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CLOSED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile CompletableEmitter emitter;
+
+        private Permit() {
+        }
+
+        @Override
+        public void subscribe(@NonNull CompletableEmitter emitter) {
+            this.emitter = emitter;
+            if (acquire(this)) {
+                grant();
+            }
+        }
+
+        /**
+         * Gives the permit back, or stops waiting for it.
+         */
+        void close() {
+            int previous = state.getAndSet(CLOSED);
+            if (previous == GRANTED) {
+                release();
+            } else if (previous == WAITING) {
+                remove(this);
+            }
+        }
+
+        private void grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                emitter.onComplete();
+            } else {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of a download, written chunk by chunk as the file is received. A download resumes from
+ * {@link #position()}, which lets an interrupted download carry on where it stopped. The sink is closed once the
+ * download completes, fails or is cancelled.
+ */
+public interface DownloadSink extends Closeable {
+
+    /**
+     *
+     * @return Number of bytes of the file the sink already holds
+     * @throws IOException if the sink cannot be read
+     */
+    long position() throws IOException;
+
+    /**
+     * Writes the next chunk of the file. The buffer is only valid until this method returns.
+     * @param buffer Chunk of the file
+     * @throws IOException if the chunk cannot be written
+     */
+    void write(@NonNull ByteBuffer buffer) throws IOException;
+
+    /**
+     * Discards the bytes the sink holds, called when the server sends the whole file instead of the requested range.
+     * @throws IOException if the sink cannot be truncated
+     */
+    void restart() throws IOException;
+
+    /**
+     * The file is created if it does not exist. A partial file left by a previous download is resumed.
+     * @param file File to download to
+     * @return A sink writing to a file
+     * @throws IOException if the file cannot be opened
+     */
+    @NonNull
+    static DownloadSink of(@NonNull Path file) throws IOException {
+        return of(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * The download resumes from the size of the channel and the channel is closed with the sink.
+     * @param channel Channel to download to
+     * @return A sink writing to a channel
+     * @throws IOException if the channel cannot be positioned at its end
+     */
+    @NonNull
+    static DownloadSink of(@NonNull FileChannel channel) throws IOException {
+        return new FileChannelSink(channel);
+    }
+}
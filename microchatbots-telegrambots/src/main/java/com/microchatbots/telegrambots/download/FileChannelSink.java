@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@link DownloadSink} appending to a {@link FileChannel}.
+ */
+final class FileChannelSink implements DownloadSink {
+    private final FileChannel channel;
+
+    /**
+     *
+     * @param channel Channel to download to
+     * @throws IOException if the channel cannot be positioned at its end
+     */
+    FileChannelSink(@NonNull FileChannel channel) throws IOException {
+        this.channel = channel;
+        channel.position(channel.size());
+    }
+
+    @Override
+    public long position() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void write(@NonNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void restart() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
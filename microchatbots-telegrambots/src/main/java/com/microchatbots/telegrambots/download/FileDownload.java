@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import com.microchatbots.telegrambots.core.File;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Outcome of a download by the {@link TelegramFileDownloader}.
+ */
+public class FileDownload {
+    private final File file;
+    private final long offset;
+    private final long length;
+
+    /**
+     *
+     * @param file File downloaded
+     * @param offset Bytes the sink already held, which were not downloaded again
+     * @param length Bytes the sink holds once the download completed
+     */
+    public FileDownload(@NonNull File file, long offset, long length) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     *
+     * @return File downloaded
+     */
+    @NonNull
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     *
+     * @return Bytes the sink already held, which were not downloaded again
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     *
+     * @return Bytes the sink holds once the download completed
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     *
+     * @return Bytes received by this download
+     */
+    public long getDownloaded() {
+        return length - offset;
+    }
+
+    /**
+     *
+     * @return Whether the download carried on from bytes the sink already held
+     */
+    public boolean isResumed() {
+        return offset > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FileDownload{" +
+                "file=" + file +
+                ", offset=" + offset +
+                ", length=" + length +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+/**
+ * {@link ConfigurationProperties} for {@link TelegramFileDownloader}.
+ */
+@ConfigurationProperties(FileDownloadConfigurationProperties.PREFIX)
+public class FileDownloadConfigurationProperties implements FileDownloadConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".downloads";
+
+    private static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 4;
+
+    private static final int DEFAULT_BUFFERED_CHUNKS = 16;
+
+    @Min(1)
+    private int maxConcurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
+
+    @Min(1)
+    private int bufferedChunks = DEFAULT_BUFFERED_CHUNKS;
+
+    /**
+     *
+     * @return Maximum number of files a bot downloads at the same time. Defaults to 4.
+     */
+    @Override
+    public int getMaxConcurrentDownloads() {
+        return maxConcurrentDownloads;
+    }
+
+    /**
+     *
+     * @param maxConcurrentDownloads Maximum number of files a bot downloads at the same time.
+     */
+    public void setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+    }
+
+    /**
+     *
+     * @return Maximum number of received chunks of a download waiting to be written. Defaults to 16.
+     */
+    @Override
+    public int getBufferedChunks() {
+        return bufferedChunks;
+    }
+
+    /**
+     *
+     * @param bufferedChunks Maximum number of received chunks of a download waiting to be written.
+     */
+    public void setBufferedChunks(int bufferedChunks) {
+        this.bufferedChunks = bufferedChunks;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download;
+
+import com.microchatbots.telegrambots.api.TelegramBotClientConfiguration;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.File;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
+import io.micronaut.core.io.buffer.ReferenceCounted;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.StreamingHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriBuilder;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Downloads the files returned by {@code getFile} from {@code /file/bot<token>/<file_path>}. The body is streamed into
+ * a {@link DownloadSink} as it is received, at most {@link FileDownloadConfiguration#getBufferedChunks()} chunks wait to
+ * be written, so a file is never held in memory. A download carries on from the bytes the sink already holds with a
+ * {@code Range} request, and every bot downloads at most {@link FileDownloadConfiguration#getMaxConcurrentDownloads()}
+ * files at the same time, the others are queued for their turn without holding a thread. Chunks received but not yet
+ * written when a download is cancelled or fails are released.
+ * The file_path of a file is valid for at least one hour, call {@code getFile} again to resume a download later.
+ */
+@Singleton
+public class TelegramFileDownloader {
+    public static final String FILE_PATH = "/file/bot";
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramFileDownloader.class);
+    private static final String RANGE_PREFIX = "bytes=";
+
+    private final StreamingHttpClient httpClient;
+    private final FileDownloadConfiguration configuration;
+    private final Map<String, DownloadPermits> permits = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param httpClient HTTP client pointed to Telegram's API
+     * @param configuration Download configuration
+     */
+    public TelegramFileDownloader(@Client(value = "${" + TelegramBotClientConfiguration.PREFIX + ".url:`" + TelegramBotClientConfiguration.TELEGRAM_API + "`}",
+                                          configuration = TelegramBotClientConfiguration.class) StreamingHttpClient httpClient,
+                                  FileDownloadConfiguration configuration) {
+        this.httpClient = httpClient;
+        this.configuration = configuration;
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param file File returned by {@code getFile}
+     * @param path File to download to, a partial file left by a previous download is resumed
+     * @return The download, once completed
+     */
+    @NonNull
+    public Publisher<FileDownload> download(@NonNull TelegramBotConfiguration botConfiguration,
+                                            @NonNull File file,
+                                            @NonNull Path path) {
+        return download(botConfiguration, file, () -> DownloadSink.of(path));
+    }
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param file File returned by {@code getFile}
+     * @param sink Destination of the file, closed once the download is over
+     * @return The download, once completed
+     */
+    @NonNull
+    public Publisher<FileDownload> download(@NonNull TelegramBotConfiguration botConfiguration,
+                                            @NonNull File file,
+                                            @NonNull DownloadSink sink) {
+        return download(botConfiguration, file, () -> sink);
+    }
+
+    @NonNull
+    private Flowable<FileDownload> download(@NonNull TelegramBotConfiguration botConfiguration,
+                                            @NonNull File file,
+                                            @NonNull Callable<DownloadSink> sinkSupplier) {
+        if (file.getFilePath() == null) {
+            return Flowable.error(new IllegalArgumentException("file " + file.getFileId() + " has no file_path, call getFile first"));
+        }
+        DownloadPermits botPermits = permits.computeIfAbsent(botConfiguration.getName(),
+                botName -> new DownloadPermits(configuration.getMaxConcurrentDownloads()));
+        return Flowable.defer(() -> {
+            DownloadPermits.Permit permit = botPermits.newPermit();
+            return Completable.create(permit)
+                    .observeOn(Schedulers.io())
+                    .andThen(Flowable.using(sinkSupplier,
+                            sink -> transfer(botConfiguration.getToken(), file, sink),
+                            DownloadSink::close))
+                    .doFinally(permit::close);
+        });
+    }
+
+    @NonNull
+    private Flowable<FileDownload> transfer(@NonNull String token,
+                                            @NonNull File file,
+                                            @NonNull DownloadSink sink) throws IOException {
+        long offset = sink.position();
+        if (file.getFileSize() != null && offset >= file.getFileSize()) {
+            return Flowable.just(new FileDownload(file, offset, offset));
+        }
+        MutableHttpRequest<?> request = HttpRequest.GET(uri(token, file.getFilePath()));
+        if (offset > 0) {
+            request.header(HttpHeaders.RANGE, RANGE_PREFIX + offset + "-");
+        }
+        Progress progress = new Progress(offset);
+        PendingChunks pendingChunks = new PendingChunks();
+        return Flowable.fromPublisher(httpClient.exchangeStream(request))
+                .doOnNext(pendingChunks::add)
+                .observeOn(Schedulers.io(), false, configuration.getBufferedChunks())
+                .doOnNext(chunk -> write(file, pendingChunks.poll(), sink, progress))
+                .doFinally(pendingChunks::clear)
+                .ignoreElements()
+                .andThen(Single.fromCallable(() -> new FileDownload(file, progress.offset, progress.offset + progress.written)))
+                .toFlowable()
+                .onErrorResumeNext((Throwable e) -> {
+                    if (e instanceof HttpClientResponseException &&
+                            ((HttpClientResponseException) e).getStatus() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+                        return Flowable.just(new FileDownload(file, offset, offset));
+                    }
+                    return Flowable.error(e);
+                });
+    }
+
+    private static void write(@NonNull File file,
+                              @Nullable HttpResponse<ByteBuffer<?>> chunk,
+                              @NonNull DownloadSink sink,
+                              @NonNull Progress progress) throws IOException {
+        if (chunk == null) {
+            return;
+        }
+        ByteBuffer<?> body = chunk.body();
+        try {
+            if (!progress.started) {
+                progress.started = true;
+                if (progress.offset > 0 && chunk.getStatus() != HttpStatus.PARTIAL_CONTENT) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("range of {} ignored, downloading it from the start", file.getFileId());
+                    }
+                    sink.restart();
+                    progress.offset = 0;
+                }
+            }
+            if (body != null) {
+                java.nio.ByteBuffer buffer = body.asNioBuffer();
+                progress.written += buffer.remaining();
+                sink.write(buffer);
+            }
+        } finally {
+            release(chunk);
+        }
+    }
+
+    private static void release(@NonNull HttpResponse<ByteBuffer<?>> chunk) {
+        ByteBuffer<?> body = chunk.body();
+        if (body instanceof ReferenceCounted) {
+            ((ReferenceCounted) body).release();
+        }
+    }
+
+    @NonNull
+    private static URI uri(@NonNull String token, @NonNull String filePath) {
+        return UriBuilder.of(FILE_PATH + token).path(filePath).build();
+    }
+
+    /**
+     * Bytes written by a download.
+     */
+    private static final class Progress {
+        private long offset;
+        private long written;
+        private boolean started;
+
+        private Progress(long offset) {
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Chunks of a download received but not written yet. A chunk is released by whoever takes it out: the writer, or
+     * {@link #clear()} when the download is cancelled or fails with chunks still buffered.
+     */
+    private static final class PendingChunks {
+        private final Queue<HttpResponse<ByteBuffer<?>>> chunks = new ArrayDeque<>();
+        private boolean cleared;
+
+        private void add(@NonNull HttpResponse<ByteBuffer<?>> chunk) {
+            synchronized (this) {
+                if (!cleared) {
+                    chunks.add(chunk);
+                    return;
+                }
+            }
+            release(chunk);
+        }
+
+        @Nullable
+        private synchronized HttpResponse<ByteBuffer<?>> poll() {
+            return chunks.poll();
+        }
+
+        private void clear() {
+            List<HttpResponse<ByteBuffer<?>>> released;
+            synchronized (this) {
+                cleared = true;
+                released = new ArrayList<>(chunks);
+                chunks.clear();
+            }
+            released.forEach(TelegramFileDownloader::release);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.microchatbots.telegrambots.handler;
 
 import com.microchatbots.core.parser.SpaceParser;
 import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.request.RequestContext;
 import com.microchatbots.core.request.handler.CommandHandler;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.Update;
@@ -42,4 +43,12 @@ public abstract class SendMessageCommandHandler extends CommandHandler<TelegramB
         sendMessage.setText(getText(telegramBotConfiguration, update));
         return sendMessage;
     }
+
+    @Override
+    public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        SendMessage sendMessage = new SendMessage();
+        context.getSpaceUniqueIdentifier().ifPresent(serializable -> sendMessage.setChatId(serializable.toString()));
+        sendMessage.setText(getText(telegramBotConfiguration, context.getInput()));
+        return sendMessage;
+    }
 }
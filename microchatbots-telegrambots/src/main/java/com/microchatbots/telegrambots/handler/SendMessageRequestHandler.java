@@ -17,6 +17,7 @@ package com.microchatbots.telegrambots.handler;
 
 import com.microchatbots.core.parser.SpaceParser;
 import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.request.RequestContext;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.SendMessage;
@@ -44,5 +45,13 @@ public abstract class SendMessageRequestHandler implements TelegramRequestHandle
         return sendMessage;
     }
 
+    @Override
+    public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        SendMessage sendMessage = new SendMessage();
+        context.getSpaceUniqueIdentifier().ifPresent(serializable -> sendMessage.setChatId(serializable.toString()));
+        context.getTextWithoutBotName().flatMap(this::getResponse).ifPresent(sendMessage::setText);
+        return sendMessage;
+    }
+
     public abstract Optional<String> getResponse(String text);
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.handler;
+
+import com.microchatbots.core.request.handler.AsyncRequestHandler;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import org.reactivestreams.Publisher;
+
+/**
+ * Request handlers which handle telegram {@link Update} requests asynchronously.
+ * @param <Output> type of the items emitted by the handler.
+ */
+public interface TelegramAsyncRequestHandler<Output> extends TelegramRequestHandler<Publisher<Output>>,
+        AsyncRequestHandler<TelegramBotConfiguration, Update, Output> {
+}
@@ -15,26 +15,35 @@
  */
 package com.microchatbots.telegrambots.handler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microchatbots.core.parser.SpaceParser;
 import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.core.request.handler.CommandRequestHandler;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.BotCommand;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.send.ParseMode;
 import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SerializedSendMessage;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.io.ResourceLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMessage> {
+public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMessage>,
+        CommandRequestHandler<TelegramBotConfiguration, Update, SendMessage> {
     public static final String CLASSPATH = "classpath:";
     public static final String MARKDOWN_EXTENSION = ".md";
 
@@ -42,11 +51,28 @@ public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMe
     private final TextParser<Update> textParser;
     private final SpaceParser<Update> spaceParser;
     private final Map<String, String> markdown = new ConcurrentHashMap<>();
+    private final Map<String, String> serializedFields = new ConcurrentHashMap<>();
 
     public TelegramBotCommandsHandler(TelegramBotConfiguration telegramBotConfiguration,
                                       ResourceLoader resourceLoader,
                                       SpaceParser<Update> spaceParser,
                                       TextParser<Update> textParser) {
+        this(telegramBotConfiguration, resourceLoader, spaceParser, textParser, null);
+    }
+
+    /**
+     *
+     * @param telegramBotConfiguration Telegram's bot configuration
+     * @param resourceLoader Resource loader
+     * @param spaceParser Space Parser
+     * @param textParser Text parser
+     * @param objectMapper Object Mapper used to serialize every response once. If null, responses are not pre-serialized.
+     */
+    public TelegramBotCommandsHandler(TelegramBotConfiguration telegramBotConfiguration,
+                                      ResourceLoader resourceLoader,
+                                      SpaceParser<Update> spaceParser,
+                                      TextParser<Update> textParser,
+                                      @Nullable ObjectMapper objectMapper) {
         for (BotCommand botCommand : telegramBotConfiguration.getBotCommands()) {
             Optional<InputStream> inputStreamOptional = resourceLoader.getResourceAsStream(CLASSPATH + botCommand.getCommand() + MARKDOWN_EXTENSION);
             if (inputStreamOptional.isPresent()) {
@@ -61,6 +87,18 @@ public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMe
         }
         this.spaceParser = spaceParser;
         this.textParser = textParser;
+        if (objectMapper != null) {
+            for (Map.Entry<String, String> entry : markdown.entrySet()) {
+                SendMessage sendMessage = new SendMessage();
+                sendMessage.setParseMode(ParseMode.MARKDOWN.toString());
+                sendMessage.setText(entry.getValue());
+                try {
+                    serializedFields.put(entry.getKey(), SerializedSendMessage.serializedFields(objectMapper.writeValueAsString(sendMessage)));
+                } catch (JsonProcessingException e) {
+                    LOG.warn("JSON Processing Exception serializing the response to the command {}", entry.getKey(), e);
+                }
+            }
+        }
     }
 
     /**
@@ -74,6 +112,15 @@ public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMe
                 .collect(Collectors.joining("\n"));
     }
 
+    /**
+     *
+     * @return Commands with a markdown response
+     */
+    @Override
+    public Collection<String> getCommands() {
+        return Collections.unmodifiableSet(markdown.keySet());
+    }
+
     @Override
     public boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
         if (!spaceParser.parseSpaceUniqueIdentifier(telegramBotConfiguration, update).isPresent()) {
@@ -87,16 +134,44 @@ public class TelegramBotCommandsHandler implements TelegramRequestHandler<SendMe
         return markdown.containsKey(command);
     }
 
+    @Override
+    public boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        if (!context.getSpaceUniqueIdentifier().isPresent()) {
+            return false;
+        }
+        Optional<String> commandOptional = context.getCommand();
+        return commandOptional.isPresent() && markdown.containsKey(commandOptional.get());
+    }
+
     @Override
     public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
-        SendMessage sendMessage = new SendMessage();
+        SendMessage sendMessage = createSendMessage(textParser.parserCommand(telegramBotConfiguration, update).orElse(null));
         Optional<Serializable> chatId = spaceParser.parseSpaceUniqueIdentifier(telegramBotConfiguration, update);
         chatId.ifPresent(serializable -> sendMessage.setChatId(serializable.toString()));
-        sendMessage.setParseMode(ParseMode.MARKDOWN.toString());
+        return sendMessage;
+    }
 
-        Optional<String> commandOptional = textParser.parserCommand(telegramBotConfiguration, update);
-        if (commandOptional.isPresent()) {
-            String command = commandOptional.get();
+    @Override
+    public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        SendMessage sendMessage = createSendMessage(context.getCommand().orElse(null));
+        context.getSpaceUniqueIdentifier().ifPresent(serializable -> sendMessage.setChatId(serializable.toString()));
+        return sendMessage;
+    }
+
+    /**
+     *
+     * @param command Command
+     * @return A message, without chat id, with the markdown response to the command. Pre-serialized if the response was serialized at startup.
+     */
+    @NonNull
+    protected SendMessage createSendMessage(@Nullable String command) {
+        String fields = command != null ? serializedFields.get(command) : null;
+        if (fields != null) {
+            return new SerializedSendMessage(markdown.get(command), ParseMode.MARKDOWN.toString(), fields);
+        }
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setParseMode(ParseMode.MARKDOWN.toString());
+        if (command != null && markdown.containsKey(command)) {
             sendMessage.setText(markdown.get(command));
         }
         return sendMessage;
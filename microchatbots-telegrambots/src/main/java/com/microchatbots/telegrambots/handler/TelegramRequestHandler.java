@@ -18,6 +18,11 @@ package com.microchatbots.telegrambots.handler;
 import com.microchatbots.core.request.handler.GenericRequestHandler;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.UpdateType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Request handlers are responsible for handling telegram {@link Update} requests.
@@ -25,5 +30,12 @@ import com.microchatbots.telegrambots.core.Update;
  */
 public interface TelegramRequestHandler<Output> extends GenericRequestHandler<TelegramBotConfiguration, Update, Output> {
 
-
+    /**
+     * The dispatcher does not ask the handler about updates of other kinds. Evaluated once, when the dispatcher is created.
+     * @return The kinds of update this handler accepts. Every kind by default.
+     */
+    @NonNull
+    default Set<UpdateType> getUpdateTypes() {
+        return EnumSet.allOf(UpdateType.class);
+    }
 }
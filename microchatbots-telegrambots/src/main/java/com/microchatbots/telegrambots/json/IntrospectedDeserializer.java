@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deserializes a bean through its compile-time {@link BeanIntrospection}: the bean is instantiated and its properties are
+ * set without reflection. Property values are read with the deserializers Jackson resolves for their types.
+ * @param <T> Bean type
+ */
+final class IntrospectedDeserializer<T> extends StdDeserializer<T> implements ResolvableDeserializer {
+    private final BeanIntrospection<T> introspection;
+    private final Map<String, IntrospectedJsonProperty<T>> properties = new HashMap<>();
+    private final Map<String, JsonDeserializer<Object>> deserializers = new HashMap<>();
+
+    /**
+     *
+     * @param introspection Bean introspection
+     */
+    IntrospectedDeserializer(@NonNull BeanIntrospection<T> introspection) {
+        super(introspection.getBeanType());
+        this.introspection = introspection;
+        TypeFactory typeFactory = TypeFactory.defaultInstance();
+        for (BeanProperty<T, Object> beanProperty : introspection.getBeanProperties()) {
+            if (!beanProperty.isReadOnly()) {
+                IntrospectedJsonProperty<T> property = new IntrospectedJsonProperty<>(introspection, beanProperty, typeFactory);
+                properties.put(property.getName(), property);
+            }
+        }
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        for (IntrospectedJsonProperty<T> property : properties.values()) {
+            deserializers.put(property.getName(), ctxt.findContextualValueDeserializer(property.getType(), null));
+        }
+    }
+
+    @Override
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return deserialize(p, ctxt, introspection.instantiate());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(JsonParser p, DeserializationContext ctxt, T bean) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.getCurrentName();
+            JsonToken valueToken = p.nextToken();
+            IntrospectedJsonProperty<T> property = properties.get(name);
+            if (property == null) {
+                handleUnknownProperty(p, ctxt, bean, name);
+                continue;
+            }
+            JsonDeserializer<Object> deserializer = deserializers.get(name);
+            Object value = valueToken == JsonToken.VALUE_NULL ?
+                    deserializer.getNullValue(ctxt) :
+                    deserializer.deserialize(p, ctxt);
+            property.getBeanProperty().set(bean, value);
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (T) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        return bean;
+    }
+}
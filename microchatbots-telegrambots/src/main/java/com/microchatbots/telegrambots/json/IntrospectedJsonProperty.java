@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.core.type.Argument;
+
+/**
+ * JSON view of a {@link BeanProperty} generated at compile time by Micronaut's bean introspection.
+ * @param <T> Bean type
+ */
+final class IntrospectedJsonProperty<T> {
+    private final BeanProperty<T, Object> beanProperty;
+    private final String name;
+    private final JavaType type;
+    private final JsonInclude.Include include;
+
+    /**
+     *
+     * @param introspection Bean introspection
+     * @param beanProperty Bean property
+     * @param typeFactory Type factory
+     */
+    IntrospectedJsonProperty(@NonNull BeanIntrospection<T> introspection,
+                             @NonNull BeanProperty<T, Object> beanProperty,
+                             @NonNull TypeFactory typeFactory) {
+        this.beanProperty = beanProperty;
+        this.name = beanProperty.stringValue(JsonProperty.class)
+                .filter(value -> !value.isEmpty())
+                .orElse(beanProperty.getName());
+        this.type = javaType(typeFactory, beanProperty.asArgument());
+        this.include = beanProperty.enumValue(JsonInclude.class, JsonInclude.Include.class)
+                .orElseGet(() -> introspection.enumValue(JsonInclude.class, JsonInclude.Include.class).orElse(null));
+    }
+
+    /**
+     *
+     * @return Bean property
+     */
+    @NonNull
+    BeanProperty<T, Object> getBeanProperty() {
+        return beanProperty;
+    }
+
+    /**
+     *
+     * @return JSON property name
+     */
+    @NonNull
+    String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return JSON type of the property
+     */
+    @NonNull
+    JavaType getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return Inclusion declared with {@link JsonInclude} on the property or the bean, null if none
+     */
+    @Nullable
+    JsonInclude.Include getInclude() {
+        return include;
+    }
+
+    @NonNull
+    private static JavaType javaType(@NonNull TypeFactory typeFactory, @NonNull Argument<?> argument) {
+        Argument<?>[] typeParameters = argument.getTypeParameters();
+        if (typeParameters.length == 0) {
+            return typeFactory.constructType(argument.getType());
+        }
+        JavaType[] parameterTypes = new JavaType[typeParameters.length];
+        for (int i = 0; i < typeParameters.length; i++) {
+            parameterTypes[i] = javaType(typeFactory, typeParameters[i]);
+        }
+        return typeFactory.constructParametricType(argument.getType(), parameterTypes);
+    }
+}
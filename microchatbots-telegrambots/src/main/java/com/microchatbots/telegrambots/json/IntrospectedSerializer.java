@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes a bean through its compile-time {@link BeanIntrospection}: property values are read without reflection and
+ * property names are pre-encoded once.
+ * @param <T> Bean type
+ */
+final class IntrospectedSerializer<T> extends StdSerializer<T> {
+    private final List<IntrospectedJsonProperty<T>> properties = new ArrayList<>();
+    private final List<SerializedString> names = new ArrayList<>();
+
+    /**
+     *
+     * @param introspection Bean introspection
+     */
+    IntrospectedSerializer(@NonNull BeanIntrospection<T> introspection) {
+        super(introspection.getBeanType());
+        TypeFactory typeFactory = TypeFactory.defaultInstance();
+        for (BeanProperty<T, Object> beanProperty : introspection.getBeanProperties()) {
+            if (!beanProperty.isWriteOnly()) {
+                IntrospectedJsonProperty<T> property = new IntrospectedJsonProperty<>(introspection, beanProperty, typeFactory);
+                properties.add(property);
+                names.add(new SerializedString(property.getName()));
+            }
+        }
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        JsonInclude.Include defaultInclude = provider.getConfig()
+                .getDefaultPropertyInclusion(handledType())
+                .getValueInclusion();
+        gen.writeStartObject(value);
+        for (int i = 0; i < properties.size(); i++) {
+            IntrospectedJsonProperty<T> property = properties.get(i);
+            Object propertyValue = property.getBeanProperty().get(value);
+            JsonInclude.Include include = property.getInclude() != null ? property.getInclude() : defaultInclude;
+            if (isExcluded(include, propertyValue)) {
+                continue;
+            }
+            gen.writeFieldName(names.get(i));
+            if (propertyValue == null) {
+                provider.defaultSerializeNull(gen);
+            } else {
+                provider.findTypedValueSerializer(propertyValue.getClass(), true, null)
+                        .serialize(propertyValue, gen, provider);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static boolean isExcluded(@Nullable JsonInclude.Include include, @Nullable Object value) {
+        if (value == null) {
+            return include != null && include != JsonInclude.Include.ALWAYS && include != JsonInclude.Include.USE_DEFAULTS;
+        }
+        if (include != JsonInclude.Include.NON_EMPTY) {
+            return false;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() == 0;
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).isEmpty();
+        }
+        return value.getClass().isArray() && Array.getLength(value) == 0;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.WebhookInfo;
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendChatAction;
+import com.microchatbots.telegrambots.core.send.SendContact;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendPoll;
+import com.microchatbots.telegrambots.core.send.SendVenue;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVideoNote;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.util.StringUtils;
+
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jackson module registering serializers and deserializers backed by the Micronaut bean introspections generated at
+ * compile time for the Telegram model, so the hot JSON paths do not build reflective bean (de)serializers.
+ * Micronaut registers every {@link com.fasterxml.jackson.databind.Module} bean in the application {@link com.fasterxml.jackson.databind.ObjectMapper}.
+ * Disable it with {@code telegram.introspected-json: false}.
+ *
+ * Deserializers are registered for the exact types, subclasses such as {@link com.microchatbots.telegrambots.core.lazy.LazyUpdate}
+ * keep using Jackson's bean deserializer.
+ */
+@Singleton
+@Requires(property = TelegramConfigurationProperties.PREFIX + ".introspected-json", notEquals = StringUtils.FALSE)
+public class TelegramJacksonModule extends SimpleModule {
+    /**
+     * Types read from the Telegram Bot API.
+     */
+    public static final List<Class<?>> DESERIALIZED_TYPES = Collections.unmodifiableList(Arrays.asList(
+            Update.class,
+            Message.class,
+            TelegramApiResponse.class,
+            WebhookInfo.class));
+
+    /**
+     * Types written to the Telegram Bot API.
+     */
+    public static final List<Class<?>> SERIALIZED_TYPES = Collections.unmodifiableList(Arrays.asList(
+            SendAnimation.class,
+            SendAudio.class,
+            SendChatAction.class,
+            SendContact.class,
+            SendDocument.class,
+            SendLocation.class,
+            SendMessage.class,
+            SendPhoto.class,
+            SendPoll.class,
+            SendVenue.class,
+            SendVideo.class,
+            SendVideoNote.class,
+            SendVoice.class));
+
+    public TelegramJacksonModule() {
+        super(TelegramJacksonModule.class.getSimpleName());
+        for (Class<?> type : DESERIALIZED_TYPES) {
+            addIntrospectedDeserializer(type);
+        }
+        for (Class<?> type : SERIALIZED_TYPES) {
+            addIntrospectedSerializer(type);
+        }
+    }
+
+    private <T> void addIntrospectedDeserializer(@NonNull Class<T> type) {
+        addDeserializer(type, new IntrospectedDeserializer<>(BeanIntrospection.getIntrospection(type)));
+    }
+
+    private <T> void addIntrospectedSerializer(@NonNull Class<T> type) {
+        addSerializer(type, new IntrospectedSerializer<>(BeanIntrospection.getIntrospection(type)));
+    }
+}
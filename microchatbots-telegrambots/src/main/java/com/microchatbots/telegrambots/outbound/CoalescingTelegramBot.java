@@ -0,0 +1,389 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.api.GetFile;
+import com.microchatbots.telegrambots.api.GetUpdates;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.Webhook;
+import com.microchatbots.telegrambots.api.WebhookInfo;
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.PathVariable;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.SingleSubject;
+import org.reactivestreams.Publisher;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link TelegramBot} which merges consecutive plain text messages to the same chat, sent within
+ * {@link MessageCoalescingConfiguration#getWindow()} of the first one, into a single {@link SendMessage}, saving HTTP
+ * round-trips and rate limit permits. Messages are merged, separated by a new line, while they share the same parse
+ * mode and notification settings and fit in {@link MessageCoalescingConfiguration#getMaxLength()} characters. Messages
+ * replying to another message or with a reply markup are not merged.
+ *
+ * The calls to a chat are made one after the other in the order they were subscribed to, including the calls which are
+ * not merged, and every caller receives the {@link Message} sent for its text.
+ */
+public class CoalescingTelegramBot implements TelegramBot, AutoCloseable {
+    public static final int MAX_MESSAGE_LENGTH = 4096;
+    public static final String SEPARATOR = "\n";
+
+    private final TelegramBot telegramBot;
+    private final long windowNanos;
+    private final int maxLength;
+    private final Scheduler scheduler;
+    private final Map<String, ChatQueue> chats = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param telegramBot Bot making the calls
+     * @param configuration Coalescing configuration
+     */
+    public CoalescingTelegramBot(@NonNull TelegramBot telegramBot,
+                                 @NonNull MessageCoalescingConfiguration configuration) {
+        this(telegramBot, configuration, Schedulers.computation());
+    }
+
+    /**
+     *
+     * @param telegramBot Bot making the calls
+     * @param configuration Coalescing configuration
+     * @param scheduler Scheduler closing the windows
+     */
+    public CoalescingTelegramBot(@NonNull TelegramBot telegramBot,
+                                 @NonNull MessageCoalescingConfiguration configuration,
+                                 @NonNull Scheduler scheduler) {
+        this.telegramBot = telegramBot;
+        this.windowNanos = configuration.getWindow().toNanos();
+        this.maxLength = Math.min(configuration.getMaxLength(), MAX_MESSAGE_LENGTH);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Publisher<List<Update>> getUpdates(@NonNull @NotNull @Valid @Body GetUpdates getUpdates) {
+        return telegramBot.getUpdates(getUpdates);
+    }
+
+    @Override
+    public Publisher<List<BotCommand>> getMyCommands(@PathVariable @NonNull @NotBlank String token) {
+        return telegramBot.getMyCommands(token);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setMyCommands(@PathVariable @NonNull @NotBlank String token,
+                                                        @NonNull @NotNull List<@Valid BotCommand> botCommands) {
+        return telegramBot.setMyCommands(token, botCommands);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid @Body Webhook webhook) {
+        return telegramBot.setWebhook(webhook);
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
+        return enqueue(sendMessage.getChatId(), sendMessage, () -> telegramBot.sendMessage(sendMessage));
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull String text,
+                                          @NonNull @NotNull Integer chatId) {
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setText(text);
+        sendMessage.setChatId(chatId);
+        return sendMessage(sendMessage);
+    }
+
+    @Override
+    public Publisher<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
+        return enqueue(sendPhoto.getChatId(), null, () -> telegramBot.sendPhoto(sendPhoto));
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> deleteWebhook() {
+        return telegramBot.deleteWebhook();
+    }
+
+    @Override
+    public Publisher<WebhookInfo> getWebhookInfo() {
+        return telegramBot.getWebhookInfo();
+    }
+
+    @Override
+    public Publisher<File> getFile(@NonNull @NotNull @Valid GetFile getFile) {
+        return telegramBot.getFile(getFile);
+    }
+
+    @Override
+    public Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        return enqueue(sendAudio.getChatId(), null, () -> telegramBot.sendAudio(sendAudio));
+    }
+
+    @Override
+    public Publisher<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
+        return enqueue(sendVideo.getChatId(), null, () -> telegramBot.sendVideo(sendVideo));
+    }
+
+    @Override
+    public Publisher<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
+        return enqueue(sendAnimation.getChatId(), null, () -> telegramBot.sendAnimation(sendAnimation));
+    }
+
+    @Override
+    public Publisher<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
+        return enqueue(sendLocation.getChatId(), null, () -> telegramBot.sendLocation(sendLocation));
+    }
+
+    @Override
+    public Publisher<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        return enqueue(sendDocument.getChatId(), null, () -> telegramBot.sendDocument(sendDocument));
+    }
+
+    @Override
+    public Publisher<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        return enqueue(sendVoice.getChatId(), null, () -> telegramBot.sendVoice(sendVoice));
+    }
+
+    @Override
+    public Publisher<Message> upload(@NonNull @NotNull MediaUpload<?> upload) {
+        return enqueue(upload.getSend().getChatId(), null, () -> telegramBot.upload(upload));
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        return enqueue(sendMediaGroup.getChatId(), null, () -> telegramBot.sendMediaGroup(sendMediaGroup));
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return enqueue(upload.getSend().getChatId(), null, () -> telegramBot.sendMediaGroup(upload));
+    }
+
+    /**
+     * Sends the messages waiting for their window to close.
+     * @throws Exception if the bot making the calls cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        for (ChatQueue queue : chats.values()) {
+            queue.closeOpenBatch();
+        }
+        if (telegramBot instanceof AutoCloseable) {
+            ((AutoCloseable) telegramBot).close();
+        }
+    }
+
+    /**
+     *
+     * @param sendMessage Message
+     * @return Whether the message may be merged with other messages
+     */
+    protected boolean isCoalescible(@NonNull SendMessage sendMessage) {
+        return sendMessage.getText() != null &&
+                sendMessage.getText().length() <= maxLength &&
+                sendMessage.getReplyToMessageId() == null &&
+                sendMessage.getReplyMarkup() == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private <T> Flowable<T> enqueue(@Nullable Object chatId,
+                                    @Nullable SendMessage sendMessage,
+                                    @NonNull Supplier<Publisher<T>> call) {
+        if (chatId == null) {
+            return Flowable.defer(call::get);
+        }
+        String key = chatId.toString();
+        SendMessage coalescible = sendMessage != null && isCoalescible(sendMessage) ? sendMessage : null;
+        return Flowable.defer(() -> {
+            while (true) {
+                SingleSubject<Object> result = chats.computeIfAbsent(key, ChatQueue::new).offer(coalescible, call);
+                if (result != null) {
+                    return result.toFlowable().map(value -> (T) value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Calls to a chat, made one after the other.
+     */
+    private final class ChatQueue {
+        private final String chatId;
+        private Batch openBatch;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private int pending;
+        private boolean retired;
+
+        private ChatQueue(String chatId) {
+            this.chatId = chatId;
+        }
+
+        private synchronized SingleSubject<Object> offer(@Nullable SendMessage sendMessage,
+                                                         @NonNull Supplier<? extends Publisher<?>> call) {
+            if (retired) {
+                return null;
+            }
+            if (sendMessage != null && openBatch != null && openBatch.accepts(sendMessage)) {
+                return openBatch.add(sendMessage);
+            }
+            closeOpenBatch();
+            if (sendMessage == null) {
+                Batch batch = new Batch(call);
+                dispatch(batch);
+                return batch.results.get(0);
+            }
+            Batch batch = new Batch(null);
+            SingleSubject<Object> result = batch.add(sendMessage);
+            openBatch = batch;
+            scheduler.scheduleDirect(() -> close(batch), windowNanos, TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        private synchronized void close(Batch batch) {
+            if (openBatch == batch) {
+                closeOpenBatch();
+            }
+        }
+
+        private synchronized void closeOpenBatch() {
+            if (openBatch != null) {
+                Batch batch = openBatch;
+                openBatch = null;
+                dispatch(batch);
+            }
+        }
+
+        private void dispatch(Batch batch) {
+            pending++;
+            tail = tail.thenCompose(ignored -> batch.send())
+                    .whenComplete((ignored, error) -> sent());
+        }
+
+        private synchronized void sent() {
+            pending--;
+            if (pending == 0 && openBatch == null) {
+                retired = true;
+                chats.remove(chatId, this);
+            }
+        }
+    }
+
+    /**
+     * Messages merged into one call, or a single call which is not merged.
+     */
+    private final class Batch {
+        private final Supplier<? extends Publisher<?>> call;
+        private final List<SendMessage> messages = new ArrayList<>();
+        private final List<SingleSubject<Object>> results = new ArrayList<>();
+        private int length;
+
+        private Batch(@Nullable Supplier<? extends Publisher<?>> call) {
+            this.call = call;
+            if (call != null) {
+                results.add(SingleSubject.create());
+            }
+        }
+
+        private boolean accepts(@NonNull SendMessage sendMessage) {
+            SendMessage first = messages.get(0);
+            return Objects.equals(first.getParseMode(), sendMessage.getParseMode()) &&
+                    Objects.equals(first.getDisableNotification(), sendMessage.getDisableNotification()) &&
+                    Objects.equals(first.getDisableWebPagePreview(), sendMessage.getDisableWebPagePreview()) &&
+                    length + SEPARATOR.length() + sendMessage.getText().length() <= maxLength;
+        }
+
+        @NonNull
+        private SingleSubject<Object> add(@NonNull SendMessage sendMessage) {
+            length += (messages.isEmpty() ? 0 : SEPARATOR.length()) + sendMessage.getText().length();
+            messages.add(sendMessage);
+            SingleSubject<Object> result = SingleSubject.create();
+            results.add(result);
+            return result;
+        }
+
+        @NonNull
+        private CompletableFuture<Void> send() {
+            CompletableFuture<Void> sent = new CompletableFuture<>();
+            Flowable.<Object>defer(this::publisher)
+                    .firstOrError()
+                    .subscribe(value -> {
+                        results.forEach(result -> result.onSuccess(value));
+                        sent.complete(null);
+                    }, error -> {
+                        results.forEach(result -> result.onError(error));
+                        sent.complete(null);
+                    });
+            return sent;
+        }
+
+        @NonNull
+        private Publisher<?> publisher() {
+            if (call != null) {
+                return call.get();
+            }
+            if (messages.size() == 1) {
+                return telegramBot.sendMessage(messages.get(0));
+            }
+            SendMessage first = messages.get(0);
+            StringBuilder text = new StringBuilder(length);
+            for (SendMessage sendMessage : messages) {
+                if (text.length() > 0) {
+                    text.append(SEPARATOR);
+                }
+                text.append(sendMessage.getText());
+            }
+            SendMessage merged = new SendMessage();
+            merged.setChatId(first.getChatId());
+            merged.setText(text.toString());
+            merged.setParseMode(first.getParseMode());
+            merged.setDisableNotification(first.getDisableNotification());
+            merged.setDisableWebPagePreview(first.getDisableWebPagePreview());
+            return telegramBot.sendMessage(merged);
+        }
+    }
+}
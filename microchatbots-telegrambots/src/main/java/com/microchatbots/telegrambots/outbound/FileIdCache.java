@@ -0,0 +1,360 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.TelegramBotSends;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.PhotoSize;
+import com.microchatbots.telegrambots.core.send.InputFile;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.Send;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache of the file_ids Telegram returns for the media a bot uploaded. Media are keyed by their
+ * form field and the SHA-256 of their content, so the same bytes uploaded from another path or buffer are found too.
+ * The most recently used file_ids are kept in memory and, when a directory is given, every file_id is also written
+ * to {@code <directory>/<field>/<sha-256>} so that it survives restarts.
+ * Media uploaded from a stream are never cached, they could not be hashed without consuming them.
+ */
+public class FileIdCache {
+    private static final Logger LOG = LoggerFactory.getLogger(FileIdCache.class);
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final List<String> STALE_FILE_ID_ERRORS = Arrays.asList(
+            "wrong file identifier",
+            "wrong remote file identifier",
+            "file reference expired",
+            "file id",
+            "type of file mismatch");
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Map<String, String> fileIds;
+    private final Map<Path, FileDigest> fileDigests;
+    private final Path directory;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     *
+     * @param maximumSize Maximum number of file_ids kept in memory
+     * @param directory Directory where the file_ids are persisted, null to keep them in memory only
+     */
+    public FileIdCache(int maximumSize, @Nullable Path directory) {
+        this.fileIds = lru(maximumSize);
+        this.fileDigests = lru(maximumSize);
+        this.directory = directory;
+    }
+
+    /**
+     * A file uploaded from disk is hashed once as long as its size and modification time do not change.
+     * @param upload Media upload
+     * @return Key of the uploaded media, empty if it cannot be hashed
+     */
+    @NonNull
+    public Optional<String> key(@NonNull MediaUpload<?> upload) {
+        InputFile file = upload.getFile();
+        try {
+            Optional<Path> path = file.getPath();
+            if (path.isPresent()) {
+                return Optional.of(upload.getField() + '/' + digest(path.get()));
+            }
+            Optional<ByteBuffer> byteBuffer = file.getByteBuffer();
+            if (byteBuffer.isPresent()) {
+                MessageDigest digest = createDigest();
+                digest.update(byteBuffer.get());
+                return Optional.of(upload.getField() + '/' + hex(digest.digest()));
+            }
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("could not hash " + file + ", uploading it", e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Looks a file_id up in memory, then on disk. Every call is counted as a hit or a miss.
+     * @param key Key of the uploaded media
+     * @return The file_id of the media if it was uploaded before
+     */
+    @NonNull
+    public Optional<String> get(@NonNull String key) {
+        String fileId = fileIds.get(key);
+        if (fileId != null) {
+            memoryHits.increment();
+            return Optional.of(fileId);
+        }
+        fileId = read(key);
+        if (fileId != null) {
+            fileIds.put(key, fileId);
+            persistentHits.increment();
+            return Optional.of(fileId);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param key Key of the uploaded media
+     * @param fileId file_id Telegram returned for the media
+     */
+    public void put(@NonNull String key, @NonNull String fileId) {
+        if (fileId.equals(fileIds.put(key, fileId))) {
+            return;
+        }
+        write(key, fileId);
+    }
+
+    /**
+     * Forgets a file_id, for example one Telegram does not accept anymore.
+     * @param key Key of the uploaded media
+     */
+    public void remove(@NonNull String key) {
+        fileIds.remove(key);
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("could not delete file_id " + file, e);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return Hits and misses since the cache was created
+     */
+    @NonNull
+    public FileIdCacheMetrics getMetrics() {
+        return new FileIdCacheMetrics(memoryHits.sum(), persistentHits.sum(), misses.sum());
+    }
+
+    /**
+     * The largest size is kept for photos, Telegram accepts the file_id of any of them.
+     * @param message Message sent with an upload
+     * @return The file_id of the media of the message
+     */
+    @NonNull
+    static Optional<String> fileId(@Nullable Message message) {
+        if (message == null) {
+            return Optional.empty();
+        }
+        List<PhotoSize> photo = message.getPhoto();
+        if (photo != null && !photo.isEmpty()) {
+            return Optional.ofNullable(photo.get(photo.size() - 1).getFileId());
+        } else if (message.getVideo() != null) {
+            return Optional.ofNullable(message.getVideo().getFileId());
+        } else if (message.getDocument() != null) {
+            return Optional.ofNullable(message.getDocument().getFileId());
+        } else if (message.getAudio() != null) {
+            return Optional.ofNullable(message.getAudio().getFileId());
+        } else if (message.getVoice() != null) {
+            return Optional.ofNullable(message.getVoice().getFileId());
+        } else if (message.getAnimation() != null) {
+            return Optional.ofNullable(message.getAnimation().getFileId());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param upload Media upload
+     * @param fileId file_id of the media
+     * @param <S> Type of the message
+     * @return A copy of the message of the upload referencing its media by file_id, empty if it has no such property
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    static <S extends Send> Optional<S> withFileId(@NonNull MediaUpload<S> upload, @NonNull String fileId) {
+        BeanIntrospection<S> introspection = BeanIntrospection.getIntrospection((Class<S>) upload.getSend().getClass());
+        for (BeanProperty<S, Object> property : introspection.getBeanProperties()) {
+            String name = property.stringValue(JsonProperty.class)
+                    .filter(value -> !value.isEmpty())
+                    .orElse(property.getName());
+            if (name.equals(upload.getField()) && !property.isReadOnly() && property.getType() == String.class) {
+                S send = TelegramBotSends.copy(upload.getSend());
+                property.set(send, fileId);
+                return Optional.of(send);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param throwable Error of a call sending media by file_id
+     * @return Whether Telegram rejected the file_id itself, in which case it should be forgotten and the media uploaded
+     */
+    static boolean isStale(@NonNull Throwable throwable) {
+        if (!(throwable instanceof HttpClientResponseException) ||
+                ((HttpClientResponseException) throwable).getStatus() != HttpStatus.BAD_REQUEST) {
+            return false;
+        }
+        String description = TelegramApiErrors.errorResponse(throwable)
+                .map(TelegramApiResponse::getDescription)
+                .orElse(null);
+        if (description == null) {
+            return false;
+        }
+        String normalized = description.toLowerCase(Locale.ROOT).replace('_', ' ');
+        for (String error : STALE_FILE_ID_ERRORS) {
+            if (normalized.contains(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private String digest(@NonNull Path path) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        long size = Files.size(absolutePath);
+        long lastModified = Files.getLastModifiedTime(absolutePath).toMillis();
+        FileDigest fileDigest = fileDigests.get(absolutePath);
+        if (fileDigest != null && fileDigest.size == size && fileDigest.lastModified == lastModified) {
+            return fileDigest.digest;
+        }
+        MessageDigest digest = createDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(absolutePath, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        String hex = hex(digest.digest());
+        fileDigests.put(absolutePath, new FileDigest(size, lastModified, hex));
+        return hex;
+    }
+
+    @Nullable
+    private String read(@NonNull String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(key);
+        try {
+            String fileId = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+            return fileId.isEmpty() ? null : fileId;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("could not read file_id from " + file, e);
+            }
+            return null;
+        }
+    }
+
+    private void write(@NonNull String key, @NonNull String fileId) {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), TEMPORARY_SUFFIX);
+            Files.write(temporary, fileId.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("could not persist file_id to " + file, e);
+            }
+        }
+    }
+
+    @NonNull
+    private static <K, V> Map<K, V> lru(int maximumSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maximumSize;
+            }
+        });
+    }
+
+    @NonNull
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    @NonNull
+    private static String hex(@NonNull byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Digest of a file, valid as long as its size and modification time do not change.
+     */
+    private static final class FileDigest {
+        private final long size;
+        private final long lastModified;
+        private final String digest;
+
+        private FileDigest(long size, long lastModified, @NonNull String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.util.Toggleable;
+
+/**
+ * Configuration of the {@link FileIdCache}s.
+ */
+public interface FileIdCacheConfiguration extends Toggleable {
+
+    /**
+     *
+     * @return Maximum number of file_ids kept in memory per bot.
+     */
+    int getMaximumSize();
+
+    /**
+     *
+     * @return Directory where the file_ids of every bot are persisted, null to keep them in memory only.
+     */
+    @Nullable
+    String getDirectory();
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+/**
+ * {@link ConfigurationProperties} for {@link FileIdCache}.
+ */
+@ConfigurationProperties(FileIdCacheConfigurationProperties.PREFIX)
+public class FileIdCacheConfigurationProperties implements FileIdCacheConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".file-id-cache";
+
+    public static final boolean DEFAULT_ENABLED = true;
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    @Min(1)
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    @Nullable
+    private String directory;
+
+    /**
+     *
+     * @return Whether media already uploaded are sent again by file_id. Defaults to true.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether media already uploaded are sent again by file_id.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     *
+     * @return Maximum number of file_ids kept in memory per bot. Defaults to 10000.
+     */
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     *
+     * @param maximumSize Maximum number of file_ids kept in memory per bot.
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     *
+     * @return Directory where the file_ids of every bot are persisted. Defaults to none, file_ids are kept in memory only.
+     */
+    @Override
+    @Nullable
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     *
+     * @param directory Directory where the file_ids of every bot are persisted.
+     */
+    public void setDirectory(@Nullable String directory) {
+        this.directory = directory;
+    }
+}
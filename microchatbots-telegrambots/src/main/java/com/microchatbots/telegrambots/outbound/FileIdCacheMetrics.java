@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+/**
+ * Hits and misses of a {@link FileIdCache}.
+ */
+public class FileIdCacheMetrics {
+    private final long memoryHits;
+    private final long persistentHits;
+    private final long misses;
+
+    /**
+     *
+     * @param memoryHits Uploads replaced by a file_id found in memory
+     * @param persistentHits Uploads replaced by a file_id found on disk
+     * @param misses Uploads sent to Telegram
+     */
+    public FileIdCacheMetrics(long memoryHits, long persistentHits, long misses) {
+        this.memoryHits = memoryHits;
+        this.persistentHits = persistentHits;
+        this.misses = misses;
+    }
+
+    /**
+     *
+     * @return Uploads replaced by a file_id found in memory
+     */
+    public long getMemoryHits() {
+        return memoryHits;
+    }
+
+    /**
+     *
+     * @return Uploads replaced by a file_id found on disk
+     */
+    public long getPersistentHits() {
+        return persistentHits;
+    }
+
+    /**
+     *
+     * @return Uploads sent to Telegram
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     *
+     * @return Uploads looked up in the cache
+     */
+    public long getLookups() {
+        return memoryHits + persistentHits + misses;
+    }
+
+    /**
+     *
+     * @return Share of the lookups answered by the cache, between 0 and 1
+     */
+    public double getHitRate() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) (memoryHits + persistentHits) / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "FileIdCacheMetrics{" +
+                "memoryHits=" + memoryHits +
+                ", persistentHits=" + persistentHits +
+                ", misses=" + misses +
+                ", hitRate=" + getHitRate() +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import javax.inject.Singleton;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link FileIdCache} of every bot, persisted in {@code <directory>/<bot name>} when a directory is configured.
+ */
+@Singleton
+public class FileIdCaches {
+    private final FileIdCacheConfiguration configuration;
+    private final Map<String, FileIdCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param configuration File id cache configuration
+     */
+    public FileIdCaches(FileIdCacheConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     *
+     * @param botName Bot's name
+     * @return The cache of the bot, empty if file_ids are not cached
+     */
+    @NonNull
+    public Optional<FileIdCache> find(@NonNull String botName) {
+        if (!configuration.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.of(caches.computeIfAbsent(botName, this::createCache));
+    }
+
+    /**
+     *
+     * @return Hits and misses of the cache of every bot which uploaded media, by bot name
+     */
+    @NonNull
+    public Map<String, FileIdCacheMetrics> getMetrics() {
+        return caches.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getMetrics()));
+    }
+
+    @NonNull
+    private FileIdCache createCache(@NonNull String botName) {
+        String directory = configuration.getDirectory();
+        Path botDirectory = directory != null ? Paths.get(directory, botName) : null;
+        return new FileIdCache(configuration.getMaximumSize(), botDirectory);
+    }
+}
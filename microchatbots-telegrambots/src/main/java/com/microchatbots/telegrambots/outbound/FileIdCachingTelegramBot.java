@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.api.GetFile;
+import com.microchatbots.telegrambots.api.GetUpdates;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBotSends;
+import com.microchatbots.telegrambots.api.Webhook;
+import com.microchatbots.telegrambots.api.WebhookInfo;
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.PathVariable;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link TelegramBot} sending media already uploaded by the file_id Telegram returned for them, looked up by content
+ * in a {@link FileIdCache}, instead of uploading them again. A file_id Telegram rejects as unknown or expired is
+ * forgotten and the media is uploaded; other errors are passed on.
+ */
+public class FileIdCachingTelegramBot implements TelegramBot, AutoCloseable {
+    private final TelegramBot telegramBot;
+    private final FileIdCache fileIdCache;
+
+    /**
+     *
+     * @param telegramBot Bot making the calls
+     * @param fileIdCache Cache of the file_ids of the media uploaded by the bot
+     */
+    public FileIdCachingTelegramBot(@NonNull TelegramBot telegramBot, @NonNull FileIdCache fileIdCache) {
+        this.telegramBot = telegramBot;
+        this.fileIdCache = fileIdCache;
+    }
+
+    @Override
+    public Publisher<List<Update>> getUpdates(@NonNull @NotNull @Valid @Body GetUpdates getUpdates) {
+        return telegramBot.getUpdates(getUpdates);
+    }
+
+    @Override
+    public Publisher<List<BotCommand>> getMyCommands(@PathVariable @NonNull @NotBlank String token) {
+        return telegramBot.getMyCommands(token);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setMyCommands(@PathVariable @NonNull @NotBlank String token,
+                                                        @NonNull @NotNull List<@Valid BotCommand> botCommands) {
+        return telegramBot.setMyCommands(token, botCommands);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid @Body Webhook webhook) {
+        return telegramBot.setWebhook(webhook);
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
+        return telegramBot.sendMessage(sendMessage);
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull String text,
+                                          @NonNull @NotNull Integer chatId) {
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setText(text);
+        sendMessage.setChatId(chatId);
+        return sendMessage(sendMessage);
+    }
+
+    @Override
+    public Publisher<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
+        return telegramBot.sendPhoto(sendPhoto);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> deleteWebhook() {
+        return telegramBot.deleteWebhook();
+    }
+
+    @Override
+    public Publisher<WebhookInfo> getWebhookInfo() {
+        return telegramBot.getWebhookInfo();
+    }
+
+    @Override
+    public Publisher<File> getFile(@NonNull @NotNull @Valid GetFile getFile) {
+        return telegramBot.getFile(getFile);
+    }
+
+    @Override
+    public Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        return telegramBot.sendAudio(sendAudio);
+    }
+
+    @Override
+    public Publisher<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
+        return telegramBot.sendVideo(sendVideo);
+    }
+
+    @Override
+    public Publisher<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
+        return telegramBot.sendAnimation(sendAnimation);
+    }
+
+    @Override
+    public Publisher<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
+        return telegramBot.sendLocation(sendLocation);
+    }
+
+    @Override
+    public Publisher<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        return telegramBot.sendDocument(sendDocument);
+    }
+
+    @Override
+    public Publisher<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        return telegramBot.sendVoice(sendVoice);
+    }
+
+    @Override
+    public Publisher<Message> upload(@NonNull @NotNull MediaUpload<?> upload) {
+        return Flowable.defer(() -> upload(upload, key(upload)))
+                .subscribeOn(Schedulers.io());
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        return telegramBot.sendMediaGroup(sendMediaGroup);
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return telegramBot.sendMediaGroup(upload);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (telegramBot instanceof AutoCloseable) {
+            ((AutoCloseable) telegramBot).close();
+        }
+    }
+
+    @NonNull
+    private <S extends Send> Publisher<Message> upload(@NonNull MediaUpload<S> upload, @Nullable String key) {
+        if (key == null) {
+            return telegramBot.upload(upload);
+        }
+        Flowable<Message> uploaded = Flowable.defer(() -> telegramBot.upload(upload))
+                .doOnNext(message -> FileIdCache.fileId(message).ifPresent(fileId -> fileIdCache.put(key, fileId)));
+        Optional<S> send = fileIdCache.get(key).flatMap(fileId -> FileIdCache.withFileId(upload, fileId));
+        if (!send.isPresent()) {
+            return uploaded;
+        }
+        return Flowable.fromPublisher(TelegramBotSends.send(telegramBot, send.get()))
+                .onErrorResumeNext((Throwable e) -> {
+                    if (!FileIdCache.isStale(e)) {
+                        return Flowable.error(e);
+                    }
+                    fileIdCache.remove(key);
+                    return uploaded;
+                });
+    }
+
+    @Nullable
+    private String key(@NonNull MediaUpload<?> upload) {
+        return TelegramBotSends.isSupported(upload.getSend()) ? fileIdCache.key(upload).orElse(null) : null;
+    }
+}
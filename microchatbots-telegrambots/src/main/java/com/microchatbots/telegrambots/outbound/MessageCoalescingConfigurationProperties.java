@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * {@link ConfigurationProperties} for {@link CoalescingTelegramBot}.
+ */
+@ConfigurationProperties(MessageCoalescingConfigurationProperties.PREFIX)
+public class MessageCoalescingConfigurationProperties implements MessageCoalescingConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".coalescing";
+
+    public static final boolean DEFAULT_ENABLED = false;
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMillis(50);
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    @NonNull
+    @NotNull
+    private Duration window = DEFAULT_WINDOW;
+
+    @Min(1)
+    @Max(CoalescingTelegramBot.MAX_MESSAGE_LENGTH)
+    private int maxLength = CoalescingTelegramBot.MAX_MESSAGE_LENGTH;
+
+    /**
+     *
+     * @return Whether consecutive messages to the same chat are merged. Defaults to false.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether consecutive messages to the same chat are merged.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     *
+     * @return Time a message waits for the following messages to the same chat before being sent. Defaults to 50 milliseconds.
+     */
+    @Override
+    @NonNull
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     *
+     * @param window Time a message waits for the following messages to the same chat before being sent.
+     */
+    public void setWindow(@NonNull Duration window) {
+        this.window = window;
+    }
+
+    /**
+     *
+     * @return Maximum length of a merged message. Defaults to 4096, the limit of Telegram.
+     */
+    @Override
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     *
+     * @param maxLength Maximum length of a merged message.
+     */
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import io.micronaut.core.util.Toggleable;
+
+/**
+ * Configuration of the {@link OutboundScheduler}.
+ */
+public interface OutboundRateLimitConfiguration extends Toggleable {
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per second, across every chat.
+     */
+    int getBotMessagesPerSecond();
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per second to a private chat.
+     */
+    int getChatMessagesPerSecond();
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per minute to a group or a channel.
+     */
+    int getGroupMessagesPerMinute();
+
+    /**
+     *
+     * @return Maximum number of times a call is repeated after Telegram asked to retry later or the chat migrated.
+     */
+    int getMaxRetries();
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+/**
+ * {@link ConfigurationProperties} for {@link OutboundScheduler}. The defaults are the limits documented by Telegram.
+ */
+@ConfigurationProperties(OutboundRateLimitConfigurationProperties.PREFIX)
+public class OutboundRateLimitConfigurationProperties implements OutboundRateLimitConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".rate-limit";
+
+    public static final boolean DEFAULT_ENABLED = true;
+
+    private static final int DEFAULT_BOT_MESSAGES_PER_SECOND = 30;
+    private static final int DEFAULT_CHAT_MESSAGES_PER_SECOND = 1;
+    private static final int DEFAULT_GROUP_MESSAGES_PER_MINUTE = 20;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    private boolean enabled = DEFAULT_ENABLED;
+
+    @Min(1)
+    private int botMessagesPerSecond = DEFAULT_BOT_MESSAGES_PER_SECOND;
+
+    @Min(1)
+    private int chatMessagesPerSecond = DEFAULT_CHAT_MESSAGES_PER_SECOND;
+
+    @Min(1)
+    private int groupMessagesPerMinute = DEFAULT_GROUP_MESSAGES_PER_MINUTE;
+
+    @Min(0)
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     *
+     * @return Whether outbound calls are paced. Defaults to true.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether outbound calls are paced.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per second, across every chat. Defaults to 30.
+     */
+    @Override
+    public int getBotMessagesPerSecond() {
+        return botMessagesPerSecond;
+    }
+
+    /**
+     *
+     * @param botMessagesPerSecond Maximum number of messages a bot sends per second, across every chat.
+     */
+    public void setBotMessagesPerSecond(int botMessagesPerSecond) {
+        this.botMessagesPerSecond = botMessagesPerSecond;
+    }
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per second to a private chat. Defaults to 1.
+     */
+    @Override
+    public int getChatMessagesPerSecond() {
+        return chatMessagesPerSecond;
+    }
+
+    /**
+     *
+     * @param chatMessagesPerSecond Maximum number of messages a bot sends per second to a private chat.
+     */
+    public void setChatMessagesPerSecond(int chatMessagesPerSecond) {
+        this.chatMessagesPerSecond = chatMessagesPerSecond;
+    }
+
+    /**
+     *
+     * @return Maximum number of messages a bot sends per minute to a group or a channel. Defaults to 20.
+     */
+    @Override
+    public int getGroupMessagesPerMinute() {
+        return groupMessagesPerMinute;
+    }
+
+    /**
+     *
+     * @param groupMessagesPerMinute Maximum number of messages a bot sends per minute to a group or a channel.
+     */
+    public void setGroupMessagesPerMinute(int groupMessagesPerMinute) {
+        this.groupMessagesPerMinute = groupMessagesPerMinute;
+    }
+
+    /**
+     *
+     * @return Maximum number of times a call is repeated after Telegram asked to retry later or the chat migrated. Defaults to 3.
+     */
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     *
+     * @param maxRetries Maximum number of times a call is repeated after Telegram asked to retry later or the chat migrated.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+}
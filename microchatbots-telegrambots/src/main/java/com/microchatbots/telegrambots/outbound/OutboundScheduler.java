@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Paces the calls a bot makes to Telegram so they stay within the limits of a bot and of each chat. Every bot has a
+ * {@link TokenBucket} and so has every chat it writes to; group and channel chats, whose id is negative or a
+ * {@code @username}, use the per minute group limit. A call reserves the permit of its chat when it is subscribed to, and
+ * the permit of the bot only once the chat permit is available, so a call held back by a busy chat does not take a bot
+ * permit from calls to other chats. Calls to a chat are released in the order they were made at the allowed rate.
+ * Buckets of chats which are full again are forgotten every {@code telegram.rate-limit.purge-interval} (1 minute by default).
+ *
+ * When Telegram answers a call with {@code retry_after}, only the bucket of that bot and chat is paused for that long.
+ * Groups migrated to a supergroup are remembered so later calls are addressed to the supergroup directly.
+ */
+@Singleton
+public class OutboundScheduler {
+    private static final String GROUP_PREFIX = "-";
+    private static final String CHANNEL_PREFIX = "@";
+    private static final Duration SECOND = Duration.ofSeconds(1);
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final OutboundRateLimitConfiguration configuration;
+    private final Map<String, BotBuckets> bots = new ConcurrentHashMap<>();
+    private final Map<String, Long> migratedChats = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     *
+     * @param configuration Rate limit configuration
+     */
+    public OutboundScheduler(OutboundRateLimitConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Reserves the permit of a chat.
+     * @param botName Name of the bot making the call
+     * @param chatId Chat the call writes to, null if the call is not addressed to a chat
+     * @return Nanoseconds to wait before the permit of the chat is available
+     */
+    public long reserveChat(@NonNull String botName, @Nullable Object chatId) {
+        if (!configuration.isEnabled() || chatId == null) {
+            return 0;
+        }
+        return buckets(botName).chat(chatId.toString()).reserve(System.nanoTime());
+    }
+
+    /**
+     * Reserves the permit of a bot. Call it once the permit of the chat is available, so the bot permit is used when it
+     * is reserved.
+     * @param botName Name of the bot making the call
+     * @return Nanoseconds to wait before making the call
+     */
+    public long reserveBot(@NonNull String botName) {
+        if (!configuration.isEnabled()) {
+            return 0;
+        }
+        return buckets(botName).bot.reserve(System.nanoTime());
+    }
+
+    /**
+     * Withholds the permits of a bot and chat, as asked by the {@code retry_after} of a Telegram response.
+     * @param botName Name of the bot which made the call
+     * @param chatId Chat the call wrote to, null to pause every call of the bot
+     * @param duration Time to wait before the next call
+     */
+    public void pause(@NonNull String botName, @Nullable Object chatId, @NonNull Duration duration) {
+        BotBuckets buckets = buckets(botName);
+        long until = System.nanoTime() + duration.toNanos();
+        if (chatId != null) {
+            buckets.chat(chatId.toString()).pauseUntil(until);
+        } else {
+            buckets.bot.pauseUntil(until);
+        }
+    }
+
+    /**
+     * Remembers that a group was migrated to a supergroup.
+     * @param chatId Identifier of the group
+     * @param migratedChatId Identifier of the supergroup, the {@code migrate_to_chat_id} of a Telegram response
+     */
+    public void migrateChat(@NonNull Object chatId, long migratedChatId) {
+        migratedChats.put(chatId.toString(), migratedChatId);
+    }
+
+    /**
+     *
+     * @param chatId Chat identifier
+     * @return The identifier of the supergroup the chat was migrated to, or the chat identifier if it was not migrated
+     */
+    @Nullable
+    public Object resolveChatId(@Nullable Object chatId) {
+        if (chatId == null || migratedChats.isEmpty()) {
+            return chatId;
+        }
+        Long migratedChatId = migratedChats.get(chatId.toString());
+        return migratedChatId != null ? migratedChatId : chatId;
+    }
+
+    /**
+     *
+     * @return Maximum number of times a call is repeated after Telegram asked to retry later or the chat migrated
+     */
+    public int getMaxRetries() {
+        return configuration.getMaxRetries();
+    }
+
+    /**
+     * Delays a call until its permits are available.
+     * @param botName Name of the bot making the call
+     * @param chatId Chat the call writes to, null if the call is not addressed to a chat
+     * @param call Makes the call
+     * @param <T> Response type
+     * @return A publisher which makes the call once it is allowed
+     */
+    @NonNull
+    public <T> Publisher<T> schedule(@NonNull String botName,
+                                     @Nullable Object chatId,
+                                     @NonNull Supplier<Publisher<T>> call) {
+        return Flowable.defer(() -> delay(reserveChat(botName, chatId), () ->
+                Flowable.defer(() -> delay(reserveBot(botName), call))));
+    }
+
+    /**
+     * Blocks the calling thread until the permits of a call are available.
+     * @param botName Name of the bot making the call
+     * @param chatId Chat the call writes to, null if the call is not addressed to a chat
+     */
+    public void await(@NonNull String botName, @Nullable Object chatId) {
+        sleep(reserveChat(botName, chatId));
+        sleep(reserveBot(botName));
+    }
+
+    /**
+     *
+     * @return Number of calls waiting for their permits
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Forgets the buckets of the chats which are full again.
+     */
+    @Scheduled(fixedDelay = "${" + OutboundRateLimitConfigurationProperties.PREFIX + ".purge-interval:1m}")
+    public void purge() {
+        long now = System.nanoTime();
+        for (BotBuckets buckets : bots.values()) {
+            buckets.chats.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    private BotBuckets buckets(String botName) {
+        BotBuckets buckets = bots.get(botName);
+        return buckets != null ? buckets : bots.computeIfAbsent(botName, name -> new BotBuckets());
+    }
+
+    private <T> Publisher<T> delay(long wait, Supplier<Publisher<T>> call) {
+        if (wait == 0) {
+            return call.get();
+        }
+        waiting.incrementAndGet();
+        return Flowable.timer(wait, TimeUnit.NANOSECONDS)
+                .doFinally(waiting::decrementAndGet)
+                .flatMap(tick -> call.get());
+    }
+
+    private void sleep(long wait) {
+        if (wait == 0) {
+            return;
+        }
+        waiting.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Buckets of a bot and of the chats it writes to.
+     */
+    private final class BotBuckets {
+        private final TokenBucket bot = new TokenBucket(configuration.getBotMessagesPerSecond(), SECOND, configuration.getBotMessagesPerSecond());
+        private final Map<String, TokenBucket> chats = new ConcurrentHashMap<>();
+
+        private TokenBucket chat(String chatId) {
+            TokenBucket bucket = chats.get(chatId);
+            return bucket != null ? bucket : chats.computeIfAbsent(chatId, this::createChatBucket);
+        }
+
+        private TokenBucket createChatBucket(String chatId) {
+            return chatId.startsWith(GROUP_PREFIX) || chatId.startsWith(CHANNEL_PREFIX) ?
+                    new TokenBucket(configuration.getGroupMessagesPerMinute(), MINUTE, 1) :
+                    new TokenBucket(configuration.getChatMessagesPerSecond(), SECOND, 1);
+        }
+    }
+}
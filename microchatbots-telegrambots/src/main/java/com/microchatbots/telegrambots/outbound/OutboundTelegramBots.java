@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.api.BlockingTelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import javax.inject.Singleton;
+
+/**
+ * Wraps the bots calling Telegram with the outbound decorators: rate limiting and, when enabled, message coalescing
+ * and file_id caching. Coalescing wraps rate limiting so that merged messages take a single permit, and file_id
+ * caching wraps both so that media sent again by file_id are paced like any other message.
+ */
+@Singleton
+public class OutboundTelegramBots {
+    private final OutboundScheduler outboundScheduler;
+    private final MessageCoalescingConfiguration coalescingConfiguration;
+    private final FileIdCaches fileIdCaches;
+
+    /**
+     *
+     * @param outboundScheduler Scheduler pacing the messages sent by the bots
+     * @param coalescingConfiguration Message coalescing configuration
+     * @param fileIdCaches File id cache of every bot
+     */
+    public OutboundTelegramBots(OutboundScheduler outboundScheduler,
+                                MessageCoalescingConfiguration coalescingConfiguration,
+                                FileIdCaches fileIdCaches) {
+        this.outboundScheduler = outboundScheduler;
+        this.coalescingConfiguration = coalescingConfiguration;
+        this.fileIdCaches = fileIdCaches;
+    }
+
+    /**
+     *
+     * @param telegramBot Bot calling Telegram
+     * @param botName Bot's name
+     * @return The decorated bot
+     */
+    @NonNull
+    public TelegramBot decorate(@NonNull TelegramBot telegramBot, @NonNull String botName) {
+        TelegramBot rateLimited = new RateLimitedTelegramBot(telegramBot, botName, outboundScheduler);
+        TelegramBot coalesced = coalescingConfiguration.isEnabled() ?
+                new CoalescingTelegramBot(rateLimited, coalescingConfiguration) :
+                rateLimited;
+        return fileIdCaches.find(botName)
+                .<TelegramBot>map(fileIdCache -> new FileIdCachingTelegramBot(coalesced, fileIdCache))
+                .orElse(coalesced);
+    }
+
+    /**
+     * Blocking bots are not coalesced, each call waits for its own response.
+     * @param blockingTelegramBot Bot calling Telegram
+     * @param botName Bot's name
+     * @return The decorated bot
+     */
+    @NonNull
+    public BlockingTelegramBot decorate(@NonNull BlockingTelegramBot blockingTelegramBot, @NonNull String botName) {
+        BlockingTelegramBot rateLimited = new RateLimitedBlockingTelegramBot(blockingTelegramBot, botName, outboundScheduler);
+        return fileIdCaches.find(botName)
+                .<BlockingTelegramBot>map(fileIdCache -> new FileIdCachingBlockingTelegramBot(rateLimited, fileIdCache))
+                .orElse(rateLimited);
+    }
+}
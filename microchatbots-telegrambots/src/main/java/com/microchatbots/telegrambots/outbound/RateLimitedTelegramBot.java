@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.api.GetFile;
+import com.microchatbots.telegrambots.api.GetUpdates;
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBotSends;
+import com.microchatbots.telegrambots.api.Webhook;
+import com.microchatbots.telegrambots.api.WebhookInfo;
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.File;
+import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.ResponseParameters;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload;
+import com.microchatbots.telegrambots.core.send.MediaUpload;
+import com.microchatbots.telegrambots.core.send.SendAnimation;
+import com.microchatbots.telegrambots.core.send.SendAudio;
+import com.microchatbots.telegrambots.core.send.SendDocument;
+import com.microchatbots.telegrambots.core.send.SendLocation;
+import com.microchatbots.telegrambots.core.send.SendMediaGroup;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.core.send.SendPhoto;
+import com.microchatbots.telegrambots.core.send.Send;
+import com.microchatbots.telegrambots.core.send.SendVideo;
+import com.microchatbots.telegrambots.core.send.SendVoice;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.PathVariable;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link TelegramBot} whose {@code send*} calls are paced by an {@link OutboundScheduler}. Other calls are not delayed.
+ * A call Telegram rejects with {@code retry_after} is repeated once that delay has elapsed, and a call to a group
+ * migrated to a supergroup is repeated to {@code migrate_to_chat_id}, up to {@link OutboundScheduler#getMaxRetries()} times.
+ * A repeated call to a supergroup sends a copy of the message, the caller's message is left unchanged.
+ */
+public class RateLimitedTelegramBot implements TelegramBot, AutoCloseable {
+    private final TelegramBot telegramBot;
+    private final String botName;
+    private final OutboundScheduler outboundScheduler;
+
+    /**
+     *
+     * @param telegramBot Bot making the calls
+     * @param botName Bot's name
+     * @param outboundScheduler Scheduler pacing the calls
+     */
+    public RateLimitedTelegramBot(@NonNull TelegramBot telegramBot,
+                                  @NonNull String botName,
+                                  @NonNull OutboundScheduler outboundScheduler) {
+        this.telegramBot = telegramBot;
+        this.botName = botName;
+        this.outboundScheduler = outboundScheduler;
+    }
+
+    @Override
+    public Publisher<List<Update>> getUpdates(@NonNull @NotNull @Valid @Body GetUpdates getUpdates) {
+        return telegramBot.getUpdates(getUpdates);
+    }
+
+    @Override
+    public Publisher<List<BotCommand>> getMyCommands(@PathVariable @NonNull @NotBlank String token) {
+        return telegramBot.getMyCommands(token);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setMyCommands(@PathVariable @NonNull @NotBlank String token,
+                                                        @NonNull @NotNull List<@Valid BotCommand> botCommands) {
+        return telegramBot.setMyCommands(token, botCommands);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> setWebhook(@NonNull @NotNull @Valid @Body Webhook webhook) {
+        return telegramBot.setWebhook(webhook);
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull @Valid SendMessage sendMessage) {
+        return send(sendMessage, telegramBot::sendMessage);
+    }
+
+    @Override
+    public Publisher<Message> sendMessage(@NonNull @NotNull String text,
+                                          @NonNull @NotNull Integer chatId) {
+        SendMessage sendMessage = new SendMessage();
+        sendMessage.setText(text);
+        sendMessage.setChatId(chatId);
+        return sendMessage(sendMessage);
+    }
+
+    @Override
+    public Publisher<Message> sendPhoto(@NonNull @NotNull @Valid SendPhoto sendPhoto) {
+        return send(sendPhoto, telegramBot::sendPhoto);
+    }
+
+    @Override
+    public Publisher<TelegramApiResponse> deleteWebhook() {
+        return telegramBot.deleteWebhook();
+    }
+
+    @Override
+    public Publisher<WebhookInfo> getWebhookInfo() {
+        return telegramBot.getWebhookInfo();
+    }
+
+    @Override
+    public Publisher<File> getFile(@NonNull @NotNull @Valid GetFile getFile) {
+        return telegramBot.getFile(getFile);
+    }
+
+    @Override
+    public Publisher<Message> sendAudio(@NonNull @NotNull @Valid SendAudio sendAudio) {
+        return send(sendAudio, telegramBot::sendAudio);
+    }
+
+    @Override
+    public Publisher<Message> sendVideo(@NonNull @NotNull @Valid SendVideo sendVideo) {
+        return send(sendVideo, telegramBot::sendVideo);
+    }
+
+    @Override
+    public Publisher<Message> sendAnimation(@NonNull @NotNull @Valid SendAnimation sendAnimation) {
+        return send(sendAnimation, telegramBot::sendAnimation);
+    }
+
+    @Override
+    public Publisher<Message> sendLocation(@NonNull @NotNull @Valid SendLocation sendLocation) {
+        return send(sendLocation, telegramBot::sendLocation);
+    }
+
+    @Override
+    public Publisher<Message> sendDocument(@NonNull @NotNull @Valid SendDocument sendDocument) {
+        return send(sendDocument, telegramBot::sendDocument);
+    }
+
+    @Override
+    public Publisher<Message> sendVoice(@NonNull @NotNull @Valid SendVoice sendVoice) {
+        return send(sendVoice, telegramBot::sendVoice);
+    }
+
+    @Override
+    public Publisher<Message> upload(@NonNull @NotNull MediaUpload<?> upload) {
+        return send(upload.getSend(), send -> telegramBot.upload(send == upload.getSend() ?
+                upload :
+                new MediaUpload<>(send, upload.getField(), upload.getFile())));
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull @Valid SendMediaGroup sendMediaGroup) {
+        return send(sendMediaGroup, send -> telegramBot.sendMediaGroup(send));
+    }
+
+    @Override
+    public Publisher<List<Message>> sendMediaGroup(@NonNull @NotNull MediaGroupUpload upload) {
+        return send(upload.getSend(), send -> telegramBot.sendMediaGroup(send == upload.getSend() ? upload : upload.withSend(send)));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (telegramBot instanceof AutoCloseable) {
+            ((AutoCloseable) telegramBot).close();
+        }
+    }
+
+    @NonNull
+    private <S extends Send, T> Flowable<T> send(@NonNull S send, @NonNull Function<S, Publisher<T>> call) {
+        return send(send, call, 0);
+    }
+
+    @NonNull
+    private <S extends Send, T> Flowable<T> send(@NonNull S send,
+                                                 @NonNull Function<S, Publisher<T>> call,
+                                                 int attempt) {
+        return Flowable.<T>defer(() -> {
+            Object chatId = outboundScheduler.resolveChatId(send.getChatId());
+            S request = address(send, chatId);
+            return outboundScheduler.schedule(botName, chatId, () -> call.apply(request));
+        }).onErrorResumeNext((Throwable error) -> retry(send, call, attempt, error));
+    }
+
+    @NonNull
+    private <S extends Send, T> Flowable<T> retry(@NonNull S send,
+                                                  @NonNull Function<S, Publisher<T>> call,
+                                                  int attempt,
+                                                  @NonNull Throwable error) {
+        ResponseParameters parameters = attempt < outboundScheduler.getMaxRetries() ?
+                TelegramApiErrors.responseParameters(error).orElse(null) :
+                null;
+        if (parameters != null && parameters.getMigrateToChatId() != null && send.getChatId() != null) {
+            outboundScheduler.migrateChat(send.getChatId(), parameters.getMigrateToChatId());
+            return send(send, call, attempt + 1);
+        }
+        if (parameters != null && parameters.getRetryAfter() != null) {
+            Duration retryAfter = Duration.ofSeconds(parameters.getRetryAfter());
+            outboundScheduler.pause(botName, send.getChatId(), retryAfter);
+            return Flowable.timer(retryAfter.toNanos(), TimeUnit.NANOSECONDS)
+                    .flatMap(tick -> send(send, call, attempt + 1));
+        }
+        return Flowable.error(error);
+    }
+
+    @NonNull
+    private static <S extends Send> S address(@NonNull S send, @Nullable Object chatId) {
+        if (chatId == send.getChatId()) {
+            return send;
+        }
+        S copy = TelegramBotSends.copy(send);
+        copy.setChatId(chatId);
+        return copy;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import com.microchatbots.telegrambots.api.TelegramApiResponse;
+import com.microchatbots.telegrambots.core.ResponseParameters;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+
+import java.util.Optional;
+
+/**
+ * Decodes the error envelopes, {@code {"ok":false,"error_code":429,"parameters":{"retry_after":5}}}, Telegram answers
+ * unsuccessful calls with.
+ */
+public final class TelegramApiErrors {
+
+    private TelegramApiErrors() {
+    }
+
+    /**
+     *
+     * @param throwable Error of a call to Telegram
+     * @return The error envelope of the response, empty if the error is not an HTTP response or has no envelope
+     */
+    @NonNull
+    public static Optional<TelegramApiResponse> errorResponse(@NonNull Throwable throwable) {
+        if (!(throwable instanceof HttpClientResponseException)) {
+            return Optional.empty();
+        }
+        try {
+            return ((HttpClientResponseException) throwable).getResponse().getBody(TelegramApiResponse.class);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     *
+     * @param throwable Error of a call to Telegram
+     * @return The parameters of the error envelope, telling whether and how the call can be repeated
+     */
+    @NonNull
+    public static Optional<ResponseParameters> responseParameters(@NonNull Throwable throwable) {
+        return errorResponse(throwable).map(TelegramApiResponse::getParameters);
+    }
+}
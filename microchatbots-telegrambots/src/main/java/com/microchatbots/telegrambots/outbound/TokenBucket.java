@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the bucket only stores the theoretical arrival
+ * time of the next permit, updated with a compare-and-set. A permit is always reserved; {@link #reserve(long)} returns
+ * how long the caller has to wait before using it, so callers queue in reservation order.
+ */
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     *
+     * @param permits Number of permits per period
+     * @param period Period over which the permits are spread
+     * @param capacity Number of permits which may be used at once after the bucket has been idle
+     */
+    public TokenBucket(int permits, @NonNull Duration period, int capacity) {
+        this.intervalNanos = period.toNanos() / permits;
+        this.toleranceNanos = intervalNanos * (Math.max(capacity, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves a permit.
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return Nanoseconds to wait before using the permit, 0 if it can be used immediately
+     */
+    public long reserve(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - nowNanos > 0 ? arrival : nowNanos;
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                long wait = start - toleranceNanos - nowNanos;
+                return wait > 0 ? wait : 0;
+            }
+        }
+    }
+
+    /**
+     * Makes the next permit unavailable until a given time, for example when Telegram asks to retry after a delay.
+     * @param untilNanos {@link System#nanoTime()} before which no permit is granted
+     */
+    public void pauseUntil(long untilNanos) {
+        long arrival = untilNanos + toleranceNanos;
+        theoreticalArrival.accumulateAndGet(arrival, (current, paused) -> paused - current > 0 ? paused : current);
+    }
+
+    /**
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return true if the bucket is full again, so forgetting it does not change the rate
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
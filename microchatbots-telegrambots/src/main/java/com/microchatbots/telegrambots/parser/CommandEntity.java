@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * A command found in a message, either through a {@code bot_command} {@link com.microchatbots.telegrambots.core.MessageEntity}
+ * or by scanning the text.
+ */
+public class CommandEntity {
+
+    public static final char USERNAME_PREFIX = '@';
+
+    @NonNull
+    private final String name;
+
+    @Nullable
+    private final String username;
+
+    @Nullable
+    private final String arguments;
+
+    private final int offset;
+
+    /**
+     *
+     * @param name Command name, without the command prefix and the bot username. E.g. start
+     * @param username Username of the bot the command is addressed to, without @, if any. E.g. OtherBot
+     * @param arguments Text following the command up to the next command, trimmed, if any
+     * @param offset Offset of the command in the text
+     */
+    public CommandEntity(@NonNull String name,
+                         @Nullable String username,
+                         @Nullable String arguments,
+                         int offset) {
+        this.name = name;
+        this.username = username;
+        this.arguments = arguments;
+        this.offset = offset;
+    }
+
+    /**
+     *
+     * @return Command name, without the command prefix and the bot username. E.g. start
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return Username of the bot the command is addressed to, without @
+     */
+    @NonNull
+    public Optional<String> getUsername() {
+        return Optional.ofNullable(username);
+    }
+
+    /**
+     *
+     * @return Text following the command up to the next command, trimmed
+     */
+    @NonNull
+    public Optional<String> getArguments() {
+        return Optional.ofNullable(arguments);
+    }
+
+    /**
+     *
+     * @return Offset of the command in the text
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     *
+     * @param atUsername Bot username, with or without @. E.g. @MyBot
+     * @return true if the command is not addressed to any bot in particular or if it is addressed to the given one
+     */
+    public boolean isAddressedTo(@Nullable String atUsername) {
+        if (username == null) {
+            return true;
+        }
+        if (atUsername == null) {
+            return false;
+        }
+        int start = !atUsername.isEmpty() && atUsername.charAt(0) == USERNAME_PREFIX ? 1 : 0;
+        return atUsername.length() - start == username.length() &&
+                atUsername.regionMatches(true, start, username, 0, username.length());
+    }
+
+    @Override
+    public String toString() {
+        return "CommandEntity{" +
+                "name='" + name + '\'' +
+                ", username='" + username + '\'' +
+                ", arguments='" + arguments + '\'' +
+                ", offset=" + offset +
+                '}';
+    }
+}
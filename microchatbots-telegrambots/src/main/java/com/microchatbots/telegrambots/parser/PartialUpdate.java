@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import com.microchatbots.telegrambots.core.MessageEntity;
+import com.microchatbots.telegrambots.core.UpdateType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The fields of an {@link com.microchatbots.telegrambots.core.Update} needed to route it, decoded without binding the
+ * whole update. The values match the ones {@link TelegramParser} parses from the bound update.
+ */
+public class PartialUpdate {
+
+    @Nullable
+    private final Integer updateId;
+
+    @Nullable
+    private final UpdateType updateType;
+
+    @Nullable
+    private final Serializable spaceUniqueIdentifier;
+
+    @Nullable
+    private final Serializable userUniqueIdentifier;
+
+    @Nullable
+    private final String text;
+
+    @Nullable
+    private final List<MessageEntity> entities;
+
+    /**
+     *
+     * @param updateId The update's unique identifier
+     * @param updateType Kind of the update
+     * @param spaceUniqueIdentifier Chat id or, for callback queries, chat instance
+     * @param userUniqueIdentifier Id of the user who sent the update
+     * @param text Text, query or callback data
+     * @param entities Entities of the message text
+     */
+    public PartialUpdate(@Nullable Integer updateId,
+                         @Nullable UpdateType updateType,
+                         @Nullable Serializable spaceUniqueIdentifier,
+                         @Nullable Serializable userUniqueIdentifier,
+                         @Nullable String text,
+                         @Nullable List<MessageEntity> entities) {
+        this.updateId = updateId;
+        this.updateType = updateType;
+        this.spaceUniqueIdentifier = spaceUniqueIdentifier;
+        this.userUniqueIdentifier = userUniqueIdentifier;
+        this.text = text;
+        this.entities = entities;
+    }
+
+    /**
+     *
+     * @return The update's unique identifier
+     */
+    @NonNull
+    public Optional<Integer> getUpdateId() {
+        return Optional.ofNullable(updateId);
+    }
+
+    /**
+     *
+     * @return Kind of the update
+     */
+    @NonNull
+    public Optional<UpdateType> getUpdateType() {
+        return Optional.ofNullable(updateType);
+    }
+
+    /**
+     *
+     * @return Chat id or, for callback queries, chat instance
+     */
+    @NonNull
+    public Optional<Serializable> getSpaceUniqueIdentifier() {
+        return Optional.ofNullable(spaceUniqueIdentifier);
+    }
+
+    /**
+     *
+     * @return Id of the user who sent the update
+     */
+    @NonNull
+    public Optional<Serializable> getUserUniqueIdentifier() {
+        return Optional.ofNullable(userUniqueIdentifier);
+    }
+
+    /**
+     *
+     * @return Text, query or callback data
+     */
+    @NonNull
+    public Optional<String> getText() {
+        return Optional.ofNullable(text);
+    }
+
+    /**
+     *
+     * @return Entities of the message text, null if the update is not a message or the message has no entities
+     */
+    @Nullable
+    public List<MessageEntity> getEntities() {
+        return entities;
+    }
+}
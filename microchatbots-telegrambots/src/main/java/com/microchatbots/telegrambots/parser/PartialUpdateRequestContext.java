@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import com.microchatbots.core.conf.BotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.UpdateType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@link TelegramRequestContext} backed by the routing fields of a {@link PartialUpdate}. The full {@link Update} is
+ * bound the first time {@link #getInput()} is called. Instances are meant to be used for a single request and are not
+ * thread-safe.
+ */
+public class PartialUpdateRequestContext implements TelegramRequestContext {
+
+    private final BotConfiguration botConfiguration;
+    private final PartialUpdate partialUpdate;
+    private final TelegramParser telegramParser;
+    private final Supplier<Update> binder;
+
+    private Update update;
+    private Optional<String> textWithoutBotName;
+    private Optional<CommandEntity> command;
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param partialUpdate Routing fields of the update
+     * @param telegramParser Telegram Parser
+     * @param binder Binds the full update
+     */
+    public PartialUpdateRequestContext(@NonNull BotConfiguration botConfiguration,
+                                       @NonNull PartialUpdate partialUpdate,
+                                       @NonNull TelegramParser telegramParser,
+                                       @NonNull Supplier<Update> binder) {
+        this.botConfiguration = botConfiguration;
+        this.partialUpdate = partialUpdate;
+        this.telegramParser = telegramParser;
+        this.binder = binder;
+    }
+
+    /**
+     *
+     * @return Routing fields of the update
+     */
+    @NonNull
+    public PartialUpdate getPartialUpdate() {
+        return partialUpdate;
+    }
+
+    /**
+     *
+     * @return Whether the full update has been bound
+     */
+    public boolean isBound() {
+        return update != null;
+    }
+
+    @Override
+    @NonNull
+    public Update getInput() {
+        if (update == null) {
+            update = binder.get();
+        }
+        return update;
+    }
+
+    @Override
+    public int getUpdateMask() {
+        return partialUpdate.getUpdateType().map(UpdateType::getMask).orElse(0);
+    }
+
+    @Override
+    @NonNull
+    public Optional<Serializable> getSpaceUniqueIdentifier() {
+        return partialUpdate.getSpaceUniqueIdentifier();
+    }
+
+    @Override
+    @NonNull
+    public Optional<Serializable> getUserUniqueIdentifier() {
+        return partialUpdate.getUserUniqueIdentifier();
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getText() {
+        return partialUpdate.getText();
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getTextWithoutBotName() {
+        if (textWithoutBotName == null) {
+            textWithoutBotName = partialUpdate.getText()
+                    .flatMap(text -> telegramParser.parseTextWithoutBotName(botConfiguration, text, partialUpdate.getEntities()));
+        }
+        return textWithoutBotName;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getCommand() {
+        return parseLeadingCommand().map(CommandEntity::getName);
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getArguments() {
+        return parseLeadingCommand().flatMap(CommandEntity::getArguments);
+    }
+
+    @NonNull
+    private Optional<CommandEntity> parseLeadingCommand() {
+        if (command == null) {
+            Optional<String> text = partialUpdate.getText();
+            Optional<String> withoutBotName = getTextWithoutBotName();
+            command = text.isPresent() && withoutBotName.isPresent() ?
+                    telegramParser.parseLeadingCommand(botConfiguration, text.get(), partialUpdate.getEntities(), withoutBotName.get()) :
+                    Optional.empty();
+        }
+        return command;
+    }
+}
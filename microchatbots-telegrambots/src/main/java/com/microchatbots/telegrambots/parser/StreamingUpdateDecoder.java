@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.core.conf.BotConfiguration;
+import com.microchatbots.telegrambots.core.MessageEntity;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.UpdateType;
+import com.microchatbots.telegrambots.core.lazy.LazyUpdate;
+import com.microchatbots.telegrambots.core.lazy.LazyUpdateReader;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decodes the routing fields of an update, update_id, kind, chat id, user id, text and entities, in a single pass of a
+ * Jackson {@link JsonParser}. Every other value, e.g. photos, reply to messages or passport data, is skipped. The
+ * contexts it creates bind the {@link Update} only if a handler asks for it, as a {@link LazyUpdate} backed by the same
+ * bytes.
+ */
+@Singleton
+public class StreamingUpdateDecoder {
+    private static final TypeReference<List<MessageEntity>> ENTITIES = new TypeReference<List<MessageEntity>>() { };
+    private static final String FIELD_UPDATE_ID = "update_id";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CHAT = "chat";
+    private static final String FIELD_FROM = "from";
+    private static final String FIELD_USER = "user";
+    private static final String FIELD_TEXT = "text";
+    private static final String FIELD_ENTITIES = "entities";
+    private static final String FIELD_QUERY = "query";
+    private static final String FIELD_DATA = "data";
+    private static final String FIELD_CHAT_INSTANCE = "chat_instance";
+
+    private final ObjectMapper objectMapper;
+    private final TelegramParser telegramParser;
+    private final LazyUpdateReader lazyUpdateReader;
+
+    /**
+     *
+     * @param objectMapper Object Mapper
+     * @param telegramParser Telegram Parser
+     * @param lazyUpdateReader Lazy Update Reader
+     */
+    public StreamingUpdateDecoder(ObjectMapper objectMapper,
+                                  TelegramParser telegramParser,
+                                  LazyUpdateReader lazyUpdateReader) {
+        this.objectMapper = objectMapper;
+        this.telegramParser = telegramParser;
+        this.lazyUpdateReader = lazyUpdateReader;
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param json JSON of the update
+     * @return A context backed by the routing fields which binds the full update on {@link TelegramRequestContext#getInput()}
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    public TelegramRequestContext createContext(@NonNull BotConfiguration botConfiguration,
+                                                @NonNull String json) throws IOException {
+        return createContext(botConfiguration, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param json JSON of the update. The bytes must not be modified afterwards.
+     * @return A context backed by the routing fields which binds the full update on {@link TelegramRequestContext#getInput()}
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    public TelegramRequestContext createContext(@NonNull BotConfiguration botConfiguration,
+                                                @NonNull byte[] json) throws IOException {
+        return new PartialUpdateRequestContext(botConfiguration, decode(json), telegramParser, () -> {
+            try {
+                return lazyUpdateReader.read(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     *
+     * @param json JSON of the update
+     * @return The routing fields of the update
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    public PartialUpdate decode(@NonNull String json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     *
+     * @param json JSON of the update
+     * @return The routing fields of the update
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    public PartialUpdate decode(@NonNull byte[] json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * Updates contain at most one kind. If several are present, the routing fields are taken from the first one.
+     * @param parser JSON Parser positioned before the update object
+     * @return The routing fields of the update
+     * @throws IOException if the JSON is not a valid update
+     */
+    @NonNull
+    protected PartialUpdate decode(@NonNull JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "expected an update object");
+        }
+        Fields fields = new Fields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (FIELD_UPDATE_ID.equals(name) && token == JsonToken.VALUE_NUMBER_INT) {
+                fields.updateId = parser.getIntValue();
+                continue;
+            }
+            Optional<UpdateType> updateType = fields.updateType == null && token == JsonToken.START_OBJECT ?
+                    UpdateType.of(name) : Optional.empty();
+            if (updateType.isPresent()) {
+                fields.updateType = updateType.get();
+                decodeKind(parser, fields);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new PartialUpdate(fields.updateId,
+                fields.updateType,
+                fields.spaceUniqueIdentifier,
+                fields.userUniqueIdentifier,
+                fields.text,
+                fields.entities);
+    }
+
+    /**
+     *
+     * @param parser JSON Parser positioned at the start of the object of the update kind
+     * @param fields Fields being decoded
+     * @throws IOException if the JSON is not a valid update
+     */
+    private void decodeKind(@NonNull JsonParser parser, @NonNull Fields fields) throws IOException {
+        boolean message = isMessage(fields.updateType);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (message && FIELD_CHAT.equals(name)) {
+                fields.spaceUniqueIdentifier = readId(parser);
+            } else if (FIELD_FROM.equals(name) || (fields.updateType == UpdateType.POLL_ANSWER && FIELD_USER.equals(name))) {
+                fields.userUniqueIdentifier = readId(parser);
+            } else if (message && FIELD_ENTITIES.equals(name) && token == JsonToken.START_ARRAY) {
+                fields.entities = objectMapper.readValue(parser, ENTITIES);
+            } else if (token == JsonToken.VALUE_STRING && isText(fields.updateType, name)) {
+                fields.text = parser.getText();
+            } else if (token == JsonToken.VALUE_STRING && fields.updateType == UpdateType.CALLBACK_QUERY && FIELD_CHAT_INSTANCE.equals(name)) {
+                fields.spaceUniqueIdentifier = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     *
+     * @param parser JSON Parser positioned at the start of an object with an id, e.g. a chat or a user
+     * @return The id, an Integer, or a Long if it does not fit
+     * @throws IOException if the JSON is not a valid update
+     */
+    @Nullable
+    private static Serializable readId(@NonNull JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        Serializable id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (FIELD_ID.equals(name) && token == JsonToken.VALUE_NUMBER_INT) {
+                id = parser.getNumberType() == JsonParser.NumberType.INT ? (Serializable) parser.getIntValue() : (Serializable) parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    private static boolean isMessage(@Nullable UpdateType updateType) {
+        return updateType == UpdateType.MESSAGE ||
+                updateType == UpdateType.EDITED_MESSAGE ||
+                updateType == UpdateType.CHANNEL_POST ||
+                updateType == UpdateType.EDITED_CHANNEL_POST;
+    }
+
+    private static boolean isText(@Nullable UpdateType updateType, @NonNull String name) {
+        if (isMessage(updateType)) {
+            return FIELD_TEXT.equals(name);
+        }
+        if (updateType == UpdateType.INLINE_QUERY || updateType == UpdateType.CHOSEN_INLINE_RESULT) {
+            return FIELD_QUERY.equals(name);
+        }
+        return updateType == UpdateType.CALLBACK_QUERY && FIELD_DATA.equals(name);
+    }
+
+    /**
+     * Fields decoded so far.
+     */
+    private static final class Fields {
+        private Integer updateId;
+        private UpdateType updateType;
+        private Serializable spaceUniqueIdentifier;
+        private Serializable userUniqueIdentifier;
+        private String text;
+        private List<MessageEntity> entities;
+    }
+}
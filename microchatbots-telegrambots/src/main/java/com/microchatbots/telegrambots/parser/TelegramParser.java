@@ -22,9 +22,11 @@ import com.microchatbots.core.parser.UserParser;
 import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
 import com.microchatbots.telegrambots.core.Chat;
 import com.microchatbots.telegrambots.core.Message;
+import com.microchatbots.telegrambots.core.MessageEntity;
 import com.microchatbots.telegrambots.core.Update;
 import com.microchatbots.telegrambots.core.User;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.micronaut.core.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,11 +35,20 @@ import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Parses Telegram updates. Commands, their arguments and mentions of the bot are taken from the
+ * {@link MessageEntity} offsets when the message contains entities and from scanning the text otherwise.
+ */
 @Singleton
 public class TelegramParser implements SpaceParser<Update>, UserParser<Update>, TextParser<Update> {
     public static final String COMMAND_PREFIX = "/";
+    public static final String ENTITY_BOT_COMMAND = "bot_command";
+    public static final String ENTITY_MENTION = "mention";
 
     private static final Logger LOG = LoggerFactory.getLogger(TelegramParser.class);
 
@@ -132,12 +143,57 @@ public class TelegramParser implements SpaceParser<Update>, UserParser<Update>,
         if (!textOptional.isPresent()) {
             return Optional.empty();
         }
-        String text = textOptional.get();
-        if (botConfiguration instanceof TelegramBotConfiguration) {
-            String username = ((TelegramBotConfiguration) botConfiguration).getAtUsername();
-            return Optional.of(text.replaceAll(username, "").trim());
+        Optional<Message> entityMessage = parseEntityMessage(update);
+        return parseTextWithoutBotName(botConfiguration,
+                textOptional.get(),
+                entityMessage.isPresent() ? entityMessage.get().getEntities() : null);
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's configuration
+     * @param text Text of the update
+     * @param entities Entities of the message, null if the update is not a message or the message has no entities
+     * @return The text without the mentions of the bot, trimmed
+     */
+    @NonNull
+    public Optional<String> parseTextWithoutBotName(@NonNull BotConfiguration botConfiguration,
+                                                    @NonNull String text,
+                                                    @Nullable List<MessageEntity> entities) {
+        if (!(botConfiguration instanceof TelegramBotConfiguration)) {
+            return Optional.empty();
+        }
+        String username = ((TelegramBotConfiguration) botConfiguration).getAtUsername();
+        if (entities != null) {
+            return Optional.of(removeMentions(text, entities, username).trim());
         }
-        return Optional.empty();
+        return Optional.of(removeAll(text, username).trim());
+    }
+
+    /**
+     * Removes every occurrence of a literal without compiling a regular expression. The text is returned as is when it
+     * does not contain the literal.
+     * @param text Text
+     * @param literal Literal to remove, e.g. the bot's username
+     * @return The text without the literal
+     */
+    @NonNull
+    protected static String removeAll(@NonNull String text, @Nullable String literal) {
+        if (literal == null || literal.isEmpty()) {
+            return text;
+        }
+        int index = text.indexOf(literal);
+        if (index == -1) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() - literal.length());
+        int start = 0;
+        while (index != -1) {
+            sb.append(text, start, index);
+            start = index + literal.length();
+            index = text.indexOf(literal, start);
+        }
+        return sb.append(text, start, text.length()).toString();
     }
 
     /**
@@ -153,30 +209,288 @@ public class TelegramParser implements SpaceParser<Update>, UserParser<Update>,
         if (!text.isPresent()) {
             return Optional.empty();
         }
-        return parseCommand(text.get());
+        return parseCommand(botConfiguration, update, text.get());
     }
 
     /**
      *
-     * @param text Text
-     * @return Parsed Command
+     * @param botConfiguration Bot's Configuration
+     * @param update Update
+     * @param textWithoutBotName Text already parsed from the update, without the bot name
+     * @return The command starting the message if it is not addressed to another bot
      */
-    protected Optional<String> parseCommand(@NonNull String text) {
-        if (LOG.isInfoEnabled()) {
-            LOG.info("text parsed: {}", text);
+    @Override
+    public Optional<String> parseCommand(@NonNull BotConfiguration botConfiguration,
+                                         @NonNull Update update,
+                                         @NonNull String textWithoutBotName) {
+        Optional<Message> entityMessage = parseEntityMessage(update);
+        if (!entityMessage.isPresent()) {
+            return parseCommand(textWithoutBotName);
         }
-        if (text.indexOf(StringUtils.SPACE) != -1) {
-            String[] arr = text.split("" + StringUtils.SPACE);
-            if (arr.length >= 1) {
-                text = arr[0];
+        return parseLeadingCommand(botConfiguration, entityMessage.get().getText(), entityMessage.get().getEntities(), textWithoutBotName)
+                .map(CommandEntity::getName);
+    }
+
+    /**
+     *
+     * @param botConfiguration Bot's Configuration
+     * @param update Update
+     * @param textWithoutBotName Text already parsed from the update, without the bot name
+     * @return The text following the command starting the message, up to the next command
+     */
+    @Override
+    public Optional<String> parseArguments(@NonNull BotConfiguration botConfiguration,
+                                           @NonNull Update update,
+                                           @NonNull String textWithoutBotName) {
+        Optional<Message> entityMessage = parseEntityMessage(update);
+        if (!entityMessage.isPresent()) {
+            return parseArguments(textWithoutBotName);
+        }
+        return parseLeadingCommand(botConfiguration, entityMessage.get().getText(), entityMessage.get().getEntities(), textWithoutBotName)
+                .flatMap(CommandEntity::getArguments);
+    }
+
+    /**
+     * Parses every command of the message, including the ones addressed to other bots. See {@link CommandEntity#isAddressedTo(String)}.
+     * @param botConfiguration Bot's Configuration
+     * @param update Update
+     * @return Commands in the order they appear in the message
+     */
+    @NonNull
+    public List<CommandEntity> parseCommands(@NonNull BotConfiguration botConfiguration,
+                                             @NonNull Update update) {
+        Optional<Message> entityMessage = parseEntityMessage(update);
+        if (!entityMessage.isPresent()) {
+            return parseText(botConfiguration, update, true)
+                    .flatMap(text -> parseLeadingCommand(botConfiguration, text, null, text))
+                    .map(Collections::singletonList)
+                    .orElse(Collections.emptyList());
+        }
+        String text = entityMessage.get().getText();
+        List<MessageEntity> entities = entityMessage.get().getEntities();
+        List<CommandEntity> commands = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            if (isEntity(text, entities.get(i), ENTITY_BOT_COMMAND)) {
+                commands.add(commandEntity(text, entities, i));
             }
         }
-        if (text.startsWith(COMMAND_PREFIX)) {
-            return Optional.of(text.substring(1));
+        return commands;
+    }
+
+    /**
+     *
+     * @param update Update
+     * @return The message of the update if it has text and entities
+     */
+    @NonNull
+    protected Optional<Message> parseEntityMessage(@NonNull Update update) {
+        Message message = update.getEditedMessage();
+        if (message == null) {
+            message = update.getMessage();
+        }
+        if (message == null) {
+            message = update.getEditedChannelPost();
+        }
+        if (message == null) {
+            message = update.getChannelPost();
+        }
+        if (message == null || message.getText() == null || message.getEntities() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(message);
+    }
+
+    /**
+     * With entities, the leading command is the first {@code bot_command} entity preceded only by whitespace and mentions
+     * of the bot. Without entities, it is the command the text without the bot name starts with.
+     * @param botConfiguration Bot's Configuration
+     * @param text Text of the update
+     * @param entities Entities of the message, null if the update is not a message or the message has no entities
+     * @param textWithoutBotName Text of the update without the bot name
+     * @return The command starting the message if it is not addressed to another bot
+     */
+    @NonNull
+    public Optional<CommandEntity> parseLeadingCommand(@NonNull BotConfiguration botConfiguration,
+                                                       @NonNull String text,
+                                                       @Nullable List<MessageEntity> entities,
+                                                       @NonNull String textWithoutBotName) {
+        if (entities == null) {
+            return parseCommand(textWithoutBotName)
+                    .map(name -> new CommandEntity(name, null, parseArguments(textWithoutBotName).orElse(null), 0));
+        }
+        String atUsername = botConfiguration instanceof TelegramBotConfiguration ?
+                ((TelegramBotConfiguration) botConfiguration).getAtUsername() : null;
+        int position = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            MessageEntity entity = entities.get(i);
+            boolean command = isEntity(text, entity, ENTITY_BOT_COMMAND);
+            boolean mention = !command && isEntity(text, entity, ENTITY_MENTION) && isMentionOf(text, entity, atUsername);
+            if (!command && !mention) {
+                continue;
+            }
+            if (!isBlank(text, position, entity.getOffset())) {
+                return Optional.empty();
+            }
+            if (command) {
+                CommandEntity commandEntity = commandEntity(text, entities, i);
+                return commandEntity.isAddressedTo(atUsername) ? Optional.of(commandEntity) : Optional.empty();
+            }
+            position = entity.getOffset() + entity.getLength();
         }
         return Optional.empty();
     }
 
+    /**
+     *
+     * @param text Message text
+     * @param entities Message entities
+     * @param index Index of a {@code bot_command} entity
+     * @return The command of the entity with the text following it up to the next command as arguments
+     */
+    @NonNull
+    private static CommandEntity commandEntity(@NonNull String text, @NonNull List<MessageEntity> entities, int index) {
+        MessageEntity entity = entities.get(index);
+        int start = entity.getOffset();
+        int end = start + entity.getLength();
+        if (text.startsWith(COMMAND_PREFIX, start)) {
+            start += COMMAND_PREFIX.length();
+        }
+        int at = text.indexOf(CommandEntity.USERNAME_PREFIX, start);
+        String name = text.substring(start, at != -1 && at < end ? at : end);
+        String username = at != -1 && at < end ? text.substring(at + 1, end) : null;
+        int next = text.length();
+        for (int i = index + 1; i < entities.size(); i++) {
+            if (isEntity(text, entities.get(i), ENTITY_BOT_COMMAND) && entities.get(i).getOffset() >= end) {
+                next = entities.get(i).getOffset();
+                break;
+            }
+        }
+        String arguments = text.substring(end, next).trim();
+        return new CommandEntity(name, username, arguments.isEmpty() ? null : arguments, entity.getOffset());
+    }
+
+    /**
+     * Removes the mentions of the bot and the bot username of the commands addressed to it, using the entity offsets.
+     * @param text Message text
+     * @param entities Message entities
+     * @param atUsername Bot username. E.g. @MyBot
+     * @return The text without mentions of the bot
+     */
+    @NonNull
+    protected static String removeMentions(@NonNull String text,
+                                           @NonNull List<MessageEntity> entities,
+                                           @Nullable String atUsername) {
+        if (atUsername == null || atUsername.isEmpty()) {
+            return text;
+        }
+        StringBuilder sb = null;
+        int start = 0;
+        for (MessageEntity entity : entities) {
+            int from;
+            int to = isEntity(text, entity, null) ? entity.getOffset() + entity.getLength() : -1;
+            if (to == -1) {
+                continue;
+            } else if (ENTITY_MENTION.equals(entity.getType()) && isMentionOf(text, entity, atUsername)) {
+                from = entity.getOffset();
+            } else if (ENTITY_BOT_COMMAND.equals(entity.getType()) &&
+                    to - atUsername.length() > entity.getOffset() &&
+                    text.regionMatches(true, to - atUsername.length(), atUsername, 0, atUsername.length())) {
+                from = to - atUsername.length();
+            } else {
+                continue;
+            }
+            if (from < start) {
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(text.length());
+            }
+            sb.append(text, start, from);
+            start = to;
+        }
+        return sb == null ? text : sb.append(text, start, text.length()).toString();
+    }
+
+    /**
+     *
+     * @param text Message text
+     * @param entity Message entity
+     * @param type Expected entity type or null to accept any type
+     * @return Whether the entity has the type and its offsets are within the text
+     */
+    private static boolean isEntity(@NonNull String text, @NonNull MessageEntity entity, @Nullable String type) {
+        return (type == null || type.equals(entity.getType())) &&
+                entity.getOffset() != null &&
+                entity.getLength() != null &&
+                entity.getOffset() >= 0 &&
+                entity.getLength() > 0 &&
+                entity.getOffset() + entity.getLength() <= text.length();
+    }
+
+    /**
+     *
+     * @param text Message text
+     * @param entity Mention entity
+     * @param atUsername Bot username. E.g. @MyBot
+     * @return Whether the mention refers to the bot
+     */
+    private static boolean isMentionOf(@NonNull String text, @NonNull MessageEntity entity, @Nullable String atUsername) {
+        return atUsername != null &&
+                entity.getLength() == atUsername.length() &&
+                text.regionMatches(true, entity.getOffset(), atUsername, 0, atUsername.length());
+    }
+
+    /**
+     *
+     * @param text Text
+     * @param from Start index, inclusive
+     * @param to End index, exclusive
+     * @return Whether the region only contains whitespace
+     */
+    private static boolean isBlank(@NonNull String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @param text Text
+     * @return Parsed Command
+     */
+    @Override
+    public Optional<String> parseCommand(@NonNull String text) {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("text parsed: {}", text);
+        }
+        if (!text.startsWith(COMMAND_PREFIX)) {
+            return Optional.empty();
+        }
+        int end = text.indexOf(StringUtils.SPACE, COMMAND_PREFIX.length());
+        return Optional.of(text.substring(COMMAND_PREFIX.length(), end == -1 ? text.length() : end));
+    }
+
+    /**
+     *
+     * @param text Text
+     * @return Text following the command
+     */
+    @Override
+    public Optional<String> parseArguments(@NonNull String text) {
+        if (!text.startsWith(COMMAND_PREFIX)) {
+            return Optional.empty();
+        }
+        int index = text.indexOf(StringUtils.SPACE);
+        if (index == -1) {
+            return Optional.empty();
+        }
+        String arguments = text.substring(index + 1).trim();
+        return arguments.isEmpty() ? Optional.empty() : Optional.of(arguments);
+    }
+
     /**
      *
      * @param update Update
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser;
+
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.UpdateType;
+
+/**
+ * {@link RequestContext} of a Telegram {@link Update} which knows the kind of the update without inspecting it.
+ */
+public interface TelegramRequestContext extends RequestContext<Update> {
+
+    /**
+     *
+     * @return The mask of the kinds of the update, see {@link UpdateType#getMask()}, 0 if the kind is unknown
+     */
+    int getUpdateMask();
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the bots from the JSON file {@code telegram.registry.file}, for example:
+ * <pre>
+ * [{"name": "acme", "token": "123:abc", "at_username": "@acmebot", "commands": {"start": "Start the bot"}}]
+ * </pre>
+ */
+@Singleton
+@Requires(property = TelegramBotRegistryConfigurationProperties.PREFIX + ".file")
+public class FileTelegramBotSource implements TelegramBotSource {
+    public static final String NAME = "name";
+    public static final String TOKEN = "token";
+    public static final String AT_USERNAME = "at_username";
+    public static final String COMMANDS = "commands";
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    /**
+     *
+     * @param objectMapper Object Mapper
+     * @param configuration Registry configuration
+     */
+    public FileTelegramBotSource(ObjectMapper objectMapper, TelegramBotRegistryConfiguration configuration) {
+        this.objectMapper = objectMapper;
+        this.file = Paths.get(configuration.getFile());
+    }
+
+    @Override
+    @NonNull
+    public Collection<TelegramBotConfiguration> load() throws IOException {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        JsonNode root = objectMapper.readTree(file.toFile());
+        List<TelegramBotConfiguration> bots = new ArrayList<>(root.size());
+        for (JsonNode node : root) {
+            TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties(node.path(NAME).asText());
+            bot.setToken(node.path(TOKEN).asText());
+            bot.setAtUsername(node.path(AT_USERNAME).asText());
+            Map<String, String> commands = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.path(COMMANDS).fields(); fields.hasNext();) {
+                Map.Entry<String, JsonNode> command = fields.next();
+                commands.put(command.getKey(), command.getValue().asText());
+            }
+            bot.setCommands(commands);
+            bots.add(bot);
+        }
+        return bots;
+    }
+}
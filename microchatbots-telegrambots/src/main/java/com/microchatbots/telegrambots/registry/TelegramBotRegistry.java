@@ -0,0 +1,358 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microchatbots.core.parser.SpaceParser;
+import com.microchatbots.core.parser.TextParser;
+import com.microchatbots.telegrambots.api.BlockingTelegramBot;
+import com.microchatbots.telegrambots.api.DefaultBlockingTelegramBot;
+import com.microchatbots.telegrambots.api.DefaultTelegramBots;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.BotCommand;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.handler.TelegramBotCommandsHandler;
+import com.microchatbots.telegrambots.outbound.OutboundTelegramBots;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.io.ResourceLoader;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bots registered at runtime, loaded from every {@link TelegramBotSource} at startup and then every
+ * {@code telegram.registry.refresh-interval}. Bots configured with {@code telegram.bots} are registered too and are
+ * never unregistered.
+ *
+ * The {@link TelegramBot}, {@link BlockingTelegramBot} and {@link TelegramBotCommandsHandler} of a bot are created the
+ * first time they are needed and released once the bot has been idle for {@link TelegramBotRegistryConfiguration#getIdleTimeout()}
+ * or when more than {@link TelegramBotRegistryConfiguration#getMaxActiveBots()} bots are active, so the memory used
+ * does not grow with the number of registered bots.
+ */
+@Singleton
+@Requires(beans = TelegramBotSource.class)
+public class TelegramBotRegistry implements ApplicationEventListener<StartupEvent>, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramBotRegistry.class);
+
+    private final Set<String> configuredBots = new HashSet<>();
+    private final Map<String, TelegramBotConfiguration> bots = new ConcurrentHashMap<>();
+    private final Map<String, TelegramBotResources> resources = new ConcurrentHashMap<>();
+    private final List<TelegramBotSource> sources;
+    private final TelegramBotRegistryConfiguration configuration;
+    private final DefaultTelegramBots defaultTelegramBots;
+    private final ResourceLoader resourceLoader;
+    private final SpaceParser<Update> spaceParser;
+    private final TextParser<Update> textParser;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboundTelegramBots outboundTelegramBots;
+
+    /**
+     *
+     * @param telegramBotConfigurations Bots configured with {@code telegram.bots}
+     * @param sources Sources of the bots registered at runtime
+     * @param configuration Registry configuration
+     * @param defaultTelegramBots Creates the bots calling Telegram
+     * @param resourceLoader Resource loader used to read the markdown responses to the commands
+     * @param spaceParser Space Parser
+     * @param textParser Text parser
+     * @param objectMapper Object Mapper
+     * @param eventPublisher Publisher of the {@link TelegramBotRegistryEvent}s
+     * @param outboundTelegramBots Decorators of the messages sent by the bots
+     */
+    public TelegramBotRegistry(Collection<TelegramBotConfiguration> telegramBotConfigurations,
+                               List<TelegramBotSource> sources,
+                               TelegramBotRegistryConfiguration configuration,
+                               DefaultTelegramBots defaultTelegramBots,
+                               ResourceLoader resourceLoader,
+                               SpaceParser<Update> spaceParser,
+                               TextParser<Update> textParser,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               OutboundTelegramBots outboundTelegramBots) {
+        this.sources = sources;
+        this.configuration = configuration;
+        this.defaultTelegramBots = defaultTelegramBots;
+        this.resourceLoader = resourceLoader;
+        this.spaceParser = spaceParser;
+        this.textParser = textParser;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.outboundTelegramBots = outboundTelegramBots;
+        for (TelegramBotConfiguration bot : telegramBotConfigurations) {
+            configuredBots.add(bot.getName());
+            bots.put(bot.getName(), bot);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(StartupEvent event) {
+        refresh();
+    }
+
+    /**
+     * Loads the bots of every source, registers the new or changed ones and unregisters those no source returns.
+     */
+    @Scheduled(fixedDelay = "${" + TelegramBotRegistryConfigurationProperties.PREFIX + ".refresh-interval:1m}")
+    public void refresh() {
+        Map<String, TelegramBotConfiguration> loaded = new HashMap<>();
+        for (TelegramBotSource source : sources) {
+            try {
+                for (TelegramBotConfiguration bot : source.load()) {
+                    loaded.put(bot.getName(), bot);
+                }
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("could not load the bots of " + source.getClass().getSimpleName() + ", keeping the registered bots", e);
+                }
+                return;
+            }
+        }
+        for (TelegramBotConfiguration bot : loaded.values()) {
+            TelegramBotConfiguration registered = bots.get(bot.getName());
+            if (!configuredBots.contains(bot.getName()) && (registered == null || !isSameBot(registered, bot))) {
+                register(bot);
+            }
+        }
+        for (String name : bots.keySet()) {
+            if (!loaded.containsKey(name)) {
+                unregister(name);
+            }
+        }
+    }
+
+    /**
+     * Registers a bot, replacing the bot registered with the same name.
+     * @param bot Telegram's bot configuration
+     */
+    public void register(@NonNull TelegramBotConfiguration bot) {
+        if (configuredBots.contains(bot.getName())) {
+            throw new IllegalArgumentException("bot " + bot.getName() + " is configured with telegram.bots and cannot be replaced");
+        }
+        TelegramBotConfiguration previous = bots.put(bot.getName(), bot);
+        if (previous != null) {
+            release(previous.getName());
+            eventPublisher.publishEvent(new TelegramBotRegistryEvent(previous, false));
+        }
+        eventPublisher.publishEvent(new TelegramBotRegistryEvent(bot, true));
+        if (LOG.isInfoEnabled()) {
+            LOG.info("registered bot {}", bot.getName());
+        }
+    }
+
+    /**
+     * Unregisters a bot registered at runtime and releases its resources.
+     * @param name Bot's name
+     * @return The unregistered bot, empty if no bot with that name was registered at runtime
+     */
+    @NonNull
+    public Optional<TelegramBotConfiguration> unregister(@NonNull String name) {
+        if (configuredBots.contains(name)) {
+            return Optional.empty();
+        }
+        TelegramBotConfiguration bot = bots.remove(name);
+        if (bot == null) {
+            return Optional.empty();
+        }
+        release(name);
+        eventPublisher.publishEvent(new TelegramBotRegistryEvent(bot, false));
+        if (LOG.isInfoEnabled()) {
+            LOG.info("unregistered bot {}", name);
+        }
+        return Optional.of(bot);
+    }
+
+    /**
+     *
+     * @param name Bot's name
+     * @return The registered bot with that name
+     */
+    @NonNull
+    public Optional<TelegramBotConfiguration> find(@NonNull String name) {
+        return Optional.ofNullable(bots.get(name));
+    }
+
+    /**
+     *
+     * @return Every registered bot
+     */
+    @NonNull
+    public Collection<TelegramBotConfiguration> getBots() {
+        return Collections.unmodifiableCollection(bots.values());
+    }
+
+    /**
+     *
+     * @param name Bot's name
+     * @return true if the bot was registered at runtime, false if it is configured with {@code telegram.bots} or unknown
+     */
+    public boolean isRegisteredAtRuntime(@NonNull String name) {
+        return !configuredBots.contains(name) && bots.containsKey(name);
+    }
+
+    /**
+     *
+     * @param bot Telegram's bot configuration
+     * @return The bot's {@link TelegramBot}, created if it is not active
+     */
+    @NonNull
+    public TelegramBot getBot(@NonNull TelegramBotConfiguration bot) {
+        return resources(bot).getBot();
+    }
+
+    /**
+     *
+     * @param bot Telegram's bot configuration
+     * @return The bot's {@link BlockingTelegramBot}, created if it is not active
+     */
+    @NonNull
+    public BlockingTelegramBot getBlockingBot(@NonNull TelegramBotConfiguration bot) {
+        return resources(bot).getBlockingBot();
+    }
+
+    /**
+     *
+     * @param bot Telegram's bot configuration
+     * @return The bot's {@link TelegramBotCommandsHandler}, created if it is not active
+     */
+    @NonNull
+    public TelegramBotCommandsHandler getCommandsHandler(@NonNull TelegramBotConfiguration bot) {
+        return resources(bot).getCommandsHandler();
+    }
+
+    /**
+     *
+     * @return Number of bots whose resources are kept
+     */
+    public int getActiveBots() {
+        return resources.size();
+    }
+
+    /**
+     * Releases the resources of the bots idle for longer than {@link TelegramBotRegistryConfiguration#getIdleTimeout()}.
+     */
+    @Scheduled(fixedDelay = "${" + TelegramBotRegistryConfigurationProperties.PREFIX + ".eviction-interval:1m}")
+    public void evictIdle() {
+        long idleNanos = configuration.getIdleTimeout().toNanos();
+        long now = System.nanoTime();
+        for (Map.Entry<String, TelegramBotResources> entry : resources.entrySet()) {
+            if (now - entry.getValue().getLastAccessNanos() > idleNanos) {
+                release(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Releases the resources of every bot.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        for (String name : resources.keySet()) {
+            release(name);
+        }
+    }
+
+    @NonNull
+    private TelegramBotResources resources(@NonNull TelegramBotConfiguration bot) {
+        TelegramBotResources botResources = resources.get(bot.getName());
+        if (botResources == null) {
+            botResources = resources.computeIfAbsent(bot.getName(), name -> new TelegramBotResources(bot,
+                    this::createBot,
+                    this::createBlockingBot,
+                    this::createCommandsHandler));
+            if (resources.size() > configuration.getMaxActiveBots()) {
+                evictLeastRecentlyUsed(bot.getName());
+            }
+        }
+        return botResources;
+    }
+
+    private void evictLeastRecentlyUsed(@NonNull String keep) {
+        String eldest = null;
+        long eldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<String, TelegramBotResources> entry : resources.entrySet()) {
+            long access = entry.getValue().getLastAccessNanos();
+            if (!entry.getKey().equals(keep) && (eldest == null || access - eldestAccess < 0)) {
+                eldest = entry.getKey();
+                eldestAccess = access;
+            }
+        }
+        if (eldest != null) {
+            release(eldest);
+        }
+    }
+
+    private void release(@NonNull String name) {
+        TelegramBotResources botResources = resources.remove(name);
+        if (botResources != null) {
+            botResources.close();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("released the resources of bot {}", name);
+            }
+        }
+    }
+
+    @NonNull
+    private TelegramBot createBot(@NonNull TelegramBotConfiguration bot) {
+        return outboundTelegramBots.decorate(defaultTelegramBots.create(bot.getToken()), bot.getName());
+    }
+
+    @NonNull
+    private BlockingTelegramBot createBlockingBot(@NonNull TelegramBotConfiguration bot) {
+        return outboundTelegramBots.decorate(new DefaultBlockingTelegramBot(defaultTelegramBots.create(bot.getToken())), bot.getName());
+    }
+
+    @NonNull
+    private TelegramBotCommandsHandler createCommandsHandler(@NonNull TelegramBotConfiguration bot) {
+        return new TelegramBotCommandsHandler(bot, resourceLoader, spaceParser, textParser, objectMapper);
+    }
+
+    private static boolean isSameBot(@NonNull TelegramBotConfiguration registered, @NonNull TelegramBotConfiguration bot) {
+        return Objects.equals(registered.getToken(), bot.getToken()) &&
+                Objects.equals(registered.getAtUsername(), bot.getAtUsername()) &&
+                commands(registered).equals(commands(bot));
+    }
+
+    @NonNull
+    private static Map<String, String> commands(@NonNull TelegramBotConfiguration bot) {
+        Map<String, String> commands = new HashMap<>();
+        for (BotCommand botCommand : bot.getBotCommands()) {
+            commands.put(botCommand.getCommand(), botCommand.getDescription());
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link TelegramBotRegistry}.
+ */
+public interface TelegramBotRegistryConfiguration {
+
+    /**
+     *
+     * @return Path of a JSON file listing the bots registered at runtime. Null if bots are not loaded from a file.
+     */
+    @Nullable
+    String getFile();
+
+    /**
+     *
+     * @return Time after which the resources of a bot which received no update are released.
+     */
+    Duration getIdleTimeout();
+
+    /**
+     *
+     * @return Maximum number of bots whose resources are kept at the same time. The least recently used are released first.
+     */
+    int getMaxActiveBots();
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * {@link ConfigurationProperties} for {@link TelegramBotRegistry}. The sources are reloaded every
+ * {@code telegram.registry.refresh-interval} (1 minute by default) and idle bots are looked for every
+ * {@code telegram.registry.eviction-interval} (1 minute by default).
+ */
+@ConfigurationProperties(TelegramBotRegistryConfigurationProperties.PREFIX)
+public class TelegramBotRegistryConfigurationProperties implements TelegramBotRegistryConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".registry";
+
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final int DEFAULT_MAX_ACTIVE_BOTS = 10000;
+
+    @Nullable
+    private String file;
+
+    @NonNull
+    @NotNull
+    private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    @Min(1)
+    private int maxActiveBots = DEFAULT_MAX_ACTIVE_BOTS;
+
+    /**
+     *
+     * @return Path of a JSON file listing the bots registered at runtime. Defaults to none.
+     */
+    @Override
+    @Nullable
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     *
+     * @param file Path of a JSON file listing the bots registered at runtime.
+     */
+    public void setFile(@Nullable String file) {
+        this.file = file;
+    }
+
+    /**
+     *
+     * @return Time after which the resources of a bot which received no update are released. Defaults to 30 minutes.
+     */
+    @Override
+    @NonNull
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     *
+     * @param idleTimeout Time after which the resources of a bot which received no update are released.
+     */
+    public void setIdleTimeout(@NonNull Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     *
+     * @return Maximum number of bots whose resources are kept at the same time. Defaults to 10000.
+     */
+    @Override
+    public int getMaxActiveBots() {
+        return maxActiveBots;
+    }
+
+    /**
+     *
+     * @param maxActiveBots Maximum number of bots whose resources are kept at the same time.
+     */
+    public void setMaxActiveBots(int maxActiveBots) {
+        this.maxActiveBots = maxActiveBots;
+    }
+}
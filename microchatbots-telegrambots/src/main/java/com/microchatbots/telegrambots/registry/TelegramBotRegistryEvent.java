@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.micronaut.context.event.ApplicationEvent;
+
+/**
+ * Published by the {@link TelegramBotRegistry} when a bot is registered or unregistered at runtime.
+ */
+public class TelegramBotRegistryEvent extends ApplicationEvent {
+
+    private final boolean registered;
+
+    /**
+     *
+     * @param bot Telegram's bot configuration
+     * @param registered true if the bot was registered, false if it was unregistered
+     */
+    public TelegramBotRegistryEvent(@NonNull TelegramBotConfiguration bot, boolean registered) {
+        super(bot);
+        this.registered = registered;
+    }
+
+    @Override
+    @NonNull
+    public TelegramBotConfiguration getSource() {
+        return (TelegramBotConfiguration) super.getSource();
+    }
+
+    /**
+     *
+     * @return true if the bot was registered, false if it was unregistered
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.microchatbots.core.request.RequestContext;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.core.Update;
+import com.microchatbots.telegrambots.core.send.SendMessage;
+import com.microchatbots.telegrambots.handler.TelegramRequestHandler;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+
+/**
+ * Answers the commands of the bots registered at runtime with their markdown responses, like the
+ * {@link com.microchatbots.telegrambots.handler.TelegramBotCommandsHandler} created for every bot configured with
+ * {@code telegram.bots}. The handler of each bot is taken from the {@link TelegramBotRegistry}, which creates it lazily.
+ */
+@Singleton
+@Requires(beans = TelegramBotRegistry.class)
+public class TelegramBotRegistryHandler implements TelegramRequestHandler<SendMessage> {
+
+    private final TelegramBotRegistry registry;
+
+    /**
+     *
+     * @param registry Registry of the bots
+     */
+    public TelegramBotRegistryHandler(TelegramBotRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+        return registry.isRegisteredAtRuntime(telegramBotConfiguration.getName()) &&
+                registry.getCommandsHandler(telegramBotConfiguration).canHandle(telegramBotConfiguration, update);
+    }
+
+    @Override
+    public boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        return registry.isRegisteredAtRuntime(telegramBotConfiguration.getName()) &&
+                registry.getCommandsHandler(telegramBotConfiguration).canHandle(telegramBotConfiguration, context);
+    }
+
+    @Override
+    public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+        return registry.getCommandsHandler(telegramBotConfiguration).handle(telegramBotConfiguration, update);
+    }
+
+    @Override
+    public SendMessage handle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+        return registry.getCommandsHandler(telegramBotConfiguration).handle(telegramBotConfiguration, context);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.microchatbots.telegrambots.api.BlockingTelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBot;
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import com.microchatbots.telegrambots.handler.TelegramBotCommandsHandler;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+
+/**
+ * Resources of a bot of the {@link TelegramBotRegistry}, each created the first time it is used.
+ */
+final class TelegramBotResources implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramBotResources.class);
+
+    private final TelegramBotConfiguration botConfiguration;
+    private final Function<TelegramBotConfiguration, TelegramBot> botFactory;
+    private final Function<TelegramBotConfiguration, BlockingTelegramBot> blockingBotFactory;
+    private final Function<TelegramBotConfiguration, TelegramBotCommandsHandler> commandsHandlerFactory;
+    private volatile long lastAccessNanos = System.nanoTime();
+    private TelegramBot bot;
+    private BlockingTelegramBot blockingBot;
+    private TelegramBotCommandsHandler commandsHandler;
+
+    /**
+     *
+     * @param botConfiguration Telegram's bot configuration
+     * @param botFactory Creates the bot's {@link TelegramBot}
+     * @param blockingBotFactory Creates the bot's {@link BlockingTelegramBot}
+     * @param commandsHandlerFactory Creates the bot's {@link TelegramBotCommandsHandler}
+     */
+    TelegramBotResources(@NonNull TelegramBotConfiguration botConfiguration,
+                         @NonNull Function<TelegramBotConfiguration, TelegramBot> botFactory,
+                         @NonNull Function<TelegramBotConfiguration, BlockingTelegramBot> blockingBotFactory,
+                         @NonNull Function<TelegramBotConfiguration, TelegramBotCommandsHandler> commandsHandlerFactory) {
+        this.botConfiguration = botConfiguration;
+        this.botFactory = botFactory;
+        this.blockingBotFactory = blockingBotFactory;
+        this.commandsHandlerFactory = commandsHandlerFactory;
+    }
+
+    /**
+     *
+     * @return The bot's {@link TelegramBot}
+     */
+    @NonNull
+    synchronized TelegramBot getBot() {
+        touch();
+        if (bot == null) {
+            bot = botFactory.apply(botConfiguration);
+        }
+        return bot;
+    }
+
+    /**
+     *
+     * @return The bot's {@link BlockingTelegramBot}
+     */
+    @NonNull
+    synchronized BlockingTelegramBot getBlockingBot() {
+        touch();
+        if (blockingBot == null) {
+            blockingBot = blockingBotFactory.apply(botConfiguration);
+        }
+        return blockingBot;
+    }
+
+    /**
+     *
+     * @return The bot's {@link TelegramBotCommandsHandler}
+     */
+    @NonNull
+    synchronized TelegramBotCommandsHandler getCommandsHandler() {
+        touch();
+        if (commandsHandler == null) {
+            commandsHandler = commandsHandlerFactory.apply(botConfiguration);
+        }
+        return commandsHandler;
+    }
+
+    /**
+     *
+     * @return {@link System#nanoTime()} when the resources were last used
+     */
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(bot);
+        closeQuietly(blockingBot);
+        bot = null;
+        blockingBot = null;
+        commandsHandler = null;
+    }
+
+    private void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    private void closeQuietly(Object resource) {
+        if (resource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) resource).close();
+            } catch (Exception e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("error closing a resource of bot " + botConfiguration.getName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry;
+
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Source of the bots registered at runtime in the {@link TelegramBotRegistry}. Register a bean of this type to load
+ * tenant bots from a database, a file or a remote service.
+ */
+public interface TelegramBotSource {
+
+    /**
+     * Loads every bot of the source. Bots which are no longer returned are unregistered.
+     * @return The bots of the source
+     * @throws IOException if the bots cannot be loaded, the registered bots are then left untouched
+     */
+    @NonNull
+    Collection<TelegramBotConfiguration> load() throws IOException;
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.scheduling;
+
+import com.microchatbots.telegrambots.conf.TelegramConfigurationProperties;
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * {@link ConfigurationProperties} for {@link BlockingExecutorFactory}.
+ */
+@ConfigurationProperties(BlockingExecutorConfigurationProperties.PREFIX)
+public class BlockingExecutorConfigurationProperties implements BlockingExecutorConfiguration {
+    public static final String PREFIX = TelegramConfigurationProperties.PREFIX + ".blocking-executor";
+
+    public static final boolean DEFAULT_VIRTUAL_THREADS = true;
+
+    private boolean virtualThreads = DEFAULT_VIRTUAL_THREADS;
+
+    /**
+     *
+     * @return Whether blocking handlers are run on virtual threads when the JVM supports them. Defaults to true.
+     */
+    @Override
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     *
+     * @param virtualThreads Whether blocking handlers are run on virtual threads when the JVM supports them.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.scheduling;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.scheduling.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the executor running blocking handlers and draining the dispatcher lanes. On Java 21 and later it starts a
+ * virtual thread per task, so a blocking handler waiting on Telegram does not hold an OS thread and tens of thousands
+ * of them may wait at once. Otherwise it is the I/O executor. The virtual thread executor belongs to this factory and
+ * is shut down with it; the I/O executor is left to Micronaut.
+ */
+@Factory
+public class BlockingExecutorFactory {
+
+    /**
+     * Name of the executor running blocking handlers.
+     */
+    public static final String BLOCKING = "telegram-blocking";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlockingExecutorFactory.class);
+
+    @Nullable
+    private ExecutorService virtualThreadExecutor;
+
+    /**
+     *
+     * @param configuration Blocking executor configuration
+     * @param ioExecutor I/O executor, used when virtual threads are not available or disabled
+     * @return The executor running blocking handlers
+     */
+    @Singleton
+    @Named(BLOCKING)
+    public ExecutorService blockingExecutor(BlockingExecutorConfiguration configuration,
+                                            @Named(TaskExecutors.IO) Provider<ExecutorService> ioExecutor) {
+        if (configuration.isVirtualThreads() && VirtualThreads.isAvailable()) {
+            if (LOG.isInfoEnabled()) {
+                LOG.info("running blocking handlers on virtual threads");
+            }
+            virtualThreadExecutor = VirtualThreads.newExecutor(BLOCKING);
+            return virtualThreadExecutor;
+        }
+        return ioExecutor.get();
+    }
+
+    /**
+     * Shuts down the virtual thread executor, if one was created. Tasks already running are left to complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+}
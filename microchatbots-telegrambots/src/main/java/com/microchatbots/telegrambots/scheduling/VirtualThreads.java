@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.scheduling;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads. Virtual threads need Java 21, so this Java 8 implementation reports them as unavailable.
+ * When the jar is built with {@code -Pjava21} it is multi-release: on Java 21 and later, the implementation in
+ * {@code META-INF/versions/21} is loaded instead.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     *
+     * @return Whether the running JVM supports virtual threads
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     *
+     * @param name Prefix of the names of the threads
+     * @return An executor starting a virtual thread per task
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    @NonNull
+    public static ExecutorService newExecutor(@NonNull String name) {
+        throw new UnsupportedOperationException("virtual threads require Java 21");
+    }
+}
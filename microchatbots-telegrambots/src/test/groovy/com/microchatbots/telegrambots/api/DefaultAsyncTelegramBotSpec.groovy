@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api
+
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.send.SendMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.reactivex.Flowable
+import io.reactivex.processors.PublishProcessor
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class DefaultAsyncTelegramBotSpec extends Specification {
+
+    TelegramBot telegramBot = Mock()
+    DefaultAsyncTelegramBot bot = new DefaultAsyncTelegramBot(telegramBot)
+
+    void "a call completes with the response of the bot"() {
+        given:
+        Message message = new Message()
+
+        when:
+        CompletableFuture<Message> future = bot.sendMessage(new SendMessage())
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> Flowable.just(message)
+        future.get(1, TimeUnit.SECONDS).is(message)
+    }
+
+    void "a failed call completes exceptionally"() {
+        when:
+        bot.sendMessage('hello', 1).get(1, TimeUnit.SECONDS)
+
+        then:
+        1 * telegramBot.sendMessage('hello', 1) >> Flowable.error(new IllegalStateException())
+        ExecutionException e = thrown()
+        e.cause instanceof IllegalStateException
+    }
+
+    void "cancelling the future cancels the call"() {
+        given:
+        PublishProcessor<Message> response = PublishProcessor.create()
+        telegramBot.sendMessage(_ as SendMessage) >> response
+
+        when:
+        CompletableFuture<Message> future = bot.sendMessage(new SendMessage())
+
+        then:
+        response.hasSubscribers()
+
+        when:
+        future.cancel(false)
+
+        then:
+        !response.hasSubscribers()
+    }
+
+    void "the bean of a bot wraps the TelegramBot bean of the same bot"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run([
+                'telegram.bots.l337.token': '1317288930:AAHkkmwuFBF7XVH-xkYtjfMMWDZabjnEQEE'
+        ])
+
+        when:
+        AsyncTelegramBot asyncBot = applicationContext.getBean(AsyncTelegramBot, Qualifiers.byName('l337'))
+
+        then:
+        asyncBot instanceof DefaultAsyncTelegramBot
+        ((DefaultAsyncTelegramBot) asyncBot).@telegramBot.is(applicationContext.getBean(TelegramBot, Qualifiers.byName('l337')))
+
+        cleanup:
+        applicationContext.close()
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.microchatbots.telegrambots.core.InputMediaDocument
+import com.microchatbots.telegrambots.core.InputMediaPhoto
+import com.microchatbots.telegrambots.core.send.InputFile
+import com.microchatbots.telegrambots.core.send.MediaGroupUpload
+import com.microchatbots.telegrambots.core.send.MediaUpload
+import com.microchatbots.telegrambots.core.send.SendMediaGroup
+import com.microchatbots.telegrambots.core.send.SendPhoto
+import io.micronaut.http.client.multipart.MultipartBody
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.Path
+
+class MultipartUploadsSpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    void "a buffer is read from its position to its limit without being modified"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.wrap('xxhello'.getBytes(StandardCharsets.UTF_8))
+        buffer.position(2)
+        InputFile file = InputFile.of('hello.txt', buffer)
+
+        expect:
+        file.length == 5
+        new String(new ByteBufferInputStream(file.byteBuffer.get()).bytes, StandardCharsets.UTF_8) == 'hello'
+        new String(new ByteBufferInputStream(file.byteBuffer.get()).bytes, StandardCharsets.UTF_8) == 'hello'
+        buffer.position() == 2
+    }
+
+    void "the media is sent in place of the media field of the message"() {
+        given:
+        SendPhoto sendPhoto = new SendPhoto()
+        sendPhoto.chatId = 1
+        sendPhoto.caption = 'caption'
+        sendPhoto.parseMode = 'HTML'
+        MediaUpload<SendPhoto> upload = MediaUpload.photo(sendPhoto, InputFile.of('photo.jpg', ByteBuffer.wrap(new byte[16])))
+
+        when:
+        MultipartBody body = MultipartUploads.body(upload)
+
+        then:
+        body != null
+        upload.method == SendPhoto.SEND_PHOTO
+        upload.field == 'photo'
+    }
+
+    void "the files of a media group are attached to the items uploaded with it"() {
+        given:
+        Path photo = Files.write(directory.resolve('photo.jpg'), new byte[16])
+        MediaGroupUpload upload = new MediaGroupUpload(new SendMediaGroup(chatId: 1))
+                .add(new InputMediaPhoto(media: 'file-id'))
+                .add(new InputMediaPhoto(), InputFile.of(photo))
+                .add(new InputMediaDocument(), InputFile.of('report.txt', ByteBuffer.wrap('report'.getBytes(StandardCharsets.UTF_8))))
+                .add(new InputMediaDocument(), InputFile.of('notes.txt', new ByteArrayInputStream('notes'.getBytes(StandardCharsets.UTF_8)), 5))
+        TemporaryFiles temporaryFiles = new TemporaryFiles()
+
+        when:
+        MultipartBody body = MultipartUploads.body(upload, temporaryFiles, new ObjectMapper()).blockingGet()
+
+        then: 'the small buffer is sent from memory, only the stream is copied to a temporary file'
+        body != null
+        upload.send.media*.media == ['file-id', 'attach://media0', 'attach://media1', 'attach://media2']
+        upload.files.keySet() as List == ['media0', 'media1', 'media2']
+        temporaryFiles.files.size() == 1
+        Files.readAllBytes(temporaryFiles.files.peek()) == 'notes'.getBytes(StandardCharsets.UTF_8)
+
+        when:
+        Path spooled = temporaryFiles.files.peek()
+        temporaryFiles.close()
+
+        then:
+        !Files.exists(spooled)
+    }
+
+    void "a media group with a missing file fails before it is sent"() {
+        given:
+        MediaGroupUpload upload = new MediaGroupUpload(new SendMediaGroup(chatId: 1))
+                .add(new InputMediaPhoto(media: 'file-id'))
+                .add(new InputMediaPhoto(), InputFile.of(directory.resolve('missing.jpg')))
+
+        when:
+        MultipartUploads.body(upload, new TemporaryFiles(), new ObjectMapper()).blockingGet()
+
+        then:
+        RuntimeException e = thrown()
+        e.cause instanceof NoSuchFileException
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.api
+
+import com.microchatbots.telegrambots.core.send.SendMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import spock.lang.Specification
+
+class TelegramBotEndpointsSpec extends Specification {
+
+    void "the uri of every method is resolved once"() {
+        given:
+        TelegramBotEndpoints endpoints = TelegramBotEndpoints.of('123:abc')
+
+        expect:
+        endpoints.uri(SendMessage.METHOD_SENDMESSAGE).toString() == '/bot123:abc/sendMessage'
+        endpoints.uri(SendMessage.METHOD_SENDMESSAGE).is(endpoints.uri(SendMessage.METHOD_SENDMESSAGE))
+        TelegramBotEndpoints.METHODS.every { endpoints.uri(it).toString() == "/bot123:abc/${it}".toString() }
+    }
+
+    void "methods not resolved up front are resolved on first use"() {
+        given:
+        TelegramBotEndpoints endpoints = TelegramBotEndpoints.of('123:abc')
+
+        expect:
+        endpoints.uri('getChat').toString() == '/bot123:abc/getChat'
+        endpoints.uri('getChat').is(endpoints.uri('getChat'))
+    }
+
+    void "configured bots call Telegram with their endpoints through a shared client"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run([
+                'telegram.bots.l337.token': '1317288930:AAHkkmwuFBF7XVH-xkYtjfMMWDZabjnEQEE'
+        ])
+        DefaultTelegramBots defaultTelegramBots = applicationContext.getBean(DefaultTelegramBots)
+
+        when:
+        DefaultTelegramBot first = defaultTelegramBots.create('1:first')
+        DefaultTelegramBot second = defaultTelegramBots.create('2:second')
+
+        then:
+        first.telegramBotClient == null
+        first.httpClient.is(second.httpClient)
+        first.endpoints.uri(SendMessage.METHOD_SENDMESSAGE).toString() == '/bot1:first/sendMessage'
+
+        when: 'a bot is closed'
+        first.close()
+
+        then: 'the shared client is not'
+        first.httpClient.running
+
+        and: 'the bots of the context are built the same way'
+        applicationContext.getBean(TelegramBot, Qualifiers.byName('l337')) != null
+
+        cleanup:
+        applicationContext.close()
+    }
+
+    void "bots call the declarative client when retries are configured"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run(['telegram.client.retry.attempts': 2])
+
+        expect:
+        applicationContext.getBean(DefaultTelegramBots).create('1:first').telegramBotClient != null
+
+        cleanup:
+        applicationContext.close()
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.broadcast
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.microchatbots.telegrambots.api.TelegramApiResponse
+import com.microchatbots.telegrambots.api.TelegramBot
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.send.SendMessage
+import com.microchatbots.telegrambots.core.send.SerializedSendMessage
+import com.microchatbots.telegrambots.outbound.OutboundRateLimitConfigurationProperties
+import com.microchatbots.telegrambots.outbound.OutboundScheduler
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.reactivex.Flowable
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.TimeUnit
+
+class BroadcasterSpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    ObjectMapper objectMapper = new ObjectMapper()
+
+    void "the message is sent to every recipient and the failures are recorded"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        List<Object> chatIds = Collections.synchronizedList([])
+
+        when:
+        Broadcast broadcast = broadcaster().broadcast(telegramBot, request([1, 2, 3, '@channel']))
+        BroadcastMetrics metrics = broadcast.completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        4 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            chatIds << sendMessage.chatId
+            sendMessage.chatId == 2L ? Flowable.error(forbidden()) : Flowable.just(new Message())
+        }
+        chatIds as Set == [1L, 2L, 3L, '@channel'] as Set
+        metrics.recipients == 4
+        metrics.sent == 3
+        metrics.failed == 1
+        metrics.skipped == 0
+
+        when:
+        List<String> failures = Files.readAllLines(broadcast.failuresFile)
+
+        then:
+        failures.size() == 1
+        objectMapper.readTree(failures[0]).get('chat_id').asText() == '2'
+        objectMapper.readTree(failures[0]).get('reason').asText() == 'BLOCKED'
+    }
+
+    void "a broadcast started again resumes where it stopped"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        Broadcaster broadcaster = broadcaster()
+
+        when:
+        broadcaster.broadcast(telegramBot, request([1, 2])).completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        2 * telegramBot.sendMessage(_ as SendMessage) >> Flowable.just(new Message())
+
+        when:
+        BroadcastMetrics metrics = broadcaster.broadcast(telegramBot, request([1, 2, 3])).completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        1 * telegramBot.sendMessage({ it.chatId == 3L }) >> Flowable.just(new Message())
+        metrics.recipients == 3
+        metrics.skipped == 2
+        metrics.sent == 1
+    }
+
+    void "recipients Telegram could not be reached for are sent again when the broadcast is resumed"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        Broadcaster broadcaster = broadcaster()
+
+        when:
+        broadcaster.broadcast(telegramBot, request([1])).completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> Flowable.error(new IOException('connection reset'))
+
+        when:
+        BroadcastMetrics metrics = broadcaster.broadcast(telegramBot, request([1])).completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> Flowable.just(new Message())
+        metrics.sent == 1
+    }
+
+    void "a pre-serialized template is copied for every recipient"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        List<String> json = Collections.synchronizedList([])
+        SerializedSendMessage template = new SerializedSendMessage('announcement', 'Markdown', '"text":"announcement","parse_mode":"Markdown"}')
+
+        when:
+        BroadcastMetrics metrics = broadcaster()
+                .broadcast(telegramBot, new BroadcastRequest<>('serialized', ChatIdSource.of([1, 2]), template))
+                .completion.get(5, TimeUnit.SECONDS)
+
+        then:
+        2 * telegramBot.sendMessage(_ as SerializedSendMessage) >> { SerializedSendMessage sendMessage ->
+            json << sendMessage.toJson()
+            Flowable.just(new Message())
+        }
+        json as Set == ['{"chat_id":"1","text":"announcement","parse_mode":"Markdown"}',
+                        '{"chat_id":"2","text":"announcement","parse_mode":"Markdown"}'] as Set
+        metrics.sent == 2
+        metrics.failed == 0
+        template.chatId == null
+    }
+
+    private Broadcaster broadcaster() {
+        new Broadcaster(new BroadcastConfigurationProperties(directory: directory.toString(), checkpointInterval: 1),
+                new OutboundScheduler(new OutboundRateLimitConfigurationProperties()),
+                objectMapper)
+    }
+
+    private static BroadcastRequest<SendMessage> request(List<Object> chatIds) {
+        SendMessage template = new SendMessage()
+        template.text = 'announcement'
+        new BroadcastRequest<>('announcement', ChatIdSource.of(chatIds), template)
+    }
+
+    private static HttpClientResponseException forbidden() {
+        TelegramApiResponse response = new TelegramApiResponse()
+        response.ok = false
+        response.errorCode = 403
+        response.description = 'Forbidden: bot was blocked by the user'
+        new HttpClientResponseException(HttpStatus.FORBIDDEN.reason, HttpResponse.status(HttpStatus.FORBIDDEN).body(response))
+    }
+}
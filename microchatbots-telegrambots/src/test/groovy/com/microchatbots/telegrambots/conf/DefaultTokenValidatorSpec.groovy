@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.conf
+
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import spock.lang.Specification
+
+class DefaultTokenValidatorSpec extends Specification {
+
+    void "tokens are validated against the index of bots"() {
+        given:
+        List<TelegramBotConfiguration> bots = (1..1000).collect { bot("bot$it", "$it:token-$it") }
+        DefaultTokenValidator validator = new DefaultTokenValidator(bots)
+
+        expect:
+        validator.validate('1:token-1').get().name == 'bot1'
+        validator.validate('1000:token-1000').get().name == 'bot1000'
+        !validator.validate('1:token-2').isPresent()
+        !validator.validate('1:token-1 ').isPresent()
+
+        and:
+        validator.metrics.bots == 1000
+        validator.metrics.lookups == 4
+        validator.metrics.matches == 2
+        validator.metrics.maxLatency >= validator.metrics.averageLatency
+    }
+
+    void "the first bot wins when two bots share a token"() {
+        given:
+        DefaultTokenValidator validator = new DefaultTokenValidator([bot('first', 'token'), bot('second', 'token')])
+
+        expect:
+        validator.validate('token').get().name == 'first'
+    }
+
+    private static TelegramBotConfiguration bot(String name, String token) {
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties(name)
+        bot.token = token
+        bot
+    }
+}
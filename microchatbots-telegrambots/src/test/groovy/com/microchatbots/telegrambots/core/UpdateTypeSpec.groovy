@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core
+
+import spock.lang.Specification
+
+class UpdateTypeSpec extends Specification {
+
+    void "every kind owns a different bit"() {
+        expect:
+        UpdateType.mask(EnumSet.allOf(UpdateType)) == (1 << UpdateType.values().length) - 1
+    }
+
+    void "updates are classified by the field which is present"() {
+        expect:
+        UpdateType.classify(new Update(message: new Message())) == UpdateType.MESSAGE.mask
+        UpdateType.classify(new Update(callbackQuery: new CallbackQuery())) == UpdateType.CALLBACK_QUERY.mask
+        UpdateType.classify(new Update(pollAnswer: new PollAnswer())) == UpdateType.POLL_ANSWER.mask
+        UpdateType.classify(new Update()) == 0
+    }
+
+    void "toString returns the name used by allowed_updates"() {
+        expect:
+        UpdateType.EDITED_CHANNEL_POST.toString() == 'edited_channel_post'
+        UpdateType.PRE_CHECKOUT_QUERY.toString() == 'pre_checkout_query'
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.lazy
+
+import com.microchatbots.telegrambots.api.ApplicationContextSpecification
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.Update
+import spock.lang.Shared
+
+import java.nio.charset.StandardCharsets
+
+class LazyUpdateSpec extends ApplicationContextSpecification {
+
+    @Shared
+    LazyUpdateReader reader = new LazyUpdateReader(objectMapper)
+
+    @Shared
+    String json = '''{
+  "update_id": 10000,
+  "message": {
+    "message_id": 1365,
+    "date": 1441645532,
+    "chat": {"id": 1111111, "type": "private", "first_name": "Test"},
+    "from": {"id": 2222222, "is_bot": false, "first_name": "Test"},
+    "text": "/start now",
+    "entities": [{"type": "bot_command", "offset": 0, "length": 6}],
+    "photo": [{"file_id": "a", "file_unique_id": "b", "width": 90, "height": 51, "file_size": 1101}],
+    "reply_to_message": {
+      "message_id": 1364,
+      "date": 1441645500,
+      "chat": {"id": 1111111, "type": "private", "first_name": "Test"},
+      "text": "héllo",
+      "entities": [{"type": "bold", "offset": 0, "length": 5}]
+    }
+  }
+}'''
+
+    void "lazy getters return the same values as the eagerly bound update"() {
+        given:
+        Update eager = objectMapper.readValue(json, Update)
+
+        when:
+        LazyUpdate lazy = reader.read(json.getBytes(StandardCharsets.UTF_8))
+
+        then:
+        lazy.updateId == eager.updateId
+        lazy.message instanceof LazyMessage
+        lazy.message.messageId == eager.message.messageId
+        lazy.message.chat.id == eager.message.chat.id
+        lazy.message.from.id == eager.message.from.id
+        lazy.message.text == eager.message.text
+        lazy.message.entities*.type == eager.message.entities*.type
+        lazy.message.photo*.fileId == eager.message.photo*.fileId
+        lazy.message.replyToMessage.text == eager.message.replyToMessage.text
+        lazy.message.replyToMessage.entities*.length == eager.message.replyToMessage.entities*.length
+        lazy.callbackQuery == null
+        lazy.message.replyToMessage.replyToMessage == null
+    }
+
+    void "lazy properties are decoded once and can be overwritten"() {
+        given:
+        LazyUpdate lazy = reader.read(json.getBytes(StandardCharsets.UTF_8))
+
+        expect:
+        lazy.message.is(lazy.message)
+        lazy.message.replyToMessage.is(lazy.message.replyToMessage)
+
+        when:
+        Message message = lazy.message
+        message.photo = null
+
+        then:
+        message.photo == null
+    }
+}
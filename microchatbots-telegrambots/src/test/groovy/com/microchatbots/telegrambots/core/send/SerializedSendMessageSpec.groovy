@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.core.send
+
+import com.microchatbots.telegrambots.api.ApplicationContextSpecification
+
+class SerializedSendMessageSpec extends ApplicationContextSpecification {
+
+    void "the pre-serialized JSON matches the JSON of the equivalent SendMessage"() {
+        given:
+        SendMessage template = new SendMessage()
+        template.text = '*Hello* "world"'
+        template.parseMode = ParseMode.MARKDOWN.toString()
+        String fields = SerializedSendMessage.serializedFields(objectMapper.writeValueAsString(template))
+        SerializedSendMessage serialized = new SerializedSendMessage(template.text, template.parseMode, fields)
+        serialized.chatId = chatId
+
+        SendMessage expected = new SendMessage()
+        expected.text = template.text
+        expected.parseMode = template.parseMode
+        expected.chatId = chatId
+
+        expect:
+        objectMapper.readValue(serialized.toJson(), Map) == objectMapper.readValue(objectMapper.writeValueAsString(expected), Map)
+
+        where:
+        chatId << ['123', 'chat"instance']
+    }
+}
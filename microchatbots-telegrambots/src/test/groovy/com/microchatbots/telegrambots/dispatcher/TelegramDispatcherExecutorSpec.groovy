@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher
+
+import com.microchatbots.core.parser.SpaceParser
+import com.microchatbots.core.parser.TextParser
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import com.microchatbots.telegrambots.core.Chat
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.Update
+import com.microchatbots.telegrambots.handler.SendMessageRequestHandler
+import com.microchatbots.telegrambots.parser.TelegramParser
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+
+class TelegramDispatcherExecutorSpec extends Specification {
+
+    @Shared
+    TelegramParser parser = new TelegramParser()
+
+    @Shared
+    @AutoCleanup('shutdownNow')
+    ExecutorService executorService = Executors.newFixedThreadPool(4)
+
+    void "updates of the same chat are dispatched in order"() {
+        given:
+        RecordingHandler handler = new RecordingHandler(parser)
+        TelegramDispatcher dispatcher = new TelegramDispatcher([handler], parser, parser, parser)
+        TelegramDispatcherExecutor executor = new TelegramDispatcherExecutor(dispatcher, configuration(4, 1000), executorService)
+
+        when:
+        List<CompletableFuture<Optional<?>>> futures = []
+        for (int i = 0; i < 100; i++) {
+            for (int chat = 1; chat <= 5; chat++) {
+                futures << executor.submit(bot(), update(chat, "${i}"))
+            }
+        }
+        CompletableFuture.allOf(futures as CompletableFuture[]).join()
+
+        then:
+        (1..5).every { chat -> handler.received[chat] == (0..<100).collect { "${it}".toString() } }
+        executor.depth == 0
+        executor.metrics.sum { it.processed } == 500
+    }
+
+    void "updates submitted to a full lane are rejected"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new RecordingHandler(parser)], parser, parser, parser)
+        ExecutorService idle = Mock(ExecutorService)
+        TelegramDispatcherExecutor executor = new TelegramDispatcherExecutor(dispatcher, configuration(1, 1), idle)
+
+        when:
+        executor.submit(bot(), update(1, 'first'))
+        executor.submit(bot(), update(1, 'second')).get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof RejectedExecutionException
+        executor.metrics[0].depth == 1
+        executor.metrics[0].rejected == 1
+    }
+
+    void "updates are failed and released when the executor rejects the lane"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new RecordingHandler(parser)], parser, parser, parser)
+        ExecutorService shutDown = Executors.newSingleThreadExecutor()
+        shutDown.shutdown()
+        TelegramDispatcherExecutor executor = new TelegramDispatcherExecutor(dispatcher, configuration(1, 10), shutDown)
+
+        when:
+        CompletableFuture<Optional<?>> first = executor.submit(bot(), update(1, 'first'))
+        CompletableFuture<Optional<?>> second = executor.submit(bot(), update(1, 'second'))
+
+        then:
+        first.completedExceptionally
+        second.completedExceptionally
+        executor.depth == 0
+        executor.metrics[0].rejected == 2
+
+        when:
+        first.get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof RejectedExecutionException
+    }
+
+    void "updates left in a lane are failed when the executor rejects the next drain"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new RecordingHandler(parser)], parser, parser, parser)
+        ExecutorService closing = Mock(ExecutorService)
+        Runnable drain = null
+        closing.execute(_ as Runnable) >> { Runnable runnable ->
+            if (drain != null) {
+                throw new RejectedExecutionException('shut down')
+            }
+            drain = runnable
+        }
+        TelegramDispatcherExecutor executor = new TelegramDispatcherExecutor(dispatcher, configuration(1, 100), closing)
+        List<CompletableFuture<Optional<?>>> futures = (1..70).collect { executor.submit(bot(), update(1, "${it}")) }
+
+        when:
+        drain.run()
+
+        then:
+        noExceptionThrown()
+        futures.count { it.completedExceptionally } == 6
+        futures.every { it.done }
+        executor.depth == 0
+        executor.metrics[0].processed == 64
+        executor.metrics[0].rejected == 6
+    }
+
+    private static TelegramDispatcherExecutorConfiguration configuration(int lanes, int queueCapacity) {
+        new TelegramDispatcherExecutorConfigurationProperties(lanes: lanes, queueCapacity: queueCapacity)
+    }
+
+    private static TelegramBotConfiguration bot() {
+        new TelegramBotConfigurationProperties('test').tap {
+            token = 'token'
+            atUsername = '@testbot'
+        }
+    }
+
+    private static Update update(int chatId, String text) {
+        Update update = new Update()
+        update.updateId = 1
+        update.message = new Message(chat: new Chat(id: chatId), text: text)
+        update
+    }
+
+    static class RecordingHandler extends SendMessageRequestHandler {
+        final Map<Integer, List<String>> received = new ConcurrentHashMap<>()
+
+        RecordingHandler(TelegramParser parser) {
+            super(parser as SpaceParser<Update>, parser as TextParser<Update>)
+        }
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            received.computeIfAbsent(update.message.chat.id, { k -> [] }) << update.message.text
+            true
+        }
+
+        @Override
+        Optional<String> getResponse(String text) {
+            Optional.of(text)
+        }
+    }
+}
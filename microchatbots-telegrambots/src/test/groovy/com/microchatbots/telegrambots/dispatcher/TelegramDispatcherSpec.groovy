@@ -0,0 +1,354 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher
+
+import com.microchatbots.core.conf.BotConfiguration
+import com.microchatbots.core.parser.SpaceParser
+import com.microchatbots.core.parser.TextParser
+import com.microchatbots.core.request.RequestContext
+import com.microchatbots.telegrambots.annotation.TelegramCallback
+import com.microchatbots.telegrambots.annotation.TelegramCommand
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import com.microchatbots.telegrambots.core.CallbackQuery
+import com.microchatbots.telegrambots.core.Chat
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.Update
+import com.microchatbots.telegrambots.core.UpdateType
+import com.microchatbots.telegrambots.handler.SendMessageCommandHandler
+import com.microchatbots.telegrambots.handler.SendMessageRequestHandler
+import com.microchatbots.telegrambots.handler.TelegramAsyncRequestHandler
+import com.microchatbots.telegrambots.handler.TelegramRequestHandler
+import com.microchatbots.telegrambots.parser.TelegramParser
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.Shared
+import spock.lang.Specification
+
+class TelegramDispatcherSpec extends Specification {
+
+    @Shared
+    TelegramParser parser = new TelegramParser()
+
+    @Shared
+    TelegramBotConfiguration bot = botConfiguration()
+
+    void "commands are routed to the handler registered for them"() {
+        given:
+        CountingCommandHandler start = new CountingCommandHandler(parser, 'start', 0)
+        CountingCommandHandler help = new CountingCommandHandler(parser, 'help', 0)
+        TelegramDispatcher dispatcher = new TelegramDispatcher([start, help, new EchoHandler(parser, 10)], parser, parser, parser)
+
+        when:
+        Optional<?> response = dispatcher.dispatch(bot, update('/help'))
+
+        then:
+        response.get().text == 'help'
+        help.canHandleInvocations == 1
+        start.canHandleInvocations == 0
+    }
+
+    void "updates without a known command are handled by the fallback handlers"() {
+        given:
+        CountingCommandHandler start = new CountingCommandHandler(parser, 'start', 0)
+        TelegramDispatcher dispatcher = new TelegramDispatcher([start, new EchoHandler(parser, 10)], parser, parser, parser)
+
+        when:
+        Optional<?> response = dispatcher.dispatch(bot, update(text))
+
+        then:
+        response.get().text == 'echo'
+        start.canHandleInvocations == 0
+
+        where:
+        text << ['hello', '/unknown']
+    }
+
+    void "order is honoured between command and fallback handlers"() {
+        given:
+        CountingCommandHandler start = new CountingCommandHandler(parser, 'start', 10)
+        TelegramDispatcher dispatcher = new TelegramDispatcher([start, new EchoHandler(parser, 0)], parser, parser, parser)
+
+        expect:
+        dispatcher.dispatch(bot, update('/start')).get().text == 'echo'
+    }
+
+    void "the bot username is ignored when routing commands"() {
+        given:
+        CountingCommandHandler start = new CountingCommandHandler(parser, 'start', 0)
+        TelegramDispatcher dispatcher = new TelegramDispatcher([start] as List<TelegramRequestHandler<?>>, parser, parser, parser)
+
+        expect:
+        dispatcher.dispatch(bot, update('/start@testbot')).get().text == 'start'
+        !dispatcher.dispatch(bot, update('start')).isPresent()
+    }
+
+    void "an update is parsed once regardless of the number of handlers"() {
+        given:
+        CountingParser countingParser = new CountingParser()
+        List<TelegramRequestHandler<?>> handlers = [
+                new CountingCommandHandler(countingParser, 'start', 0),
+                new CountingCommandHandler(countingParser, 'help', 0),
+                new EchoHandler(countingParser, 10)
+        ]
+        TelegramDispatcher dispatcher = new TelegramDispatcher(handlers, countingParser, countingParser, countingParser)
+
+        when:
+        Optional<?> response = dispatcher.dispatch(bot, update('/help me'))
+
+        then:
+        response.get().text == 'help'
+        countingParser.parseTextInvocations == 1
+    }
+
+    void "context exposes the command and its arguments"() {
+        when:
+        RequestContext<Update> context = new TelegramDispatcher([], parser, parser, parser)
+                .createContext(bot, update('/weather@testbot  Madrid Spain '))
+
+        then:
+        context.spaceUniqueIdentifier.get() == 1
+        context.text.get() == '/weather@testbot  Madrid Spain '
+        context.textWithoutBotName.get() == '/weather  Madrid Spain'
+        context.command.get() == 'weather'
+        context.arguments.get() == 'Madrid Spain'
+    }
+
+    void "dispatchAsync publishes the output of asynchronous handlers"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new AsyncEchoHandler(), new EchoHandler(parser, 10)], parser, parser, parser)
+
+        expect:
+        Flowable.fromPublisher(dispatcher.dispatchAsync(bot, update('async'))).blockingFirst() == 'async'
+        dispatcher.dispatch(bot, update('async')).get() == 'async'
+    }
+
+    void "dispatchAsync runs blocking handlers and completes empty when no handler matches"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new CountingCommandHandler(parser, 'start', 0)], parser, parser, parser)
+
+        expect:
+        Flowable.fromPublisher(dispatcher.dispatchAsync(bot, update('/start'))).blockingFirst().text == 'start'
+        Flowable.fromPublisher(dispatcher.dispatchAsync(bot, update('hello'))).toList().blockingGet().isEmpty()
+    }
+
+    void "handlers are not asked about update kinds they do not accept"() {
+        given:
+        CallbackHandler callbackHandler = new CallbackHandler()
+        TelegramDispatcher dispatcher = new TelegramDispatcher([callbackHandler, new EchoHandler(parser, 10)], parser, parser, parser)
+
+        when:
+        Optional<?> response = dispatcher.dispatch(bot, update('hello'))
+
+        then:
+        response.get().text == 'echo'
+        callbackHandler.canHandleInvocations == 0
+    }
+
+    void "handlers annotated with TelegramCommand are routed by command"() {
+        given:
+        PingHandler ping = new PingHandler()
+        TelegramDispatcher dispatcher = new TelegramDispatcher([ping, new EchoHandler(parser, 10)], parser, parser, parser)
+
+        expect:
+        dispatcher.dispatch(bot, update('/ping')).get() == 'pong'
+        dispatcher.dispatch(bot, update('hello')).get().text == 'echo'
+        ping.canHandleInvocations == 1
+    }
+
+    void "handlers annotated with TelegramCallback are routed by the longest callback data prefix"() {
+        given:
+        TelegramDispatcher dispatcher = new TelegramDispatcher([new VoteHandler(), new UpVoteHandler()], parser, parser, parser)
+
+        expect:
+        dispatcher.dispatch(bot, callback('vote:down')).get() == 'vote'
+        dispatcher.dispatch(bot, callback('vote:up:1')).get() == 'up'
+        !dispatcher.dispatch(bot, callback('other')).isPresent()
+        !dispatcher.dispatch(bot, update('vote:up')).isPresent()
+    }
+
+    private static TelegramBotConfiguration botConfiguration() {
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties('test')
+        bot.token = 'token'
+        bot.atUsername = '@testbot'
+        bot
+    }
+
+    private static Update update(String text) {
+        Chat chat = new Chat()
+        chat.id = 1
+        Message message = new Message()
+        message.chat = chat
+        message.text = text
+        Update update = new Update()
+        update.updateId = 1
+        update.message = message
+        update
+    }
+
+    private static Update callback(String data) {
+        CallbackQuery callbackQuery = new CallbackQuery()
+        callbackQuery.data = data
+        Update update = new Update()
+        update.updateId = 1
+        update.callbackQuery = callbackQuery
+        update
+    }
+
+    static class CountingCommandHandler extends SendMessageCommandHandler {
+        private final String name
+        private final int priority
+        int canHandleInvocations = 0
+
+        CountingCommandHandler(TelegramParser parser, String name, int priority) {
+            super(parser as SpaceParser<Update>, parser as TextParser<Update>)
+            this.name = name
+            this.priority = priority
+        }
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, RequestContext<Update> context) {
+            canHandleInvocations++
+            super.canHandle(telegramBotConfiguration, context)
+        }
+
+        @Override
+        protected String getText(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            name
+        }
+
+        @Override
+        protected String getCommandName() {
+            name
+        }
+
+        @Override
+        int getOrder() {
+            priority
+        }
+    }
+
+    static class EchoHandler extends SendMessageRequestHandler {
+        private final int priority
+
+        EchoHandler(TelegramParser parser, int priority) {
+            super(parser as SpaceParser<Update>, parser as TextParser<Update>)
+            this.priority = priority
+        }
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            true
+        }
+
+        @Override
+        Optional<String> getResponse(String text) {
+            Optional.of('echo')
+        }
+
+        @Override
+        int getOrder() {
+            priority
+        }
+    }
+
+    static class CountingParser extends TelegramParser {
+        int parseTextInvocations = 0
+
+        @Override
+        Optional<String> parseText(BotConfiguration botConfiguration, Update update, boolean excludeBotName) {
+            parseTextInvocations++
+            super.parseText(botConfiguration, update, excludeBotName)
+        }
+    }
+
+    static class AsyncEchoHandler implements TelegramAsyncRequestHandler<String> {
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            update.message.text == 'async'
+        }
+
+        @Override
+        Publisher<String> handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            Flowable.just(update.message.text)
+        }
+    }
+
+    static class CallbackHandler implements TelegramRequestHandler<String> {
+        int canHandleInvocations = 0
+
+        @Override
+        Set<UpdateType> getUpdateTypes() {
+            EnumSet.of(UpdateType.CALLBACK_QUERY)
+        }
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            canHandleInvocations++
+            true
+        }
+
+        @Override
+        String handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            'callback'
+        }
+    }
+
+    @TelegramCommand('ping')
+    static class PingHandler implements TelegramRequestHandler<String> {
+        int canHandleInvocations = 0
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            canHandleInvocations++
+            true
+        }
+
+        @Override
+        String handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            'pong'
+        }
+    }
+
+    @TelegramCallback('vote:')
+    static class VoteHandler implements TelegramRequestHandler<String> {
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            true
+        }
+
+        @Override
+        String handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            'vote'
+        }
+    }
+
+    @TelegramCallback('vote:up:')
+    static class UpVoteHandler implements TelegramRequestHandler<String> {
+
+        @Override
+        boolean canHandle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            true
+        }
+
+        @Override
+        String handle(TelegramBotConfiguration telegramBotConfiguration, Update update) {
+            'up'
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.dispatcher
+
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class UpdateDeduplicatorSpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    void "an update id is only new the first time it is seen"() {
+        given:
+        UpdateIdWindow window = UpdateIdWindow.inMemory(100)
+
+        expect:
+        window.windowSize == 128
+        window.markSeen(10)
+        window.markSeen(12)
+        !window.markSeen(10)
+        !window.markSeen(12)
+        window.markSeen(11)
+        !window.markSeen(11)
+    }
+
+    void "slots reused by newer update ids are cleared"() {
+        given:
+        UpdateIdWindow window = UpdateIdWindow.inMemory(64)
+
+        expect:
+        window.markSeen(1)
+        window.markSeen(60)
+        window.markSeen(65)
+        !window.markSeen(60)
+        window.markSeen(64)
+        !window.markSeen(65)
+    }
+
+    void "update ids outside the window are considered new"() {
+        given:
+        UpdateIdWindow window = UpdateIdWindow.inMemory(64)
+
+        expect:
+        window.markSeen(1000)
+        window.markSeen(5)
+        !window.markSeen(5)
+        window.markSeen(1000)
+    }
+
+    void "a forgotten update id is new again"() {
+        given:
+        UpdateIdWindow window = UpdateIdWindow.inMemory(64)
+
+        expect:
+        window.markSeen(10)
+        window.markSeen(11)
+
+        when:
+        window.forget(10)
+
+        then:
+        window.markSeen(10)
+        !window.markSeen(11)
+    }
+
+    void "a memory-mapped window survives being reopened"() {
+        given:
+        Path file = directory.resolve('bot.updates')
+        UpdateIdWindow window = UpdateIdWindow.mapped(file, 256)
+
+        when:
+        window.markSeen(42)
+        window.close()
+        UpdateIdWindow reopened = UpdateIdWindow.mapped(file, 256)
+
+        then:
+        !reopened.markSeen(42)
+        reopened.markSeen(43)
+    }
+
+    void "updates are de-duplicated per bot"() {
+        given:
+        UpdateDeduplicationConfigurationProperties configuration = new UpdateDeduplicationConfigurationProperties()
+        configuration.directory = directory.toString()
+        UpdateDeduplicator deduplicator = new UpdateDeduplicator(configuration)
+        TelegramBotConfigurationProperties first = new TelegramBotConfigurationProperties('first')
+        TelegramBotConfigurationProperties second = new TelegramBotConfigurationProperties('second')
+
+        expect:
+        !deduplicator.isDuplicate(first, 1)
+        deduplicator.isDuplicate(first, 1)
+        !deduplicator.isDuplicate(second, 1)
+        !deduplicator.isDuplicate(first, (Integer) null)
+
+        when:
+        configuration.enabled = false
+
+        then:
+        !deduplicator.isDuplicate(first, 1)
+
+        cleanup:
+        deduplicator.close()
+    }
+
+    void "dispatch fails, redelivery is processed"() {
+        given:
+        UpdateDeduplicator deduplicator = new UpdateDeduplicator(new UpdateDeduplicationConfigurationProperties())
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties('bot')
+        int dispatched = 0
+        Closure<Boolean> deliver = { boolean fail ->
+            if (deduplicator.isDuplicate(bot, 7)) {
+                return false
+            }
+            try {
+                dispatched++
+                if (fail) {
+                    throw new IllegalStateException('handler failed')
+                }
+                return true
+            } catch (IllegalStateException e) {
+                deduplicator.forget(bot, 7)
+                return false
+            }
+        }
+
+        when: 'the first delivery fails and Telegram redelivers the update'
+        deliver(true)
+        boolean redelivered = deliver(false)
+
+        then: 'the redelivery is dispatched'
+        redelivered
+        dispatched == 2
+
+        when: 'Telegram redelivers an update dispatched successfully'
+        boolean duplicate = deliver(false)
+
+        then: 'it is discarded'
+        !duplicate
+        dispatched == 2
+
+        cleanup:
+        deduplicator.close()
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.download
+
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration
+import com.microchatbots.telegrambots.core.File
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import io.micronaut.http.client.StreamingHttpClient
+import io.reactivex.Completable
+import io.reactivex.Flowable
+import io.reactivex.observers.TestObserver
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+class TelegramFileDownloaderSpec extends Specification {
+
+    static final byte[] CONTENT = ('0123456789' * 1000).getBytes(StandardCharsets.US_ASCII)
+
+    @TempDir
+    Path directory
+
+    List<String> ranges = []
+    boolean rangesSupported = true
+
+    @AutoCleanup('stop(0)')
+    HttpServer server = start()
+
+    @AutoCleanup
+    StreamingHttpClient httpClient = StreamingHttpClient.create(new URL("http://localhost:${server.address.port}"))
+
+    TelegramFileDownloader downloader = new TelegramFileDownloader(httpClient, new FileDownloadConfigurationProperties())
+
+    TelegramBotConfiguration bot = Stub() {
+        getName() >> 'acme'
+        getToken() >> '123:abc'
+    }
+
+    void "a file is streamed to disk"() {
+        given:
+        Path path = directory.resolve('document.txt')
+
+        when:
+        FileDownload download = Flowable.fromPublisher(downloader.download(bot, file(), path)).blockingFirst()
+
+        then:
+        ranges == [null]
+        !download.resumed
+        download.length == CONTENT.length
+        Files.readAllBytes(path) == CONTENT
+    }
+
+    void "a partial file is resumed with a range request"() {
+        given:
+        Path path = Files.write(directory.resolve('document.txt'), Arrays.copyOf(CONTENT, 4000))
+
+        when:
+        FileDownload download = Flowable.fromPublisher(downloader.download(bot, file(), path)).blockingFirst()
+
+        then:
+        ranges == ['bytes=4000-']
+        download.resumed
+        download.downloaded == CONTENT.length - 4000
+        Files.readAllBytes(path) == CONTENT
+    }
+
+    void "a partial file is downloaded again when the server ignores the range"() {
+        given:
+        rangesSupported = false
+        Path path = Files.write(directory.resolve('document.txt'), 'stale'.bytes)
+
+        when:
+        FileDownload download = Flowable.fromPublisher(downloader.download(bot, file(), path)).blockingFirst()
+
+        then:
+        ranges == ['bytes=5-']
+        !download.resumed
+        Files.readAllBytes(path) == CONTENT
+    }
+
+    void "a complete file is not downloaded again"() {
+        given:
+        Path path = Files.write(directory.resolve('document.txt'), CONTENT)
+
+        when:
+        FileDownload download = Flowable.fromPublisher(downloader.download(bot, file(), path)).blockingFirst()
+
+        then:
+        ranges.empty
+        download.downloaded == 0
+    }
+
+    void "downloads beyond the limit of a bot are queued and run in turn"() {
+        given:
+        FileDownloadConfigurationProperties configuration = new FileDownloadConfigurationProperties()
+        configuration.maxConcurrentDownloads = 1
+        TelegramFileDownloader downloader = new TelegramFileDownloader(httpClient, configuration)
+
+        when:
+        List<FileDownload> downloads = Flowable.range(0, 3)
+                .flatMap({ i -> Flowable.fromPublisher(downloader.download(bot, file(), directory.resolve("document${i}.txt"))) })
+                .toList()
+                .blockingGet()
+
+        then:
+        downloads.size() == 3
+        (0..2).every { Files.readAllBytes(directory.resolve("document${it}.txt")) == CONTENT }
+    }
+
+    void "a permit is granted in turn, without waiting on a thread, and skips cancelled downloads"() {
+        given:
+        DownloadPermits permits = new DownloadPermits(1)
+        DownloadPermits.Permit first = permits.newPermit()
+        DownloadPermits.Permit second = permits.newPermit()
+        DownloadPermits.Permit third = permits.newPermit()
+
+        when:
+        TestObserver<Void> firstObserver = Completable.create(first).test()
+        TestObserver<Void> secondObserver = Completable.create(second).test()
+        TestObserver<Void> thirdObserver = Completable.create(third).test()
+
+        then:
+        firstObserver.assertComplete()
+        secondObserver.assertNotComplete()
+        thirdObserver.assertNotComplete()
+
+        when:
+        secondObserver.dispose()
+        second.close()
+        first.close()
+
+        then:
+        secondObserver.assertNotComplete()
+        thirdObserver.assertComplete()
+    }
+
+    private static File file() {
+        new File(fileId: 'id', fileUniqueId: 'unique', filePath: 'documents/file_1.txt', fileSize: CONTENT.length)
+    }
+
+    private HttpServer start() {
+        HttpServer server = HttpServer.create(new InetSocketAddress('localhost', 0), 0)
+        server.createContext('/file/bot123:abc/documents/file_1.txt') { HttpExchange exchange ->
+            String range = exchange.requestHeaders.getFirst('Range')
+            ranges << range
+            int offset = range && rangesSupported ? range.substring('bytes='.length(), range.length() - 1) as int : 0
+            exchange.sendResponseHeaders(offset > 0 ? 206 : 200, CONTENT.length - offset)
+            exchange.responseBody.withCloseable { it.write(CONTENT, offset, CONTENT.length - offset) }
+        }
+        server.start()
+        server
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.json
+
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException
+import com.microchatbots.telegrambots.api.ApplicationContextSpecification
+import com.microchatbots.telegrambots.api.WebhookInfo
+import com.microchatbots.telegrambots.core.Update
+import com.microchatbots.telegrambots.core.send.SendMessage
+import com.microchatbots.telegrambots.core.send.SendPhoto
+import spock.lang.Shared
+
+class TelegramJacksonModuleSpec extends ApplicationContextSpecification {
+
+    @Shared
+    ObjectMapper reflective = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+
+    @Shared
+    ObjectMapper introspected = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new TelegramJacksonModule())
+
+    @Shared
+    String json = '''{
+  "update_id": 10000,
+  "unknown_field": {"nested": [1, 2]},
+  "message": {
+    "message_id": 1365,
+    "date": 1441645532,
+    "chat": {"id": 1111111, "type": "private", "first_name": "Test"},
+    "from": {"id": 2222222, "is_bot": false, "first_name": "Test"},
+    "text": "/start now",
+    "caption": null,
+    "entities": [{"type": "bot_command", "offset": 0, "length": 6}],
+    "reply_to_message": {"message_id": 1364, "date": 1441645500, "text": "hello"}
+  }
+}'''
+
+    void "the module is registered in the application object mapper"() {
+        expect:
+        applicationContext.containsBean(TelegramJacksonModule)
+        objectMapper.registeredModuleIds.contains(TelegramJacksonModule.simpleName)
+    }
+
+    void "introspected deserializers bind the same update as the reflective ones"() {
+        when:
+        Update expected = reflective.readValue(json, Update)
+        Update update = introspected.readValue(json, Update)
+
+        then:
+        update.updateId == 10000
+        update.message.entities.size() == 1
+        update.message.replyToMessage.text == 'hello'
+        reflective.valueToTree(update) == reflective.valueToTree(expected)
+    }
+
+    void "unknown properties fail when the object mapper is configured to"() {
+        given:
+        ObjectMapper strict = new ObjectMapper().registerModule(new TelegramJacksonModule())
+
+        when:
+        strict.readValue('{"update_id":1,"unknown_field":true}', Update)
+
+        then:
+        thrown(UnrecognizedPropertyException)
+    }
+
+    void "introspected deserializers read webhook info"() {
+        when:
+        WebhookInfo info = introspected.readValue('{"url":"https://example.com","pending_update_count":3,"allowed_updates":["message"]}', WebhookInfo)
+
+        then:
+        info.url == 'https://example.com'
+        info.pendingUpdateCount == 3
+        info.allowedUpdates == ['message']
+    }
+
+    void "introspected serializers write the same json as the reflective ones"() {
+        given:
+        SendMessage sendMessage = new SendMessage()
+        sendMessage.chatId = 1111
+        sendMessage.text = 'Hello *world*'
+        sendMessage.parseMode = 'MarkdownV2'
+        SendPhoto sendPhoto = new SendPhoto()
+        sendPhoto.chatId = '@channel'
+        sendPhoto.photo = 'file-id'
+
+        expect:
+        introspected.readTree(introspected.writeValueAsString(sendMessage)) == reflective.readTree(reflective.writeValueAsString(sendMessage))
+        introspected.readTree(introspected.writeValueAsString(sendPhoto)) == reflective.readTree(reflective.writeValueAsString(sendPhoto))
+        !introspected.writeValueAsString(sendMessage).contains('null')
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound
+
+import com.microchatbots.telegrambots.api.TelegramBot
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.send.SendMessage
+import com.microchatbots.telegrambots.core.send.SendPhoto
+import io.reactivex.Flowable
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subscribers.TestSubscriber
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class CoalescingTelegramBotSpec extends Specification {
+
+    TestScheduler scheduler = new TestScheduler()
+    TelegramBot telegramBot = Mock()
+    List<SendMessage> sent = []
+    CoalescingTelegramBot bot = new CoalescingTelegramBot(telegramBot,
+            new MessageCoalescingConfigurationProperties(enabled: true, window: Duration.ofMillis(50), maxLength: 8),
+            scheduler)
+
+    void "consecutive messages to a chat within the window are sent as one message"() {
+        given:
+        Message message = new Message()
+
+        when:
+        TestSubscriber<Message> first = subscribe(bot.sendMessage('one', 1))
+        TestSubscriber<Message> second = subscribe(bot.sendMessage('two', 1))
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            sent << sendMessage
+            Flowable.just(message)
+        }
+        sent*.text == ['one\ntwo']
+        first.values() == [message]
+        second.values() == [message]
+    }
+
+    void "messages which do not fit or are not compatible start a new message"() {
+        when:
+        subscribe(bot.sendMessage('one', 1))
+        subscribe(bot.sendMessage('three', 1))
+        subscribe(bot.sendMessage(new SendMessage(chatId: 1, text: 'four', parseMode: 'HTML')))
+        subscribe(bot.sendMessage('five', 2))
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS)
+
+        then:
+        4 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            sent << sendMessage
+            Flowable.just(new Message())
+        }
+        sent*.text as Set == ['one', 'three', 'four', 'five'] as Set
+        sent.findAll { it.chatId == 1 }*.text == ['one', 'three', 'four']
+    }
+
+    void "other calls to the chat are made in order, after the pending messages"() {
+        given:
+        List<String> calls = []
+
+        when:
+        subscribe(bot.sendMessage('one', 1))
+        subscribe(bot.sendPhoto(new SendPhoto(chatId: 1, photo: 'photo')))
+        subscribe(bot.sendMessage('two', 1))
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS)
+
+        then:
+        2 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            calls << sendMessage.text
+            Flowable.just(new Message())
+        }
+        1 * telegramBot.sendPhoto(_ as SendPhoto) >> {
+            calls << 'photo'
+            Flowable.just(new Message())
+        }
+        calls == ['one', 'photo', 'two']
+    }
+
+    void "an error is reported to every merged message"() {
+        when:
+        TestSubscriber<Message> first = subscribe(bot.sendMessage('one', 1))
+        TestSubscriber<Message> second = subscribe(bot.sendMessage('two', 1))
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> Flowable.error(new IllegalStateException())
+        first.assertError(IllegalStateException)
+        second.assertError(IllegalStateException)
+    }
+
+    private static TestSubscriber<Message> subscribe(Object publisher) {
+        Flowable.fromPublisher(publisher).test()
+    }
+}
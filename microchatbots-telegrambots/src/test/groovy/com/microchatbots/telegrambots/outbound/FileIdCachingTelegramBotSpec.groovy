@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound
+
+import com.microchatbots.telegrambots.api.BlockingTelegramBot
+import com.microchatbots.telegrambots.api.TelegramApiResponse
+import com.microchatbots.telegrambots.core.Document
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.PhotoSize
+import com.microchatbots.telegrambots.core.send.InputFile
+import com.microchatbots.telegrambots.core.send.MediaUpload
+import com.microchatbots.telegrambots.core.send.SendDocument
+import com.microchatbots.telegrambots.core.send.SendPhoto
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+class FileIdCachingTelegramBotSpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    BlockingTelegramBot telegramBot = Mock()
+
+    void "media uploaded again are sent by file_id"() {
+        given:
+        FileIdCache cache = new FileIdCache(10, null)
+        FileIdCachingBlockingTelegramBot bot = new FileIdCachingBlockingTelegramBot(telegramBot, cache)
+        Path logo = Files.write(directory.resolve('logo.png'), 'logo'.bytes)
+
+        when:
+        bot.upload(MediaUpload.photo(new SendPhoto(chatId: 1), InputFile.of(logo)))
+
+        then:
+        1 * telegramBot.upload(_) >> photo('small', 'large')
+
+        when:
+        SendPhoto sendPhoto = new SendPhoto(chatId: 2)
+        bot.upload(MediaUpload.photo(sendPhoto, InputFile.of('logo.png', ByteBuffer.wrap('logo'.bytes))))
+
+        then:
+        0 * telegramBot.upload(_)
+        1 * telegramBot.sendPhoto({ it.photo == 'large' && it.chatId == 2 && !it.is(sendPhoto) }) >> new Message()
+        sendPhoto.photo == null
+        cache.metrics.memoryHits == 1
+        cache.metrics.misses == 1
+        cache.metrics.hitRate == 0.5d
+    }
+
+    void "file_ids are read back from the persistent tier"() {
+        given:
+        Path logo = Files.write(directory.resolve('logo.png'), 'logo'.bytes)
+        FileIdCachingBlockingTelegramBot first = new FileIdCachingBlockingTelegramBot(telegramBot, new FileIdCache(10, directory.resolve('bot')))
+        FileIdCache cache = new FileIdCache(10, directory.resolve('bot'))
+        FileIdCachingBlockingTelegramBot second = new FileIdCachingBlockingTelegramBot(telegramBot, cache)
+
+        when:
+        first.upload(MediaUpload.document(new SendDocument(chatId: 1), InputFile.of(logo)))
+        second.upload(MediaUpload.document(new SendDocument(chatId: 1), InputFile.of(logo)))
+
+        then:
+        1 * telegramBot.upload(_) >> new Message(document: new Document(fileId: 'doc'))
+        1 * telegramBot.sendDocument({ it.document == 'doc' }) >> new Message()
+        cache.metrics.persistentHits == 1
+    }
+
+    void "a file_id Telegram rejects is forgotten and the media uploaded"() {
+        given:
+        FileIdCache cache = new FileIdCache(10, null)
+        FileIdCachingBlockingTelegramBot bot = new FileIdCachingBlockingTelegramBot(telegramBot, cache)
+        ByteBuffer logo = ByteBuffer.wrap('logo'.getBytes(StandardCharsets.UTF_8))
+        String key = cache.key(MediaUpload.photo(new SendPhoto(), InputFile.of('logo.png', logo))).get()
+        cache.put(key, 'stale')
+
+        when:
+        bot.upload(MediaUpload.photo(new SendPhoto(chatId: 1), InputFile.of('logo.png', logo)))
+
+        then:
+        1 * telegramBot.sendPhoto(_) >> { throw error('Bad Request: wrong file identifier/HTTP URL specified') }
+        1 * telegramBot.upload(_) >> photo('fresh')
+        cache.get(key).get() == 'fresh'
+    }
+
+    void "a file_id is kept when Telegram rejects the message for another reason"() {
+        given:
+        FileIdCache cache = new FileIdCache(10, null)
+        FileIdCachingBlockingTelegramBot bot = new FileIdCachingBlockingTelegramBot(telegramBot, cache)
+        ByteBuffer logo = ByteBuffer.wrap('logo'.getBytes(StandardCharsets.UTF_8))
+        String key = cache.key(MediaUpload.photo(new SendPhoto(), InputFile.of('logo.png', logo))).get()
+        cache.put(key, 'valid')
+
+        when:
+        bot.upload(MediaUpload.photo(new SendPhoto(chatId: 1), InputFile.of('logo.png', logo)))
+
+        then:
+        1 * telegramBot.sendPhoto(_) >> { throw error('Bad Request: chat not found') }
+        0 * telegramBot.upload(_)
+        thrown(HttpClientResponseException)
+        cache.get(key).get() == 'valid'
+    }
+
+    void "media uploaded from a stream are not cached"() {
+        given:
+        FileIdCache cache = new FileIdCache(10, null)
+        FileIdCachingBlockingTelegramBot bot = new FileIdCachingBlockingTelegramBot(telegramBot, cache)
+
+        when:
+        2.times {
+            bot.upload(MediaUpload.photo(new SendPhoto(chatId: 1), InputFile.of('logo.png', new ByteArrayInputStream('logo'.bytes), 4)))
+        }
+
+        then:
+        2 * telegramBot.upload(_) >> photo('large')
+        cache.metrics.lookups == 0
+    }
+
+    private static HttpClientResponseException error(String description) {
+        TelegramApiResponse response = new TelegramApiResponse()
+        response.ok = false
+        response.errorCode = 400
+        response.description = description
+        new HttpClientResponseException('Bad Request', HttpResponse.status(HttpStatus.BAD_REQUEST).body(response))
+    }
+
+    private static Message photo(String... fileIds) {
+        new Message(photo: fileIds.collect { new PhotoSize(fileId: it) })
+    }
+}
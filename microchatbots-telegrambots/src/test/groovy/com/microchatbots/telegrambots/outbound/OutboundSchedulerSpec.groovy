@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound
+
+import io.reactivex.Flowable
+import io.reactivex.subscribers.TestSubscriber
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class OutboundSchedulerSpec extends Specification {
+
+    void "a token bucket lets a burst through and then spaces the permits"() {
+        given:
+        TokenBucket bucket = new TokenBucket(10, Duration.ofSeconds(1), 3)
+        long now = System.nanoTime()
+
+        expect:
+        bucket.reserve(now) == 0
+        bucket.reserve(now) == 0
+        bucket.reserve(now) == 0
+        bucket.reserve(now) == TimeUnit.MILLISECONDS.toNanos(100)
+        bucket.reserve(now) == TimeUnit.MILLISECONDS.toNanos(200)
+        !bucket.isIdle(now)
+        bucket.isIdle(now + TimeUnit.SECONDS.toNanos(1))
+    }
+
+    void "messages to the same chat wait for the chat limit"() {
+        given:
+        OutboundScheduler scheduler = new OutboundScheduler(new OutboundRateLimitConfigurationProperties())
+
+        expect:
+        scheduler.reserveChat('bot', 1) == 0
+        scheduler.reserveChat('bot', 2) == 0
+        scheduler.reserveChat('bot', 1) > TimeUnit.MILLISECONDS.toNanos(900)
+        scheduler.reserveChat('bot', -100) == 0
+        scheduler.reserveChat('bot', -100) > TimeUnit.SECONDS.toNanos(2)
+        scheduler.reserveChat('other', 1) == 0
+    }
+
+    void "the bot limit applies across chats"() {
+        given:
+        OutboundRateLimitConfigurationProperties configuration = new OutboundRateLimitConfigurationProperties()
+        configuration.botMessagesPerSecond = 2
+
+        OutboundScheduler scheduler = new OutboundScheduler(configuration)
+
+        expect:
+        scheduler.reserveBot('bot') == 0
+        scheduler.reserveBot('bot') == 0
+        scheduler.reserveBot('bot') > 0
+        scheduler.reserveBot('other') == 0
+    }
+
+    void "a call waiting for its chat does not hold a permit of the bot"() {
+        given:
+        OutboundRateLimitConfigurationProperties configuration = new OutboundRateLimitConfigurationProperties()
+        configuration.botMessagesPerSecond = 2
+        OutboundScheduler scheduler = new OutboundScheduler(configuration)
+
+        when:
+        String first = Flowable.fromPublisher(scheduler.schedule('bot', 1, { -> Flowable.just('first') })).blockingFirst()
+        TestSubscriber<String> second = Flowable.fromPublisher(scheduler.schedule('bot', 1, { -> Flowable.just('second') })).test()
+        long start = System.nanoTime()
+        String third = Flowable.fromPublisher(scheduler.schedule('bot', 2, { -> Flowable.just('third') })).blockingFirst()
+
+        then:
+        first == 'first'
+        third == 'third'
+        System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(400)
+        scheduler.waiting == 1
+
+        when:
+        second.awaitDone(3, TimeUnit.SECONDS)
+
+        then:
+        second.assertValue('second')
+        scheduler.waiting == 0
+    }
+
+    void "scheduled calls are delayed and pacing can be disabled"() {
+        given:
+        OutboundRateLimitConfigurationProperties configuration = new OutboundRateLimitConfigurationProperties()
+        configuration.chatMessagesPerSecond = 10
+        OutboundScheduler scheduler = new OutboundScheduler(configuration)
+
+        when:
+        long start = System.nanoTime()
+        List<String> responses = (1..3).collect {
+            Flowable.fromPublisher(scheduler.schedule('bot', 1, { -> Flowable.just("sent $it".toString()) })).blockingFirst()
+        }
+
+        then:
+        responses == ['sent 1', 'sent 2', 'sent 3']
+        System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200)
+        scheduler.waiting == 0
+
+        when:
+        configuration.enabled = false
+
+        then:
+        (1..10).every { scheduler.reserveChat('bot', 1) == 0 && scheduler.reserveBot('bot') == 0 }
+    }
+
+    void "buckets of idle chats are purged"() {
+        given:
+        OutboundScheduler scheduler = new OutboundScheduler(new OutboundRateLimitConfigurationProperties())
+        scheduler.reserveChat('bot', 1)
+
+        when:
+        sleep(1100)
+        scheduler.purge()
+
+        then:
+        scheduler.reserveChat('bot', 1) == 0
+    }
+}
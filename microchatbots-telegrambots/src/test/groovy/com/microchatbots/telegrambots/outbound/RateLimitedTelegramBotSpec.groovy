@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.outbound
+
+import com.microchatbots.telegrambots.api.BlockingTelegramBot
+import com.microchatbots.telegrambots.api.TelegramApiResponse
+import com.microchatbots.telegrambots.api.TelegramBot
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.ResponseParameters
+import com.microchatbots.telegrambots.core.send.SendMessage
+import com.microchatbots.telegrambots.core.send.SerializedSendMessage
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.reactivex.Flowable
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class RateLimitedTelegramBotSpec extends Specification {
+
+    OutboundScheduler scheduler = new OutboundScheduler(new OutboundRateLimitConfigurationProperties(groupMessagesPerMinute: 6000))
+
+    void "a call rejected with retry_after is repeated once the delay has elapsed"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        RateLimitedTelegramBot bot = new RateLimitedTelegramBot(telegramBot, 'bot', scheduler)
+
+        when:
+        long start = System.nanoTime()
+        Message message = Flowable.fromPublisher(bot.sendMessage(sendMessage(1))).blockingFirst()
+
+        then:
+        2 * telegramBot.sendMessage(_ as SendMessage) >>> [
+                Flowable.error(error(HttpStatus.TOO_MANY_REQUESTS, 429, null, 1)),
+                Flowable.just(new Message())]
+        message != null
+        System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(1)
+    }
+
+    void "a call to a migrated group is repeated to the supergroup, which is remembered"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        RateLimitedTelegramBot bot = new RateLimitedTelegramBot(telegramBot, 'bot', scheduler)
+        List<Object> chatIds = []
+        SendMessage message = sendMessage(-100)
+
+        when:
+        Flowable.fromPublisher(bot.sendMessage(message)).blockingFirst()
+        Flowable.fromPublisher(bot.sendMessage(message)).blockingFirst()
+
+        then:
+        3 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            chatIds << sendMessage.chatId
+            chatIds.size() == 1 ?
+                    Flowable.error(error(HttpStatus.BAD_REQUEST, 400, -1001234567890L, null)) :
+                    Flowable.just(new Message())
+        }
+        chatIds == [-100, -1001234567890L, -1001234567890L]
+        message.chatId == -100
+    }
+
+    void "a pre-serialized message to a migrated group is copied with its serialized fields"() {
+        given:
+        TelegramBot telegramBot = Mock()
+        RateLimitedTelegramBot bot = new RateLimitedTelegramBot(telegramBot, 'bot', scheduler)
+        List<SendMessage> sent = []
+        SerializedSendMessage message = new SerializedSendMessage('hello', 'Markdown', '"text":"hello","parse_mode":"Markdown"}')
+        message.chatId = -200
+
+        when:
+        Flowable.fromPublisher(bot.sendMessage(message)).blockingFirst()
+
+        then:
+        2 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            sent << sendMessage
+            sent.size() == 1 ?
+                    Flowable.error(error(HttpStatus.BAD_REQUEST, 400, -1009876543210L, null)) :
+                    Flowable.just(new Message())
+        }
+        sent[1] instanceof SerializedSendMessage
+        ((SerializedSendMessage) sent[1]).toJson() == '{"chat_id":"-1009876543210","text":"hello","parse_mode":"Markdown"}'
+        message.toJson() == '{"chat_id":"-200","text":"hello","parse_mode":"Markdown"}'
+    }
+
+    void "a blocking call to a migrated group sends a copy of the message to the supergroup"() {
+        given:
+        BlockingTelegramBot telegramBot = Mock()
+        RateLimitedBlockingTelegramBot bot = new RateLimitedBlockingTelegramBot(telegramBot, 'bot', scheduler)
+        List<SendMessage> sent = []
+        SendMessage message = sendMessage(-100)
+
+        when:
+        bot.sendMessage(message)
+
+        then:
+        2 * telegramBot.sendMessage(_ as SendMessage) >> { SendMessage sendMessage ->
+            sent << sendMessage
+            if (sent.size() == 1) {
+                throw error(HttpStatus.BAD_REQUEST, 400, -1001234567890L, null)
+            }
+            new Message()
+        }
+        sent*.chatId == [-100, -1001234567890L]
+        sent[1].text == message.text
+        !sent[1].is(message)
+        message.chatId == -100
+    }
+
+    void "other errors are not repeated"() {
+        given:
+        BlockingTelegramBot telegramBot = Mock()
+        RateLimitedBlockingTelegramBot bot = new RateLimitedBlockingTelegramBot(telegramBot, 'bot', scheduler)
+
+        when:
+        bot.sendMessage(sendMessage(1))
+
+        then:
+        1 * telegramBot.sendMessage(_ as SendMessage) >> { throw error(HttpStatus.FORBIDDEN, 403, null, null) }
+        thrown(HttpClientResponseException)
+    }
+
+    private static SendMessage sendMessage(Object chatId) {
+        SendMessage sendMessage = new SendMessage()
+        sendMessage.chatId = chatId
+        sendMessage.text = 'hello'
+        sendMessage
+    }
+
+    private static HttpClientResponseException error(HttpStatus status, Integer errorCode, Long migrateToChatId, Integer retryAfter) {
+        ResponseParameters parameters = new ResponseParameters()
+        parameters.migrateToChatId = migrateToChatId
+        parameters.retryAfter = retryAfter
+        TelegramApiResponse response = new TelegramApiResponse()
+        response.ok = false
+        response.errorCode = errorCode
+        response.parameters = parameters
+        new HttpClientResponseException(status.reason, HttpResponse.status(status).body(response))
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser
+
+import com.microchatbots.telegrambots.api.ApplicationContextSpecification
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import com.microchatbots.telegrambots.core.UpdateType
+import com.microchatbots.telegrambots.core.lazy.LazyUpdateReader
+import spock.lang.Shared
+
+class StreamingUpdateDecoderSpec extends ApplicationContextSpecification {
+
+    @Shared
+    StreamingUpdateDecoder decoder = new StreamingUpdateDecoder(objectMapper, new TelegramParser(), new LazyUpdateReader(objectMapper))
+
+    void "routing fields of a message are decoded without binding the update"() {
+        given:
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties('test')
+        bot.token = 'token'
+        bot.atUsername = '@testbot'
+        String json = '''{
+  "update_id": 10000,
+  "message": {
+    "message_id": 1365,
+    "photo": [{"file_id": "a", "file_unique_id": "b", "width": 90, "height": 90}],
+    "reply_to_message": {"message_id": 1, "chat": {"id": 7, "type": "private"}, "from": {"id": 8, "is_bot": false, "first_name": "Other"}, "text": "/other"},
+    "chat": {"id": 1111111, "type": "private", "first_name": "Test"},
+    "from": {"id": 2222222, "is_bot": false, "first_name": "Test"},
+    "date": 1441645532,
+    "text": "/start@testbot now",
+    "entities": [{"type": "bot_command", "offset": 0, "length": 14}]
+  }
+}'''
+
+        when:
+        PartialUpdateRequestContext context = (PartialUpdateRequestContext) decoder.createContext(bot, json)
+
+        then:
+        context.partialUpdate.updateId.get() == 10000
+        context.updateMask == UpdateType.MESSAGE.mask
+        context.spaceUniqueIdentifier.get() == 1111111
+        context.userUniqueIdentifier.get() == 2222222
+        context.text.get() == '/start@testbot now'
+        context.textWithoutBotName.get() == '/start now'
+        context.command.get() == 'start'
+        context.arguments.get() == 'now'
+        !context.bound
+
+        when:
+        String replyText = context.input.message.replyToMessage.text
+
+        then:
+        replyText == '/other'
+        context.bound
+    }
+
+    void "callback queries are keyed by chat instance and carry the callback data as text"() {
+        when:
+        PartialUpdate update = decoder.decode('{"update_id": 1, "callback_query": {"id": "4382", "from": {"id": 5, "is_bot": false, "first_name": "T"}, "message": {"message_id": 1, "chat": {"id": 9, "type": "private"}}, "chat_instance": "-3000", "data": "vote:up"}}')
+
+        then:
+        update.updateType.get() == UpdateType.CALLBACK_QUERY
+        update.spaceUniqueIdentifier.get() == '-3000'
+        update.userUniqueIdentifier.get() == 5
+        update.text.get() == 'vote:up'
+        update.entities == null
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.parser
+
+import com.microchatbots.core.request.DefaultRequestContext
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import com.microchatbots.telegrambots.core.Chat
+import com.microchatbots.telegrambots.core.Message
+import com.microchatbots.telegrambots.core.MessageEntity
+import com.microchatbots.telegrambots.core.Update
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class TelegramParserSpec extends Specification {
+
+    @Shared
+    TelegramParser parser = new TelegramParser()
+
+    @Unroll
+    void "command of '#text' is #expected"(String text, String expected) {
+        given:
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties('test')
+        bot.token = 'token'
+        bot.atUsername = '@test.bot'
+        Chat chat = new Chat()
+        chat.id = 1
+        Message message = new Message()
+        message.chat = chat
+        message.text = text
+        Update update = new Update()
+        update.updateId = 1
+        update.message = message
+
+        expect:
+        parser.parserCommand(bot, update).orElse(null) == expected
+
+        where:
+        text                           || expected
+        '/start'                       || 'start'
+        '/start@test.bot'              || 'start'
+        '/help@test.bot some arguments' || 'help'
+        ' @test.bot /help'             || 'help'
+        '/start@testXbot'              || 'start@testXbot'
+        'hello /start'                 || null
+        'hello'                        || null
+    }
+
+    void "removeAll returns the same instance when the literal is absent"() {
+        given:
+        String text = '/start'
+
+        expect:
+        TelegramParser.removeAll(text, '@bot').is(text)
+        TelegramParser.removeAll('@bot a @bot b@bot', '@bot') == ' a  b'
+    }
+
+    void "commands are taken from bot_command entities"() {
+        given:
+        TelegramBotConfigurationProperties bot = bot()
+        Update update = update('/vote@testbot yes /poll@OtherBot q /help', [
+                entity('bot_command', 0, 13),
+                entity('bot_command', 18, 14),
+                entity('bot_command', 35, 5)
+        ])
+
+        when:
+        List<CommandEntity> commands = parser.parseCommands(bot, update)
+
+        then:
+        commands*.name == ['vote', 'poll', 'help']
+        commands*.arguments*.orElse(null) == ['yes', 'q', null]
+        commands*.isAddressedTo('@testbot') == [true, false, true]
+        parser.parserCommand(bot, update).get() == 'vote'
+        parser.parseText(bot, update, true).get() == '/vote yes /poll@OtherBot q /help'
+        new DefaultRequestContext<Update>(bot, update, parser, parser, parser).arguments.get() == 'yes'
+    }
+
+    void "commands addressed to other bots are ignored"() {
+        expect:
+        !parser.parserCommand(bot(), update('/start@OtherBot', [entity('bot_command', 0, 15)])).isPresent()
+    }
+
+    void "a command preceded by a mention of the bot is the leading command"() {
+        expect:
+        parser.parserCommand(bot(), update('@testbot /help', [entity('mention', 0, 8), entity('bot_command', 9, 5)])).get() == 'help'
+        !parser.parserCommand(bot(), update('hi /help', [entity('bot_command', 3, 5)])).isPresent()
+    }
+
+    private static TelegramBotConfigurationProperties bot() {
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties('test')
+        bot.token = 'token'
+        bot.atUsername = '@testbot'
+        bot
+    }
+
+    private static Update update(String text, List<MessageEntity> entities) {
+        Chat chat = new Chat()
+        chat.id = 1
+        Message message = new Message()
+        message.chat = chat
+        message.text = text
+        message.entities = entities
+        Update update = new Update()
+        update.updateId = 1
+        update.message = message
+        update
+    }
+
+    private static MessageEntity entity(String type, int offset, int length) {
+        MessageEntity entity = new MessageEntity()
+        entity.type = type
+        entity.offset = offset
+        entity.length = length
+        entity
+    }
+}
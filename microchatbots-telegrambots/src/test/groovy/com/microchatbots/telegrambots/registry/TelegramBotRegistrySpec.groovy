@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.registry
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.microchatbots.telegrambots.api.DefaultTelegramBots
+import com.microchatbots.telegrambots.api.TelegramBotClient
+import com.microchatbots.telegrambots.api.TelegramBotClientConfiguration
+import com.microchatbots.telegrambots.api.TelegramBotConfiguration
+import com.microchatbots.telegrambots.api.TelegramBotConfigurationProperties
+import com.microchatbots.telegrambots.conf.DefaultTokenValidator
+import com.microchatbots.telegrambots.outbound.FileIdCacheConfigurationProperties
+import com.microchatbots.telegrambots.outbound.FileIdCaches
+import com.microchatbots.telegrambots.outbound.MessageCoalescingConfigurationProperties
+import com.microchatbots.telegrambots.outbound.OutboundRateLimitConfigurationProperties
+import com.microchatbots.telegrambots.outbound.OutboundScheduler
+import com.microchatbots.telegrambots.outbound.OutboundTelegramBots
+import com.microchatbots.telegrambots.parser.TelegramParser
+import io.micronaut.context.event.ApplicationEventPublisher
+import io.micronaut.core.io.ResourceLoader
+import io.micronaut.http.client.HttpClient
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.time.Duration
+
+class TelegramBotRegistrySpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    List<TelegramBotConfiguration> loaded = []
+    DefaultTokenValidator tokenValidator = new DefaultTokenValidator([bot('configured', '0:configured')])
+    TelegramBotRegistryConfigurationProperties configuration = new TelegramBotRegistryConfigurationProperties()
+    ApplicationEventPublisher eventPublisher = { Object event -> tokenValidator.onApplicationEvent((TelegramBotRegistryEvent) event) } as ApplicationEventPublisher
+    TelegramBotRegistry registry = new TelegramBotRegistry([tokenValidator.validate('0:configured').get()],
+            [{ -> loaded } as TelegramBotSource],
+            configuration,
+            new DefaultTelegramBots(Mock(TelegramBotClient), Mock(HttpClient),
+                    new TelegramBotClientConfiguration.TelegramBotClientConfigurationConnectionPoolRetryConfiguration(),
+                    new ObjectMapper()),
+            Mock(ResourceLoader) { getResourceAsStream(_) >> Optional.empty() },
+            new TelegramParser(),
+            new TelegramParser(),
+            new ObjectMapper(),
+            eventPublisher,
+            new OutboundTelegramBots(new OutboundScheduler(new OutboundRateLimitConfigurationProperties()),
+                    new MessageCoalescingConfigurationProperties(),
+                    new FileIdCaches(new FileIdCacheConfigurationProperties())))
+
+    void "bots returned by the sources are registered and unregistered on refresh"() {
+        when:
+        loaded << bot('acme', '1:acme')
+        registry.refresh()
+
+        then:
+        registry.find('acme').isPresent()
+        registry.isRegisteredAtRuntime('acme')
+        !registry.isRegisteredAtRuntime('configured')
+        tokenValidator.validate('1:acme').get().name == 'acme'
+
+        when:
+        loaded.clear()
+        registry.refresh()
+
+        then:
+        !registry.find('acme').isPresent()
+        !tokenValidator.validate('1:acme').isPresent()
+
+        and: 'bots configured with telegram.bots are kept'
+        registry.find('configured').isPresent()
+        tokenValidator.validate('0:configured').isPresent()
+    }
+
+    void "a bot whose token changes is registered again"() {
+        given:
+        loaded << bot('acme', '1:acme')
+        registry.refresh()
+
+        when:
+        loaded[0] = bot('acme', '2:acme')
+        registry.refresh()
+
+        then:
+        !tokenValidator.validate('1:acme').isPresent()
+        tokenValidator.validate('2:acme').get().name == 'acme'
+    }
+
+    void "resources are created lazily and released when idle or over the limit"() {
+        given:
+        configuration.maxActiveBots = 2
+        (1..3).each { registry.register(bot("bot$it", "$it:token")) }
+
+        expect:
+        registry.activeBots == 0
+
+        when:
+        registry.getBot(registry.find('bot1').get())
+        registry.getCommandsHandler(registry.find('bot2').get())
+        registry.getBlockingBot(registry.find('bot3').get())
+
+        then:
+        registry.activeBots == 2
+
+        when:
+        configuration.idleTimeout = Duration.ZERO
+        sleep(1)
+        registry.evictIdle()
+
+        then:
+        registry.activeBots == 0
+    }
+
+    void "bots are loaded from a json file"() {
+        given:
+        Path file = directory.resolve('bots.json')
+        file.text = '[{"name": "acme", "token": "1:acme", "at_username": "@acmebot", "commands": {"start": "Start the bot"}}]'
+        configuration.file = file.toString()
+
+        when:
+        Collection<TelegramBotConfiguration> bots = new FileTelegramBotSource(new ObjectMapper(), configuration).load()
+
+        then:
+        bots.size() == 1
+        bots[0].name == 'acme'
+        bots[0].token == '1:acme'
+        bots[0].atUsername == '@acmebot'
+        bots[0].botCommands*.command == ['start']
+    }
+
+    private static TelegramBotConfiguration bot(String name, String token) {
+        TelegramBotConfigurationProperties bot = new TelegramBotConfigurationProperties(name)
+        bot.token = token
+        bot.atUsername = "@${name}bot"
+        bot
+    }
+}
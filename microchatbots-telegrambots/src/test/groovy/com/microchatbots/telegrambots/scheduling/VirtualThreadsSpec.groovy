@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2021 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.microchatbots.telegrambots.scheduling
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.scheduling.TaskExecutors
+import spock.lang.IgnoreIf
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.TimeUnit
+
+class VirtualThreadsSpec extends Specification {
+
+    @IgnoreIf({ VirtualThreads.isAvailable() })
+    void "without Java 21 classes virtual threads are unavailable and the I/O executor runs blocking handlers"() {
+        when:
+        VirtualThreads.newExecutor('test')
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        ApplicationContext applicationContext = ApplicationContext.run()
+        ExecutorService blocking = applicationContext.getBean(ExecutorService, Qualifiers.byName(BlockingExecutorFactory.BLOCKING))
+
+        then:
+        blocking.is(applicationContext.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.IO)))
+
+        cleanup:
+        applicationContext?.close()
+    }
+
+    @Requires({ VirtualThreads.isAvailable() })
+    void "on Java 21 blocking handlers run on virtual threads"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run()
+        ExecutorService blocking = applicationContext.getBean(ExecutorService, Qualifiers.byName(BlockingExecutorFactory.BLOCKING))
+
+        when:
+        Thread thread = blocking.submit({ Thread.currentThread() } as Callable<Thread>).get(5, TimeUnit.SECONDS)
+
+        then:
+        thread.virtual
+        thread.name.startsWith(BlockingExecutorFactory.BLOCKING + '-')
+
+        when:
+        applicationContext.close()
+
+        then:
+        blocking.isShutdown()
+    }
+
+    @Requires({ VirtualThreads.isAvailable() })
+    void "virtual threads can be disabled"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run(['telegram.blocking-executor.virtual-threads': false])
+
+        expect:
+        applicationContext.getBean(ExecutorService, Qualifiers.byName(BlockingExecutorFactory.BLOCKING))
+                .is(applicationContext.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.IO)))
+
+        cleanup:
+        applicationContext.close()
+    }
+}